@@ -0,0 +1,36 @@
+package grading;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AppLogger.log throughput (messages/ms) from one and four producer threads.
+ * Logs go to target/bench-app.log; the queue blocks when full, so the score is
+ * bounded by the background writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dapplogger.file=target/bench-app.log", "-Dapplogger.overflow=BLOCK", "-Drotation.compress=false"})
+public class AppLoggerBenchmark {
+
+    @TearDown(Level.Trial)
+    public void drain() {
+        AppLogger.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void log1Thread() {
+        AppLogger.log("Student added: ID 211015060");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void log4Threads() {
+        AppLogger.log("Student added: ID 211015060");
+    }
+}
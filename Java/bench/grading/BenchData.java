@@ -0,0 +1,53 @@
+package grading;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * BENCHMARK FIXTURES
+ * * Purpose: Deterministic synthetic courses and students shared by the benchmarks.
+ */
+final class BenchData {
+
+    static final double[] GRADE_POINTS = {4.00, 3.50, 3.25, 3.00, 2.50, 2.25, 2.00, 1.50, 0.00};
+    static final String[] GRADE_CODES = {"AA", "BA", "BB", "CB", "CC", "DC", "DD", "FD", "FF"};
+
+    private static final String[] FIRST_NAMES = {"Zeynep", "Elif", "Ahmet", "Mehmet", "Ayşe", "Can", "Büşra", "Emre"};
+    private static final String[] LAST_NAMES = {"Can", "Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Akçay", "Öztürk"};
+
+    private BenchData() {}
+
+    static List<Course> courses(int count, long seed) {
+        Random r = new Random(seed);
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            courses.add(new Course("Course " + i, "C" + i, 1 + r.nextInt(8)));
+        }
+        return courses;
+    }
+
+    static Student student(int index, Random r) {
+        return new Student(FIRST_NAMES[r.nextInt(FIRST_NAMES.length)],
+                LAST_NAMES[r.nextInt(LAST_NAMES.length)],
+                String.valueOf(200_000_000 + index),
+                LocalDate.of(1995 + r.nextInt(10), 1 + r.nextInt(12), 1 + r.nextInt(28)));
+    }
+
+    /**
+     * @return students with 'gradesPerStudent' random grades each
+     */
+    static List<Student> students(int count, List<Course> courses, int gradesPerStudent, long seed) {
+        Random r = new Random(seed);
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Student s = student(i, r);
+            for (int g = 0; g < gradesPerStudent; g++) {
+                s.addGrade(courses.get(r.nextInt(courses.size())), GRADE_POINTS[r.nextInt(GRADE_POINTS.length)]);
+            }
+            students.add(s);
+        }
+        return students;
+    }
+}
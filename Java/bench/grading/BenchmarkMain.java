@@ -0,0 +1,32 @@
+package grading;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BENCHMARK LAUNCHER
+ * * Purpose: Entry point of target/benchmarks.jar. Accepts the usual JMH command line
+ * (e.g. a benchmark regex, -f, -wi, -i) but always writes machine-readable JSON
+ * results so runs can be compared between releases.
+ *
+ * Default result file: target/jmh-result.json (override with -rff).
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+
+        Options opts = new OptionsBuilder()
+                .parent(cmd)
+                .resultFormat(cmd.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(cmd.getResult().orElse("target/jmh-result.json"))
+                .build();
+
+        new Runner(opts).run();
+    }
+}
@@ -0,0 +1,56 @@
+package grading;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The original linear duplicate-ID scan from Main vs. the StudentRegistry hash lookup.
+ * Probes alternate between a present ID and a missing one (the common "new student" case).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DuplicateCheckBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    private List<Student> allStudents;
+    private StudentRegistry registry;
+    private String[] probes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        allStudents = BenchData.students(students, BenchData.courses(1, 1), 0, 3);
+        registry = new StudentRegistry();
+        for (Student s : allStudents) {
+            registry.addStudent(s);
+        }
+        probes = new String[] {
+                allStudents.get(students / 2).getStudentId(),
+                "999999999"
+        };
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        String id = probes[next++ & 1];
+        for (Student s : allStudents) {
+            if (s.getStudentId().equals(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean registryLookup() {
+        return registry.containsStudent(probes[next++ & 1]);
+    }
+}
@@ -0,0 +1,126 @@
+package grading;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * GPA QUANTILE ACCURACY
+ * * Purpose: Compares the streaming GpaQuantileSketch with exact quantiles
+ * (sorting all GPAs): error per quantile, whether the printed two-decimal values
+ * agree, whether merged partition sketches equal the single-stream sketch, and
+ * retained heap of the sketch vs. the GPA array that sorting needs.
+ *
+ * Run  : java -Xmx4g -XX:+UseSerialGC -cp target/benchmarks.jar grading.GpaQuantileAccuracy [students]
+ *        (SerialGC: G1 under-reports freshly allocated large arrays in heap usage)
+ * Output: console summary + target/quantile-result.json
+ */
+public class GpaQuantileAccuracy {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final double[] QUANTILES = {0.01, 0.10, 0.25, 0.50, 0.75, 0.90, 0.99};
+    private static final int PARTITIONS = 8;
+
+    public static void main(String[] args) throws IOException {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        // Real weighted GPAs (8 graded courses each) and arbitrary doubles in 0..4
+        List<Student> cohort = BenchData.students(students, BenchData.courses(40, 42), 8, 7);
+        double[] weighted = new double[students];
+        for (int i = 0; i < students; i++) weighted[i] = cohort.get(i).calculateGPA();
+        cohort = null;
+
+        Random r = new Random(3);
+        double[] uniform = new double[students];
+        for (int i = 0; i < students; i++) uniform[i] = r.nextDouble() * 4.0;
+
+        System.out.printf(Locale.US, "Students: %d | Bins: %d%n", students, GpaQuantileSketch.BINS);
+        StringBuilder json = new StringBuilder("{\"benchmark\":\"gpaQuantiles\",\"students\":").append(students);
+        compare("weighted", weighted, json);
+        compare("uniform", uniform, json);
+
+        // Retained heap: the sketch vs. the double[] an exact computation has to sort
+        int copies = 10_000;
+        long base = usedHeap();
+        GpaQuantileSketch[] sketches = new GpaQuantileSketch[copies];
+        for (int i = 0; i < copies; i++) sketches[i] = new GpaQuantileSketch();
+        long sketchBytes = (usedHeap() - base - 4L * copies) / copies;
+
+        base = usedHeap();
+        double[] exactCopy = Arrays.copyOf(weighted, students);
+        long exactBytes = usedHeap() - base;
+
+        System.out.printf(Locale.US, "Memory  sketch: %,d bytes (any cohort size) | exact: %,d bytes (%d students)%n",
+                sketchBytes, exactBytes, students);
+        json.append(",\"sketchBytes\":").append(sketchBytes).append(",\"exactBytes\":").append(exactBytes).append('}');
+
+        Path out = Paths.get("target", "quantile-result.json");
+        Files.createDirectories(out.getParent());
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(out))) {
+            w.println(json);
+        }
+
+        // Keep the measured objects reachable until after the measurement
+        if (sketches[copies - 1] == null || exactCopy.length != students) throw new IllegalStateException();
+    }
+
+    private static void compare(String name, double[] gpas, StringBuilder json) {
+        GpaQuantileSketch single = new GpaQuantileSketch();
+        for (double g : gpas) single.accept(g);
+
+        // Same values streamed into independent partitions, then merged
+        GpaQuantileSketch merged = new GpaQuantileSketch();
+        for (int p = 0; p < PARTITIONS; p++) {
+            GpaQuantileSketch part = new GpaQuantileSketch();
+            for (int i = p; i < gpas.length; i += PARTITIONS) part.accept(gpas[i]);
+            merged.merge(part);
+        }
+
+        double[] sorted = gpas.clone();
+        Arrays.sort(sorted);
+
+        double maxError = 0;
+        int printedEqual = 0;
+        boolean mergeEqual = true;
+        System.out.printf(Locale.US, "%n[%s] q      exact      sketch   error%n", name);
+        for (double q : QUANTILES) {
+            double exact = sorted[(int) Math.max(0, Math.ceil(q * sorted.length) - 1)];
+            double approx = single.quantile(q);
+            double error = Math.abs(approx - exact);
+            maxError = Math.max(maxError, error);
+            if (fixed2(exact).equals(fixed2(approx))) printedEqual++;
+            if (merged.quantile(q) != approx) mergeEqual = false;
+            System.out.printf(Locale.US, "  %5.2f  %.6f  %.2f     %.6f%n", q, exact, approx, error);
+        }
+        System.out.printf(Locale.US, "  max error %.6f | printed values equal %d/%d | merged == single: %s%n",
+                maxError, printedEqual, QUANTILES.length, mergeEqual);
+
+        json.append(",\"").append(name).append("\":{\"maxError\":").append(String.format(Locale.US, "%.6f", maxError))
+                .append(",\"printedEqual\":").append(printedEqual).append(",\"quantiles\":").append(QUANTILES.length)
+                .append(",\"mergeEqual\":").append(mergeEqual).append('}');
+    }
+
+    private static String fixed2(double value) {
+        return FileManager.appendFixed2(new StringBuilder(), value).toString();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,52 @@
+package grading;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Median + quartiles + P10/P90 of a cohort: streaming the GPAs into a
+ * GpaQuantileSketch vs. copying and sorting them (the exact computation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GpaQuantileBenchmark {
+
+    private static final double[] QUANTILES = {0.10, 0.25, 0.50, 0.75, 0.90};
+
+    @Param({"10000", "1000000"})
+    public int students;
+
+    private double[] gpas;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Student> cohort = BenchData.students(students, BenchData.courses(40, 42), 8, 7);
+        gpas = new double[students];
+        for (int i = 0; i < students; i++) gpas[i] = cohort.get(i).calculateGPA();
+    }
+
+    @Benchmark
+    public double sketch() {
+        GpaQuantileSketch sketch = new GpaQuantileSketch();
+        for (double g : gpas) sketch.accept(g);
+        double sum = 0;
+        for (double q : QUANTILES) sum += sketch.quantile(q);
+        return sum;
+    }
+
+    @Benchmark
+    public double exactSort() {
+        double[] sorted = Arrays.copyOf(gpas, gpas.length);
+        Arrays.sort(sorted);
+        double sum = 0;
+        for (double q : QUANTILES) sum += sorted[(int) Math.max(0, Math.ceil(q * sorted.length) - 1)];
+        return sum;
+    }
+}
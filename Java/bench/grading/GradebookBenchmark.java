@@ -0,0 +1,58 @@
+package grading;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent grade submission: striped Gradebook (256 locks) vs. a single global lock,
+ * on one thread and on all cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradebookBenchmark {
+
+    private static final LetterGrade[] GRADES = LetterGrade.values();
+
+    @Param({"256", "1"})
+    public int stripes;
+
+    private List<Course> courses;
+    private List<Student> students;
+    private Gradebook gradebook;
+
+    @Setup
+    public void setup() {
+        courses = BenchData.courses(40, 42);
+        students = BenchData.students(20_000, courses, 0, 7);
+        StudentRegistry registry = new StudentRegistry();
+        for (Student s : students) registry.addStudent(s);
+        gradebook = new Gradebook(registry, null, stripes);
+    }
+
+    private void submitRandom() throws IOException {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        gradebook.submit(students.get(r.nextInt(students.size())),
+                courses.get(r.nextInt(courses.size())),
+                GRADES[r.nextInt(GRADES.length)]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void submitOneThread() throws IOException {
+        submitRandom();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void submitAllCores() throws IOException {
+        submitRandom();
+    }
+}
@@ -0,0 +1,164 @@
+package grading;
+
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * GRADEBOOK STRESS TEST
+ * * Purpose: Hammers Gradebook from 1..2x cores platform threads (and, on Java 21+,
+ * thousands of virtual-thread graders), prints submissions/second per thread count,
+ * and verifies after every round that
+ * - every student's running GPA totals match a full recalculation, and
+ * - no update was lost (transcript sizes == distinct (student, course) pairs submitted).
+ * With 'journal', every submission is also journaled and waits for its group commit
+ * (the path virtual-thread graders block on), and each round additionally checks that
+ * replaying the journal rebuilds exactly the same transcripts.
+ * Exits with status 1 if a check fails.
+ *
+ * Run  : java -cp target/benchmarks.jar grading.GradebookStressTest [students] [submissionsPerThread] [journal]
+ *        (also run by 'mvn -Pbench verify', small sizes, with and without journal)
+ * Output: console table + target/gradebook-result.json
+ */
+public class GradebookStressTest {
+
+    private static final int COURSES = 40;
+
+    public static void main(String[] args) throws Exception {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        boolean journaled = args.length > 2 && args[2].equals("journal");
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        List<Course> courses = BenchData.courses(COURSES, 42);
+        List<String> json = new ArrayList<>();
+        boolean ok = true;
+
+        System.out.printf(Locale.US, "Students: %d | Courses: %d | Cores: %d | Journal: %b%n",
+                studentCount, COURSES, cores, journaled);
+        System.out.println("threads | submissions/s | consistent");
+
+        for (int threads = 1; threads <= 2 * cores; threads *= 2) {
+            Round r = run(studentCount, courses, threads, perThread, false, journaled);
+            ok &= r.consistent;
+            System.out.printf(Locale.US, "%7d | %13.0f | %s%n", threads, r.opsPerSecond, r.consistent);
+            json.add(String.format(Locale.US, "{\"mode\":\"platform\",\"journal\":%b,\"threads\":%d,\"opsPerSecond\":%.0f,\"consistent\":%b}",
+                    journaled, threads, r.opsPerSecond, r.consistent));
+        }
+
+        if (VirtualThreads.isAvailable()) {
+            int graders = 10_000;
+            Round r = run(studentCount, courses, graders, Math.max(1, perThread * cores / graders), true, journaled);
+            ok &= r.consistent;
+            System.out.printf(Locale.US, "%7s | %13.0f | %s   (%d virtual-thread graders)%n",
+                    "virtual", r.opsPerSecond, r.consistent, graders);
+            json.add(String.format(Locale.US, "{\"mode\":\"virtual\",\"journal\":%b,\"threads\":%d,\"opsPerSecond\":%.0f,\"consistent\":%b}",
+                    journaled, graders, r.opsPerSecond, r.consistent));
+        }
+
+        Path out = Paths.get("target", "gradebook-result.json");
+        Files.createDirectories(out.getParent());
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(out))) {
+            w.println("[" + String.join(",", json) + "]");
+        }
+
+        if (!ok) {
+            System.err.println(">> ERROR: Gradebook consistency check failed.");
+            System.exit(1);
+        }
+    }
+
+    private static final class Round {
+        final double opsPerSecond;
+        final boolean consistent;
+
+        Round(double opsPerSecond, boolean consistent) {
+            this.opsPerSecond = opsPerSecond;
+            this.consistent = consistent;
+        }
+    }
+
+    private static Round run(int studentCount, List<Course> courses, int workers, int perWorker, boolean virtual,
+                             boolean journaled) throws Exception {
+        StudentRegistry registry = new StudentRegistry();
+        List<Student> students = BenchData.students(studentCount, courses, 0, 7);
+        for (Student s : students) registry.addStudent(s);
+        for (Course c : courses) registry.addCourse(c);
+        Path journalFile = journaled ? Files.createTempFile("gradebook", ".journal") : null;
+        Journal journal = journaled ? new Journal(journalFile) : null;
+        Gradebook gradebook = new Gradebook(registry, journal);
+
+        // One bit per (student, course) pair that received at least one grade
+        AtomicLongArray submitted = new AtomicLongArray((studentCount * courses.size() + 63) / 64);
+        LetterGrade[] grades = LetterGrade.values();
+
+        ExecutorService pool = virtual
+                ? VirtualThreads.newPerTaskExecutor("grader")
+                : Executors.newFixedThreadPool(workers);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom r = ThreadLocalRandom.current();
+                    for (int i = 0; i < perWorker; i++) {
+                        int si = r.nextInt(studentCount);
+                        int ci = r.nextInt(courses.size());
+                        gradebook.submit(students.get(si), courses.get(ci), grades[r.nextInt(grades.length)]);
+                        int bit = si * courses.size() + ci;
+                        long mask = 1L << (bit & 63);
+                        if ((submitted.get(bit >>> 6) & mask) == 0) {
+                            submitted.getAndUpdate(bit >>> 6, v -> v | mask);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdown();
+            if (journal != null) journal.close();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long pairs = 0;
+        for (int i = 0; i < submitted.length(); i++) pairs += Long.bitCount(submitted.get(i));
+        long transcriptEntries = 0;
+        for (Student s : students) transcriptEntries += gradebook.gradeCount(s);
+
+        boolean consistent = gradebook.isConsistent(students)
+                && transcriptEntries == pairs
+                && gradebook.getRecordedCount() == (long) workers * perWorker;
+        if (journaled) {
+            consistent &= replayMatches(journalFile, students, courses);
+            Files.delete(journalFile);
+        }
+        return new Round(gradebook.getRecordedCount() / seconds, consistent);
+    }
+
+    // The journal replayed onto fresh copies of the students must rebuild the same transcripts
+    private static boolean replayMatches(Path journalFile, List<Student> students, List<Course> courses)
+            throws Exception {
+        StudentRegistry replayed = new StudentRegistry();
+        List<Student> copies = BenchData.students(students.size(), courses, 0, 7);
+        for (Student s : copies) replayed.addExistingStudent(s);
+        for (Course c : courses) replayed.addCourse(c);
+        Journal.replay(journalFile, replayed);
+
+        for (int i = 0; i < students.size(); i++) {
+            Student a = students.get(i);
+            Student b = copies.get(i);
+            if (a.getGradeCount() != b.getGradeCount() || a.calculateGPA() != b.calculateGPA()) return false;
+        }
+        return true;
+    }
+}
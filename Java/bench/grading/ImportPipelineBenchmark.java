@@ -0,0 +1,196 @@
+package grading;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * IMPORT PIPELINE BENCHMARK
+ * * Purpose: Wall time of a large multi-file import, the sequential BulkImporter
+ * (one file per kind) vs. ImportPipeline with different stage thread counts (the
+ * same rows split over several files). Every configuration runs in its own JVM and
+ * prints the pipeline's per-stage table; student count, applied grades and the GPA
+ * checksum must be equal in every mode.
+ *
+ * About 1% of the student and grade rows are invalid and end up in the error file.
+ *
+ * Run  : java -Xmx2g -cp target/benchmarks.jar grading.ImportPipelineBenchmark [students] [gradesPerStudent] [files]
+ *        (defaults 300,000 students, 6 grades, 4 files per kind)
+ * Output: console summary + target/import-pipeline-result.json
+ */
+public class ImportPipelineBenchmark {
+
+    // name, then -D settings for the measurement JVM
+    private static final String[][] MODES = {
+            {"sequential"},
+            {"pipeline-1", "-Dimport.splitters=1", "-Dimport.parsers=1", "-Dimport.appliers=1"},
+            {"pipeline-default"},
+            {"pipeline-wide", "-Dimport.splitters=2", "-Dimport.parsers=8", "-Dimport.appliers=4"},
+    };
+
+    private static final String[] LETTERS = {"AA", "BA", "BB", "CB", "CC", "DC", "DD", "FD", "FF"};
+
+    public static void main(String[] args) throws Exception {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 300_000;
+        int grades = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int files = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        if (args.length > 3) {
+            child(Paths.get(args[3]), args[4], files);
+            return;
+        }
+
+        Path dir = Files.createTempDirectory("import-bench");
+        generate(dir, students, grades, files);
+        System.out.printf(Locale.US, "Students: %,d | Grades/student: %d | Files per kind: %d | CPUs: %d%n%n",
+                students, grades, files, Runtime.getRuntime().availableProcessors());
+
+        StringBuilder json = new StringBuilder("{\"benchmark\":\"importPipeline\",\"students\":").append(students)
+                .append(",\"gradesPerStudent\":").append(grades).append(",\"files\":").append(files)
+                .append(",\"cpus\":").append(Runtime.getRuntime().availableProcessors());
+        List<String> summary = new ArrayList<>();
+        String expected = null;
+        for (String[] mode : MODES) {
+            String[] f = runChild(dir, mode, students, grades, files).split(" ");
+            String check = f[1] + " " + f[2] + " " + f[3] + " " + f[4];
+            if (expected == null) expected = check;
+            else if (!expected.equals(check)) throw new IllegalStateException(mode[0] + " imported " + check + ", expected " + expected);
+            summary.add(String.format(Locale.US, "%-17s %9s %12s %10s", mode[0], f[0], f[1], f[4]));
+            json.append(",\"").append(mode[0]).append("\":{\"ms\":").append(f[0]).append('}');
+        }
+        json.append(",\"imported\":").append(expected.split(" ")[0]).append('}');
+
+        System.out.printf(Locale.US, "%n%-17s %9s %12s %10s%n", "mode", "ms", "students", "rejected");
+        summary.forEach(System.out::println);
+        System.out.println("Result check (students, grades, GPA checksum, rejected): equal in every mode");
+
+        Path out = Paths.get("target", "import-pipeline-result.json");
+        Files.createDirectories(out.getParent());
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(out))) {
+            w.println(json);
+        }
+        try (var paths = Files.walk(dir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private static String runChild(Path dir, String[] mode, int students, int grades, int files)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(), "-Xmx2g",
+                "-Dimport.errorFile=" + dir.resolve("errors-" + mode[0] + ".txt"),
+                "-Dapplogger.file=" + dir.resolve("app.log")));
+        command.addAll(Arrays.asList(mode).subList(1, mode.length));
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), ImportPipelineBenchmark.class.getName(),
+                String.valueOf(students), String.valueOf(grades), String.valueOf(files), dir.toString(), mode[0]));
+
+        System.out.println("[" + mode[0] + "]");
+        Process p = new ProcessBuilder(command).directory(dir.toFile()).redirectErrorStream(true).start();
+        String result = null;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("RESULT ")) result = line.substring(7);
+                else System.out.println("  " + line);
+            }
+        }
+        if (p.waitFor() != 0 || result == null) throw new IllegalStateException("Measurement JVM failed: " + mode[0]);
+        return result;
+    }
+
+    // =============================================================
+    // MEASUREMENT (child JVM)
+    // =============================================================
+
+    private static void child(Path dir, String mode, int files) throws IOException {
+        StudentRegistry registry = new StudentRegistry();
+        long t0 = System.nanoTime();
+        long rejected;
+        if (mode.equals("sequential")) {
+            rejected = BulkImporter.load(registry, null, dir.resolve("students.csv").toString(),
+                    dir.resolve("courses.csv").toString(), dir.resolve("grades.csv").toString());
+        } else {
+            List<String> parts = new ArrayList<>(List.of(dir.resolve("courses.csv").toString()));
+            for (int f = 0; f < files; f++) {
+                parts.add(dir.resolve("students-" + f + ".csv").toString());
+                parts.add(dir.resolve("grades-" + f + ".csv").toString());
+            }
+            rejected = ImportPipeline.load(registry, null, parts, new ImportPipeline.Settings());
+        }
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+
+        long gradeCount = 0;
+        double gpaSum = 0;
+        for (Student s : registry.getSessionStudents()) {
+            gradeCount += s.getGradeCount();
+            gpaSum += s.calculateGPA();
+        }
+        System.out.println("RESULT " + ms + " " + registry.studentCount() + " " + gradeCount + " "
+                + String.format(Locale.US, "%.4f", gpaSum) + " " + rejected);
+    }
+
+    // =============================================================
+    // INPUT FILES
+    // =============================================================
+
+    // Part files for the pipeline plus the same rows concatenated for the sequential importer
+    private static void generate(Path dir, int students, int grades, int files) throws IOException {
+        List<Course> courses = BenchData.courses(40, 42);
+        try (BufferedWriter w = Files.newBufferedWriter(dir.resolve("courses.csv"), StandardCharsets.UTF_8)) {
+            for (Course c : courses) {
+                w.write(c.getName() + "," + c.getCode() + "," + c.getEcts());
+                w.newLine();
+            }
+        }
+
+        Random r = new Random(7);
+        BufferedWriter[] studentParts = new BufferedWriter[files];
+        BufferedWriter[] gradeParts = new BufferedWriter[files];
+        for (int f = 0; f < files; f++) {
+            studentParts[f] = Files.newBufferedWriter(dir.resolve("students-" + f + ".csv"), StandardCharsets.UTF_8);
+            gradeParts[f] = Files.newBufferedWriter(dir.resolve("grades-" + f + ".csv"), StandardCharsets.UTF_8);
+        }
+        try (BufferedWriter allStudents = Files.newBufferedWriter(dir.resolve("students.csv"), StandardCharsets.UTF_8);
+             BufferedWriter allGrades = Files.newBufferedWriter(dir.resolve("grades.csv"), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < students; i++) {
+                int f = i % files;
+                Student s = BenchData.student(i, r);
+                String row = r.nextInt(100) == 0
+                        ? s.getFirstName() + "," + s.getLastName() + "," + s.getStudentId() + ",1.1.2001x" // invalid date
+                        : s.getFirstName() + "," + s.getLastName() + "," + s.getStudentId() + ","
+                                + String.format("%02d.%02d.%d", 1 + r.nextInt(28), 1 + r.nextInt(12), 1995 + r.nextInt(10));
+                line(studentParts[f], allStudents, row);
+
+                // Distinct courses per student, so the result does not depend on row order
+                int first = r.nextInt(courses.size());
+                for (int g = 0; g < grades; g++) {
+                    String code = courses.get((first + g) % courses.size()).getCode();
+                    String letter = r.nextInt(100) == 0 ? "XX" : LETTERS[r.nextInt(LETTERS.length)];
+                    line(gradeParts[f], allGrades, s.getStudentId() + "," + code + "," + letter);
+                }
+            }
+        } finally {
+            for (int f = 0; f < files; f++) {
+                studentParts[f].close();
+                gradeParts[f].close();
+            }
+        }
+    }
+
+    private static void line(BufferedWriter part, BufferedWriter all, String row) throws IOException {
+        part.write(row);
+        part.newLine();
+        all.write(row);
+        all.newLine();
+    }
+}
@@ -0,0 +1,69 @@
+package grading;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report regeneration after a few grade changes, with and without ReportCache.
+ * Each invocation changes {@code changes} grades of random students, then writes the
+ * full report of all registered students to target/bench-incremental.txt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dreport.file=target/bench-incremental.txt", "-Drotation.compress=false"})
+public class IncrementalReportBenchmark {
+
+    private static final String REPORT_FILE = "target/bench-incremental.txt";
+    private static final LetterGrade[] GRADES = LetterGrade.values();
+
+    @Param({"100000"})
+    public int students;
+
+    @Param({"10", "1000"})
+    public int changes;
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private List<Course> courses;
+    private List<Student> cohort;
+    private StudentRegistry registry;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ReportCache.setEnabled(cache);
+        courses = BenchData.courses(40, 42);
+        cohort = BenchData.students(students, courses, 8, 7);
+        registry = new StudentRegistry();
+        for (Student s : cohort) registry.addStudent(s);
+        random = new Random(5);
+    }
+
+    @Setup(Level.Invocation)
+    public void changeGrades() {
+        for (int i = 0; i < changes; i++) {
+            cohort.get(random.nextInt(cohort.size()))
+                    .addGrade(courses.get(random.nextInt(courses.size())), GRADES[random.nextInt(GRADES.length)]);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncateReport() throws IOException {
+        Files.deleteIfExists(Paths.get(REPORT_FILE));
+    }
+
+    @Benchmark
+    public void regenerateReport() {
+        FileManager.streamAndSaveReport(registry.getSessionStudents(), 0);
+    }
+}
@@ -0,0 +1,171 @@
+package grading;
+
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * HTTP LOAD TEST CLIENT
+ * * Purpose: Drives a running "Main --serve" instance with a realistic mix of requests
+ * and reports throughput and latency percentiles.
+ * Seeds its own students/courses (IDs prefixed with a run stamp, so runs never
+ * collide with existing data), then for the given duration every worker loops over
+ * - 70% GET  /students/{id}
+ * - 25% POST /grades
+ * -  5% GET  /ranking?limit=10
+ * Any non-2xx response is counted as an error.
+ *
+ * Run  : java -cp target/benchmarks.jar grading.LoadTestClient [baseUrl] [workers] [seconds] [students]
+ * Output: console summary + target/loadtest-result.json
+ */
+public class LoadTestClient {
+
+    private static final int COURSES = 20;
+    private static final String[] GRADES = {"AA", "BA", "BB", "CB", "CC", "DC", "DD", "FD", "FF"};
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int studentCount = args.length > 3 ? Integer.parseInt(args[3]) : 2_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        // --- Seed ---
+        String stamp = Long.toString(System.currentTimeMillis(), 36).toUpperCase(Locale.ROOT);
+        String[] studentIds = new String[studentCount];
+        String[] courseCodes = new String[COURSES];
+        for (int i = 0; i < COURSES; i++) {
+            courseCodes[i] = "LT" + stamp + "C" + i;
+            expectOk(post(client, baseUrl + "/courses",
+                    "name=Load+Test+Course&code=" + courseCodes[i] + "&ects=" + (2 + i % 6)));
+        }
+        for (int i = 0; i < studentCount; i++) {
+            studentIds[i] = "LT" + stamp + "S" + i;
+            expectOk(post(client, baseUrl + "/students",
+                    "firstName=Load&lastName=Tester&studentId=" + studentIds[i] + "&birthDate=01.01.2000"));
+        }
+        System.out.printf(Locale.US, "Seeded %d students, %d courses on %s%n", studentCount, COURSES, baseUrl);
+
+        // --- Load ---
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom r = ThreadLocalRandom.current();
+                long[] latencies = new long[1024];
+                int n = 0;
+                long errors = 0;
+                while (System.nanoTime() < deadline) {
+                    int pick = r.nextInt(100);
+                    HttpRequest request;
+                    if (pick < 70) {
+                        request = get(baseUrl + "/students/" + studentIds[r.nextInt(studentCount)]);
+                    } else if (pick < 95) {
+                        request = form(baseUrl + "/grades", "studentId=" + studentIds[r.nextInt(studentCount)]
+                                + "&courseCode=" + courseCodes[r.nextInt(COURSES)]
+                                + "&grade=" + GRADES[r.nextInt(GRADES.length)]);
+                    } else {
+                        request = get(baseUrl + "/ranking?limit=10");
+                    }
+
+                    long t0 = System.nanoTime();
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (java.io.IOException e) {
+                        status = -1;
+                    }
+                    long elapsed = System.nanoTime() - t0;
+
+                    if (status < 200 || status > 299) errors++;
+                    if (n == latencies.length) latencies = Arrays.copyOf(latencies, n * 2);
+                    latencies[n++] = elapsed;
+                }
+                // Last slot carries the error count
+                long[] result = Arrays.copyOf(latencies, n + 1);
+                result[n] = errors;
+                return result;
+            }));
+        }
+
+        long[][] perWorker = new long[workers][];
+        long total = 0;
+        long errors = 0;
+        for (int w = 0; w < workers; w++) {
+            perWorker[w] = futures.get(w).get();
+            total += perWorker[w].length - 1;
+            errors += perWorker[w][perWorker[w].length - 1];
+        }
+        pool.shutdown();
+
+        long[] all = new long[(int) total];
+        int pos = 0;
+        for (long[] l : perWorker) {
+            System.arraycopy(l, 0, all, pos, l.length - 1);
+            pos += l.length - 1;
+        }
+        Arrays.sort(all);
+
+        double rps = total / (double) seconds;
+        double p50 = percentileMillis(all, 0.50);
+        double p99 = percentileMillis(all, 0.99);
+        double max = all.length == 0 ? 0 : all[all.length - 1] / 1e6;
+
+        System.out.println("workers | requests |   req/s | p50 ms | p99 ms | max ms | errors");
+        System.out.printf(Locale.US, "%7d | %8d | %7.0f | %6.2f | %6.2f | %6.2f | %d%n",
+                workers, total, rps, p50, p99, max, errors);
+
+        Path out = Paths.get("target", "loadtest-result.json");
+        Files.createDirectories(out.getParent());
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(out))) {
+            w.printf(Locale.US, "{\"workers\":%d,\"seconds\":%d,\"requests\":%d,\"requestsPerSecond\":%.0f,"
+                            + "\"p50Millis\":%.3f,\"p99Millis\":%.3f,\"maxMillis\":%.3f,\"errors\":%d}%n",
+                    workers, seconds, total, rps, p50, p99, max, errors);
+        }
+    }
+
+    private static double percentileMillis(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static HttpRequest form(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpResponse<String> post(HttpClient client, String url, String body) throws Exception {
+        return client.send(form(url, body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void expectOk(HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding failed: HTTP " + response.statusCode() + " " + response.body());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package grading;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the metrics instrumentation on the hottest paths: the same GPA read and
+ * duplicate check in a JVM with metrics off (default) and one started with
+ * -Dmetrics.enabled=true. The "Off" numbers should match the uninstrumented code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private List<Student> cohort;
+    private StudentRegistry registry;
+    private String[] probes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<Course> courses = BenchData.courses(20, 42);
+        cohort = BenchData.students(10_000, courses, 8, 7);
+        registry = new StudentRegistry();
+        for (Student s : cohort) {
+            registry.addStudent(s);
+        }
+        probes = new String[] {
+                cohort.get(cohort.size() / 2).getStudentId(),
+                "999999999"
+        };
+    }
+
+    private double gpa() {
+        return cohort.get(next++ & 8191).calculateGPA();
+    }
+
+    private boolean duplicateCheck() {
+        return registry.containsStudent(probes[next++ & 1]);
+    }
+
+    @Benchmark
+    public double gpaMetricsOff() {
+        return gpa();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dmetrics.enabled=true")
+    public double gpaMetricsOn() {
+        return gpa();
+    }
+
+    @Benchmark
+    public boolean duplicateCheckMetricsOff() {
+        return duplicateCheck();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dmetrics.enabled=true")
+    public boolean duplicateCheckMetricsOn() {
+        return duplicateCheck();
+    }
+}
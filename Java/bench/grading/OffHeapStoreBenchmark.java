@@ -0,0 +1,222 @@
+package grading;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OFF-HEAP STORE BENCHMARK
+ * * Purpose: Heap Student objects vs. OffHeapStudentStore (direct and file-mapped)
+ * for a large cohort: load throughput, report generation (rank + statistics + all
+ * ranking rows, rendered in memory), ID lookup + grade entry, the GC pauses over
+ * the whole run and a full collection with the cohort live. Every mode runs in its
+ * own JVM with the same heap and G1 (chosen explicitly: small machines default to Serial).
+ *
+ * Run  : java -cp target/benchmarks.jar grading.OffHeapStoreBenchmark [students] [gradesPerStudent] [heap]
+ *        (defaults 2,000,000 students, 10 grades, -Xmx2g)
+ * Output: console summary + target/offheap-result.json
+ */
+public class OffHeapStoreBenchmark {
+
+    private static final String[] MODES = {"heap", "direct", "mapped"};
+    private static final int REPORTS = 5;
+    private static final int LOOKUPS = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int grades = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        String heap = args.length > 2 ? args[2] : "2g";
+        if (args.length > 3) {
+            child(args[3], students, grades);
+            return;
+        }
+
+        StringBuilder json = new StringBuilder("{\"benchmark\":\"offHeapStore\",\"students\":").append(students)
+                .append(",\"gradesPerStudent\":").append(grades).append(",\"heap\":\"").append(heap).append('"');
+        System.out.printf(Locale.US, "Students: %,d | Grades/student: %d | -Xmx%s | %d report(s), %,d lookup+grade%n%n",
+                students, grades, heap, REPORTS, LOOKUPS);
+        System.out.printf(Locale.US, "%-7s %10s %11s %10s %9s %9s %9s %11s%n", "mode", "load ms", "report ms",
+                "lookup ns", "GC count", "GC ms", "max ms", "full GC ms");
+        for (String mode : MODES) {
+            String result = runChild(mode, students, grades, heap);
+            String[] f = result.split(" ");
+            System.out.printf(Locale.US, "%-7s %10s %11s %10s %9s %9s %9s %11s%n",
+                    mode, f[0], f[1], f[2], f[3], f[4], f[5], f[6]);
+            json.append(",\"").append(mode).append("\":{\"loadMs\":").append(f[0]).append(",\"reportMs\":").append(f[1])
+                    .append(",\"lookupNs\":").append(f[2]).append(",\"gcCount\":").append(f[3])
+                    .append(",\"gcMs\":").append(f[4]).append(",\"gcMaxMs\":").append(f[5])
+                    .append(",\"fullGcMs\":").append(f[6]).append('}');
+        }
+        json.append('}');
+
+        Path out = Paths.get("target", "offheap-result.json");
+        Files.createDirectories(out.getParent());
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(out))) {
+            w.println(json);
+        }
+    }
+
+    private static String runChild(String mode, int students, int grades, String heap)
+            throws IOException, InterruptedException {
+        Process p = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xms" + heap, "-Xmx" + heap, "-XX:+UseG1GC",
+                "-cp", System.getProperty("java.class.path"),
+                OffHeapStoreBenchmark.class.getName(), String.valueOf(students), String.valueOf(grades), heap, mode)
+                .redirectErrorStream(true).start();
+        String result = null;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("RESULT ")) result = line.substring(7);
+                else System.out.println("  [" + mode + "] " + line);
+            }
+        }
+        if (p.waitFor() != 0 || result == null) throw new IllegalStateException("Measurement JVM failed: " + mode);
+        return result;
+    }
+
+    // =============================================================
+    // MEASUREMENT (child JVM)
+    // =============================================================
+
+    private static final AtomicLong gcCount = new AtomicLong();
+    private static final AtomicLong gcMillis = new AtomicLong();
+    private static final AtomicLong gcMaxMillis = new AtomicLong();
+
+    private static void child(String mode, int count, int gradesPerStudent) throws Exception {
+        listenForPauses();
+        List<Course> courses = BenchData.courses(40, 42);
+        LetterGrade[] letters = LetterGrade.values();
+
+        // 1. Load
+        long t0 = System.nanoTime();
+        List<Student> heap = null;
+        Map<String, Student> byId = null; // the registry's ID map in the application
+        OffHeapStudentStore store = null;
+        Random r = new Random(7);
+        if (mode.equals("heap")) {
+            heap = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Student s = BenchData.student(i, r);
+                for (int g = 0; g < gradesPerStudent; g++) {
+                    s.addGrade(courses.get(r.nextInt(courses.size())), letters[r.nextInt(letters.length)]);
+                }
+                heap.add(s);
+            }
+            byId = new HashMap<>(count * 2);
+            for (Student s : heap) byId.put(s.getStudentId(), s);
+        } else {
+            Path file = Files.createTempFile("students", ".store");
+            store = mode.equals("mapped") ? new OffHeapStudentStore(file) : new OffHeapStudentStore();
+            for (int i = 0; i < count; i++) {
+                Student s = BenchData.student(i, r);
+                int rec = store.add(s.getFirstName(), s.getLastName(), s.getStudentId(), s.getBirthDate(), null);
+                for (int g = 0; g < gradesPerStudent; g++) {
+                    store.addGrade(rec, courses.get(r.nextInt(courses.size())), letters[r.nextInt(letters.length)]);
+                }
+            }
+            Files.deleteIfExists(file);
+        }
+        long loadMs = (System.nanoTime() - t0) / 1_000_000;
+
+        // 2. Reports (the phase that suffered from long pauses)
+        StringBuilder sb = new StringBuilder(1 << 20);
+        long checksum = 0;
+        t0 = System.nanoTime();
+        for (int rep = 0; rep < REPORTS; rep++) {
+            if (heap != null) {
+                FileManager.rank(heap, false);
+                GpaStatistics stats = GpaStatistics.of(heap, false);
+                checksum += stats.getCount();
+                for (int i = 0; i < heap.size(); i++) {
+                    FileManager.appendRankingRow(sb, i + 1, heap.get(i));
+                    if (sb.length() > (1 << 20) - 256) { checksum += sb.length(); sb.setLength(0); }
+                }
+            } else {
+                int[] order = store.ranking();
+                GpaStatistics stats = store.statistics(order);
+                checksum += stats.getCount();
+                OffHeapStudentStore.StudentView view = store.view();
+                for (int i = 0; i < order.length; i++) {
+                    view.moveTo(order[i]);
+                    FileManager.appendRowBody(sb.append(i + 1).append(". "), view, view.calculateGPA());
+                    if (sb.length() > (1 << 20) - 256) { checksum += sb.length(); sb.setLength(0); }
+                }
+            }
+        }
+        long reportMs = (System.nanoTime() - t0) / 1_000_000 / REPORTS;
+
+        // 3. Lookup by ID + grade entry
+        Random q = new Random(11);
+        t0 = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            String id = String.valueOf(200_000_000 + q.nextInt(count));
+            Course c = courses.get(q.nextInt(courses.size()));
+            LetterGrade g = letters[q.nextInt(letters.length)];
+            if (heap != null) {
+                Student s = byId.get(id);
+                s.addGrade(c, g);
+                checksum += s.getGradeCount();
+            } else {
+                int rec = store.find(id);
+                store.addGrade(rec, c, g);
+                checksum += rec;
+            }
+        }
+        long lookupNs = (System.nanoTime() - t0) / LOOKUPS;
+
+        Thread.sleep(200); // let pending GC notifications arrive
+        long count0 = gcCount.get();
+        long millis0 = gcMillis.get();
+        long max0 = gcMaxMillis.get();
+
+        // 4. Full collection with the cohort live
+        t0 = System.nanoTime();
+        System.gc();
+        long fullGcMs = (System.nanoTime() - t0) / 1_000_000;
+        Reference.reachabilityFence(heap);
+        Reference.reachabilityFence(byId);
+        Reference.reachabilityFence(store);
+
+        System.out.println("checksum " + checksum);
+        System.out.println("RESULT " + loadMs + " " + reportMs + " " + lookupNs + " " + count0 + " " + millis0 + " "
+                + max0 + " " + fullGcMs);
+        if (store != null) store.close();
+    }
+
+    // --- GC pause recording ---
+
+    private static void listenForPauses() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) gc).addNotificationListener((n, handback) -> {
+                if (!n.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+                GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) n.getUserData());
+                if (info.getGcName().contains("Concurrent")) return; // not a pause
+                long ms = info.getGcInfo().getDuration();
+                gcCount.incrementAndGet();
+                gcMillis.addAndGet(ms);
+                gcMaxMillis.accumulateAndGet(ms, Math::max);
+            }, null, null);
+        }
+    }
+}
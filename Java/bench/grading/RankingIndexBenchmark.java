@@ -0,0 +1,81 @@
+package grading;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live ranking index vs. re-sorting the cohort: "rank of student X" and "top 10",
+ * plus the cost a grade change pays to keep the index up to date.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RankingIndexBenchmark {
+
+    private static final LetterGrade[] GRADES = LetterGrade.values();
+
+    @Param({"10000", "100000", "1000000"})
+    public int students;
+
+    private List<Course> courses;
+    private List<Student> cohort;
+    private List<Student> working;
+    private RankingIndex ranking;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        courses = BenchData.courses(40, 42);
+        cohort = BenchData.students(students, courses, 8, 7);
+        StudentRegistry registry = new StudentRegistry();
+        for (Student s : cohort) registry.addStudent(s);
+        ranking = registry.getRanking();
+
+        // Unindexed copies for the sort baseline
+        working = new ArrayList<>(BenchData.students(students, courses, 8, 7));
+        Collections.shuffle(working, new Random(11));
+    }
+
+    private Student randomStudent() {
+        return cohort.get(ThreadLocalRandom.current().nextInt(cohort.size()));
+    }
+
+    @Benchmark
+    public int rankOfIndexed() {
+        return ranking.rankOf(randomStudent());
+    }
+
+    @Benchmark
+    public List<Student> top10Indexed() {
+        return ranking.top(10);
+    }
+
+    @Benchmark
+    public int rankOfBySorting() {
+        Student target = working.get(ThreadLocalRandom.current().nextInt(working.size()));
+        working.sort(Comparator.comparingDouble(Student::calculateGPA).reversed());
+        return working.indexOf(target) + 1;
+    }
+
+    @Benchmark
+    public void gradeChangeIndexed() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        randomStudent().addGrade(courses.get(r.nextInt(courses.size())), GRADES[r.nextInt(GRADES.length)]);
+    }
+
+    @Benchmark
+    public void gradeChangeUnindexed() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        working.get(r.nextInt(working.size()))
+                .addGrade(courses.get(r.nextInt(courses.size())), GRADES[r.nextInt(GRADES.length)]);
+    }
+}
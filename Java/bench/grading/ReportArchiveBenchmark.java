@@ -0,0 +1,104 @@
+package grading;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetching one historical report: the indexed archive (entry + mapped bytes) vs.
+ * scanning the appended text file for the N-th "REPORT DATE" banner.
+ * Reports are ~40 KB each; the text file is as large as the whole history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportArchiveBenchmark {
+
+    @Param({"100", "2000"})
+    public int reports;
+
+    private Path dir;
+    private Path text;
+    private ReportArchive archive;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("archive-bench");
+        text = dir.resolve("result.txt");
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n******************************************\n   REPORT DATE: 01.01.2026 10:00:00\n");
+        for (int i = 1; sb.length() < 40_000; i++) {
+            sb.append(i).append(". 1000").append(i).append(" - Ayşe Yılmaz - 01.01.2000 - GPA: 3.25\n");
+        }
+        byte[] report = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        archive = new ReportArchive(dir.resolve("reports.archive"));
+        GpaStatistics stats = new GpaStatistics();
+        stats.accept(3.25);
+        LocalDateTime time = LocalDateTime.of(2026, 1, 1, 10, 0);
+        Path one = dir.resolve("one.txt");
+        Files.write(one, report);
+        try (var out = Files.newOutputStream(text)) {
+            for (int i = 0; i < reports; i++) {
+                out.write(report);
+                archive.append(time.plusMinutes(i), ReportArchive.Kind.CLASS, null, stats, one, 0, report.length);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        archive.close();
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) Files.delete(p);
+        }
+        Files.delete(dir);
+    }
+
+    private int randomReport() {
+        return 1 + ThreadLocalRandom.current().nextInt(reports);
+    }
+
+    @Benchmark
+    public long archiveFetch() throws IOException {
+        ReportArchive.Entry e = archive.entry(randomReport());
+        ByteBuffer bytes = archive.bytes(e);
+        return bytes.get(bytes.limit() - 1) + e.students;
+    }
+
+    @Benchmark
+    public long archiveSummary() throws IOException {
+        ReportArchive.Entry e = archive.entry(randomReport());
+        return Double.doubleToLongBits(e.average) + e.students;
+    }
+
+    @Benchmark
+    public long textScan() throws IOException {
+        int wanted = randomReport();
+        int seen = 0;
+        long length = 0;
+        try (BufferedReader in = Files.newBufferedReader(text, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("   REPORT DATE")) {
+                    if (seen == wanted) break;
+                    seen++;
+                }
+                if (seen == wanted) length += line.length();
+            }
+        }
+        return length;
+    }
+}
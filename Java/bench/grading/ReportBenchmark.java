@@ -0,0 +1,64 @@
+package grading;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FileManager report generation (rank + statistics + render + write) at 10k / 100k / 1M students.
+ * The report goes to target/bench-result.txt with the console echo disabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dreport.file=target/bench-result.txt", "-Drotation.compress=false"})
+public class ReportBenchmark {
+
+    private static final String REPORT_FILE = "target/bench-result.txt";
+
+    @Param({"10000", "100000", "1000000"})
+    public int students;
+
+    private List<Student> cohort;
+    private List<Student> working;
+    private Random shuffler;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cohort = BenchData.students(students, BenchData.courses(40, 42), 8, 7);
+        working = new ArrayList<>(cohort);
+        shuffler = new Random(11);
+    }
+
+    // The report sorts the list in place, so every invocation starts from a shuffled order
+    @Setup(Level.Invocation)
+    public void shuffle() {
+        Collections.shuffle(working, shuffler);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncateReport() throws IOException {
+        Files.deleteIfExists(Paths.get(REPORT_FILE));
+    }
+
+    @Benchmark
+    public void streamAndSaveReport() {
+        FileManager.streamAndSaveReport(working, 0);
+    }
+
+    @Benchmark
+    public GpaStatistics rankAndStatistics() {
+        boolean parallel = working.size() >= 50_000;
+        FileManager.rank(working, parallel);
+        return GpaStatistics.of(working, parallel);
+    }
+}
@@ -0,0 +1,140 @@
+package grading;
+
+import javax.management.ObjectName;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * STRING POOL MEMORY BENCHMARK
+ * * Purpose: Heap histogram (GC.class_histogram) of a cohort loaded the way the
+ * importers do it (every field parsed out of a text line), once with the name
+ * pool disabled and once enabled, each in its own JVM.
+ *
+ * Names follow a skewed distribution over 600 first and 1,500 last names; IDs
+ * are unique 9-digit numbers.
+ *
+ * Run  : java -Xmx4g -cp target/benchmarks.jar grading.StringPoolMemoryBenchmark [students]
+ * Output: console summary + target/stringpool-result.json
+ */
+public class StringPoolMemoryBenchmark {
+
+    private static final String[] CLASSES = {"java.lang.String", "[B", "grading.Student", "Total"};
+
+    public static void main(String[] args) throws Exception {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        if (args.length > 1 && args[1].equals("child")) {
+            child(students);
+            return;
+        }
+
+        long[][] before = runChild(students, false);
+        long[][] after = runChild(students, true);
+
+        System.out.printf(Locale.US, "Students: %,d%n", students);
+        System.out.printf(Locale.US, "%-18s %14s %14s %14s %14s%n", "class", "before #", "before bytes", "after #", "after bytes");
+        StringBuilder json = new StringBuilder("{\"benchmark\":\"stringPool\",\"students\":").append(students);
+        for (int i = 0; i < CLASSES.length; i++) {
+            System.out.printf(Locale.US, "%-18s %,14d %,14d %,14d %,14d%n",
+                    CLASSES[i], before[i][0], before[i][1], after[i][0], after[i][1]);
+            json.append(",\"").append(CLASSES[i]).append("\":{\"before\":").append(before[i][1])
+                    .append(",\"after\":").append(after[i][1]).append('}');
+        }
+        long saved = before[3][1] - after[3][1];
+        System.out.printf(Locale.US, "Saved: %,d bytes (%.1f bytes/student)%n", saved, (double) saved / students);
+        json.append('}');
+
+        Path out = Paths.get("target", "stringpool-result.json");
+        Files.createDirectories(out.getParent());
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(out))) {
+            w.println(json);
+        }
+    }
+
+    // Runs the measurement in a fresh JVM (the pool switch is read once at class load)
+    private static long[][] runChild(int students, boolean pool) throws IOException, InterruptedException {
+        Process p = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xmx4g", "-Dstrings.pool=" + pool,
+                "-cp", System.getProperty("java.class.path"),
+                StringPoolMemoryBenchmark.class.getName(), String.valueOf(students), "child")
+                .redirectErrorStream(true).start();
+
+        long[][] rows = new long[CLASSES.length][2];
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] f = line.trim().split("\\s+");
+                for (int i = 0; i < CLASSES.length; i++) {
+                    // "  3:   1000000   24000000  java.lang.String (java.base@17)" or "Total  n  bytes"
+                    boolean total = i == CLASSES.length - 1;
+                    if (total && f.length == 3 && f[0].equals("Total")) {
+                        rows[i][0] = Long.parseLong(f[1]);
+                        rows[i][1] = Long.parseLong(f[2]);
+                    } else if (!total && f.length >= 4 && f[3].equals(CLASSES[i])) {
+                        rows[i][0] = Long.parseLong(f[1]);
+                        rows[i][1] = Long.parseLong(f[2]);
+                    }
+                }
+            }
+        }
+        if (p.waitFor() != 0) throw new IllegalStateException("Measurement JVM failed.");
+        return rows;
+    }
+
+    private static void child(int count) throws Exception {
+        List<String> firstNames = vocabulary(600, 11);
+        List<String> lastNames = vocabulary(1_500, 13);
+
+        // Fields are cut out of CSV lines, like BulkImporter, Journal and the HTTP forms
+        Random r = new Random(7);
+        List<Student> cohort = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String line = skewed(firstNames, r) + "," + skewed(lastNames, r) + "," + (200_000_000 + i);
+            String[] f = line.split(",");
+            cohort.add(new Student(f[0], f[1], f[2], LocalDate.of(1995 + r.nextInt(10), 1 + r.nextInt(12), 1 + r.nextInt(28))));
+        }
+
+        // The histogram runs a full GC first (live objects only)
+        String histogram = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+                new Object[]{new String[0]}, new String[]{String[].class.getName()});
+        System.out.println(histogram);
+
+        if (cohort.size() != count) throw new IllegalStateException();
+    }
+
+    // Pronounceable names from syllables (Latin-1 and Turkish letters)
+    private static List<String> vocabulary(int size, long seed) {
+        String[] syllables = {"ay", "şe", "me", "hm", "et", "el", "if", "ze", "yn", "ep", "ca", "n", "bü", "şr", "a",
+                "em", "re", "ka", "ya", "de", "mi", "r", "ça", "ak", "öz", "tü", "rk", "yı", "lm", "az"};
+        Random r = new Random(seed);
+        List<String> names = new ArrayList<>(size);
+        while (names.size() < size) {
+            StringBuilder sb = new StringBuilder();
+            int parts = 2 + r.nextInt(3);
+            for (int i = 0; i < parts; i++) sb.append(syllables[r.nextInt(syllables.length)]);
+            sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+            String name = sb.toString();
+            if (!names.contains(name)) names.add(name);
+        }
+        return names;
+    }
+
+    // Few names are very common, most are rare
+    private static String skewed(List<String> names, Random r) {
+        double u = r.nextDouble();
+        return names.get((int) (u * u * u * names.size()));
+    }
+}
@@ -0,0 +1,44 @@
+package grading;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Student.calculateGPA (running totals) vs. the full transcript walk at several transcript sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentGpaBenchmark {
+
+    @Param({"5", "40", "200"})
+    public int transcriptSize;
+
+    private Student student;
+
+    @Setup
+    public void setup() {
+        List<Course> courses = BenchData.courses(transcriptSize, 42);
+        Random r = new Random(7);
+        student = BenchData.student(0, r);
+        for (Course c : courses) {
+            student.addGrade(c, BenchData.GRADE_POINTS[r.nextInt(BenchData.GRADE_POINTS.length)]);
+        }
+    }
+
+    @Benchmark
+    public double calculateGPA() {
+        return student.calculateGPA();
+    }
+
+    @Benchmark
+    public double recalculateGPA() {
+        return student.recalculateGPA();
+    }
+}
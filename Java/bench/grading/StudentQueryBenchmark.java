@@ -0,0 +1,105 @@
+package grading;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-condition student queries: the secondary indexes (StudentIndex) vs. a
+ * full scan that checks every student. Counting matches isolates the filtering
+ * cost; the ranked queries return the top 20 by GPA like the HTTP endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StudentQueryBenchmark {
+
+    private static final LocalDate BORN_AFTER = LocalDate.of(2003, 12, 31);
+
+    @Param({"100000", "1000000"})
+    public int students;
+
+    private List<Student> cohort;
+    private StudentIndex index;
+    private Course course;
+    private StudentQuery gpaAndCourse;
+    private StudentQuery youngOnProbation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Course> courses = BenchData.courses(40, 42);
+        cohort = BenchData.students(students, courses, 8, 7);
+        StudentRegistry registry = new StudentRegistry();
+        for (Student s : cohort) registry.addStudent(s);
+        index = registry.getIndex();
+
+        course = courses.get(5);
+        gpaAndCourse = new StudentQuery().gpaBetween(2.00, 2.50).tookCourse(course).limit(20);
+        youngOnProbation = new StudentQuery().bornAfter(BORN_AFTER).onProbation().limit(20);
+        index.count(youngOnProbation); // builds the birth-date order once
+    }
+
+    // --- GPA 2.00-2.50 AND took course C5 ---
+
+    @Benchmark
+    public int gpaAndCourseIndexed() {
+        return index.count(gpaAndCourse);
+    }
+
+    @Benchmark
+    public int gpaAndCourseScan() {
+        int n = 0;
+        int id = course.getCatalogId();
+        for (Student s : cohort) {
+            double gpa = s.calculateGPA();
+            if (gpa >= 2.00 && gpa <= 2.50 && s.hasCourse(id)) n++;
+        }
+        return n;
+    }
+
+    @Benchmark
+    public List<Student> gpaAndCourseTop20Indexed() {
+        return index.query(gpaAndCourse);
+    }
+
+    // --- Born after 2003-12-31 AND on probation ---
+
+    @Benchmark
+    public int youngOnProbationIndexed() {
+        return index.count(youngOnProbation);
+    }
+
+    @Benchmark
+    public int youngOnProbationScan() {
+        int n = 0;
+        for (Student s : cohort) {
+            LocalDate born = s.getBirthDate();
+            if (born == null || !born.isAfter(BORN_AFTER) || s.getGradeCount() == 0) continue;
+            if (s.calculateGPA() < Constants.PROBATION_GPA) n++;
+        }
+        return n;
+    }
+
+    @Benchmark
+    public List<Student> youngOnProbationTop20Scan() {
+        List<Student> out = new ArrayList<>();
+        for (Student s : cohort) {
+            LocalDate born = s.getBirthDate();
+            if (born == null || !born.isAfter(BORN_AFTER) || s.getGradeCount() == 0) continue;
+            if (s.calculateGPA() < Constants.PROBATION_GPA) out.add(s);
+        }
+        out.sort((a, b) -> Double.compare(b.calculateGPA(), a.calculateGPA()));
+        return out.size() > 20 ? new ArrayList<>(out.subList(0, 20)) : out;
+    }
+
+    @Benchmark
+    public List<Student> youngOnProbationTop20Indexed() {
+        return index.query(youngOnProbation);
+    }
+}
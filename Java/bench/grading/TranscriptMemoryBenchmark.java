@@ -0,0 +1,102 @@
+package grading;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * TRANSCRIPT MEMORY BENCHMARK
+ * * Purpose: Measures retained heap per grade for the old HashMap<Course, Double>
+ * transcript layout vs. the columnar Student transcript (int course ID + byte grade code).
+ *
+ * Run  : java -Xmx4g -cp target/benchmarks.jar grading.TranscriptMemoryBenchmark [students] [gradesPerStudent]
+ * Output: console summary + target/memory-result.json
+ */
+public class TranscriptMemoryBenchmark {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) throws IOException {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int gradesPerStudent = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        long grades = (long) students * gradesPerStudent;
+
+        List<Course> courses = BenchData.courses(gradesPerStudent, 42);
+
+        // BEFORE: the former Map<Course, Double> transcript, one per student
+        long base = usedHeap();
+        List<Map<Course, Double>> legacy = new ArrayList<>(students);
+        Random r = new Random(7);
+        for (int i = 0; i < students; i++) {
+            Map<Course, Double> transcript = new HashMap<>();
+            for (Course c : courses) {
+                transcript.put(c, BenchData.GRADE_POINTS[r.nextInt(BenchData.GRADE_POINTS.length)]);
+            }
+            legacy.add(transcript);
+        }
+        long legacyBytes = usedHeap() - base - listOverhead(students);
+        legacy = null;
+
+        // AFTER: students with columnar transcripts minus the same students without grades
+        base = usedHeap();
+        List<Student> empty = BenchData.students(students, courses, 0, 7);
+        long emptyBytes = usedHeap() - base;
+        empty = null;
+
+        base = usedHeap();
+        r = new Random(7);
+        List<Student> graded = BenchData.students(students, courses, 0, 7);
+        for (Student s : graded) {
+            for (Course c : courses) {
+                s.addGrade(c, BenchData.GRADE_POINTS[r.nextInt(BenchData.GRADE_POINTS.length)]);
+            }
+        }
+        long compactBytes = usedHeap() - base - emptyBytes;
+
+        double legacyPerGrade = (double) legacyBytes / grades;
+        double compactPerGrade = (double) compactBytes / grades;
+
+        System.out.printf(Locale.US, "Students: %d | Grades/student: %d | Grades: %d%n", students, gradesPerStudent, grades);
+        System.out.printf(Locale.US, "HashMap<Course, Double> transcript : %8.2f bytes/grade%n", legacyPerGrade);
+        System.out.printf(Locale.US, "Columnar transcript (int + byte)  : %8.2f bytes/grade%n", compactPerGrade);
+        System.out.printf(Locale.US, "Reduction                         : %8.1fx%n", legacyPerGrade / compactPerGrade);
+
+        Path out = Paths.get("target", "memory-result.json");
+        Files.createDirectories(out.getParent());
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(out))) {
+            w.printf(Locale.US, "{\"benchmark\":\"transcriptMemory\",\"students\":%d,\"gradesPerStudent\":%d,"
+                            + "\"legacyBytesPerGrade\":%.2f,\"compactBytesPerGrade\":%.2f}%n",
+                    students, gradesPerStudent, legacyPerGrade, compactPerGrade);
+        }
+
+        // Keep 'graded' reachable until after the measurement
+        if (graded.size() != students) throw new IllegalStateException();
+    }
+
+    // Reference slots of the ArrayList holding the maps (not part of a transcript)
+    private static long listOverhead(int size) {
+        return 4L * size;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,92 @@
+package grading;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validator rules: grade codes, the three date formats (vs. the old formatter loop), the name/text/URL checks,
+ * and a full students.csv row as validated by BulkImporter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Benchmark
+    public void parseGrade(Blackhole bh) {
+        for (String code : BenchData.GRADE_CODES) {
+            bh.consume(Validator.gradePoints(code));
+        }
+    }
+
+    @Benchmark
+    public Object parseDateDot() {
+        return Validator.parseDate("25.09.2000");
+    }
+
+    @Benchmark
+    public Object parseDateSlash() {
+        return Validator.parseDate("25/09/2000");
+    }
+
+    @Benchmark
+    public Object parseDateDash() {
+        return Validator.parseDate("25-09-2000");
+    }
+
+    // Baseline: the former DateTimeFormatter loop (a dash date throws and catches twice)
+    private static final DateTimeFormatter[] LEGACY_FORMATS = {
+            DateTimeFormatter.ofPattern("dd.MM.yyyy"),
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy")
+    };
+
+    @Benchmark
+    public Object legacyParseDateDash() {
+        for (DateTimeFormatter fmt : LEGACY_FORMATS) {
+            try {
+                return LocalDate.parse("25-09-2000", fmt);
+            } catch (DateTimeParseException ignored) {
+                // Try the next format
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Object checkName() {
+        return Validator.checkName("Büşra Nur Akçay");
+    }
+
+    @Benchmark
+    public Object checkText() {
+        return Validator.checkText("CENG 101");
+    }
+
+    @Benchmark
+    public Object checkWebPage() {
+        return Validator.checkWebPage("www.duzce.edu.tr");
+    }
+
+    @Benchmark
+    public int parseInt() {
+        return Validator.parseInt("7");
+    }
+
+    // One students.csv row: first name, last name, ID, birth date
+    @Benchmark
+    public boolean studentRow() {
+        return Validator.checkName("Büşra") == Validator.Result.OK
+                && Validator.checkName("Akçay") == Validator.Result.OK
+                && Validator.checkText("20230001") == Validator.Result.OK
+                && Validator.checkPastDate(Validator.parseDate("25.09.2000")) == Validator.Result.OK;
+    }
+}
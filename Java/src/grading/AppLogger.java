@@ -0,0 +1,314 @@
+package grading;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AUDIT LOGGER
+ * * Purpose: Records all system activities and errors to a log file ('app.log')
+ * with precise timestamps for tracking and debugging.
+ *
+ * Messages are queued in memory and written by a single background thread that
+ * keeps one FileChannel open. Lines are batched and flushed when the buffer reaches
+ * FLUSH_BYTES or FLUSH_INTERVAL_MS has passed. Call {@link #shutdown()} to drain.
+ * The log is rotated by {@link FileRotator}, only between two flushes, so a line
+ * is never split across segments.
+ *
+ * A message that races with shutdown() and lands in the queue after the writer has
+ * stopped is written directly by whichever of the two finishes last, so it is not lost.
+ * Lines are encoded in the report charset (FileManager.REPORT_CHARSET, the platform
+ * default), so the log and the reports share one encoding.
+ *
+ * If the writer thread dies (I/O error), later messages are dropped and counted
+ * whatever the overflow policy, so neither log() nor shutdown() can wait on a
+ * queue that nobody drains anymore.
+ *
+ * Configuration (system properties):
+ * - applogger.file            : log file (default Constants.LOG_FILE_NAME)
+ * - applogger.queueCapacity   : queue size (default 8192)
+ * - applogger.flushIntervalMs : max delay before a flush (default 200)
+ * - applogger.overflow        : BLOCK | DROP | COUNT (default BLOCK)
+ */
+public class AppLogger {
+
+    /**
+     * What log() does when the queue is full.
+     * BLOCK waits for space, DROP discards silently, COUNT discards and
+     * writes a "messages dropped" line on the next flush.
+     */
+    public enum OverflowPolicy { BLOCK, DROP, COUNT }
+
+    private static final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String LOG_FILE = System.getProperty("applogger.file", Constants.LOG_FILE_NAME);
+    private static final int QUEUE_CAPACITY = Integer.getInteger("applogger.queueCapacity", 8192);
+    private static final long FLUSH_INTERVAL_MS = Long.getLong("applogger.flushIntervalMs", 200L);
+    private static final int FLUSH_BYTES = 64 * 1024;
+    private static final int BATCH_SIZE = 1024;
+
+    // A queued log line: the time is captured on the caller's thread
+    private static final class Entry {
+        final long millis;
+        final String action;
+
+        Entry(long millis, String action) {
+            this.millis = millis;
+            this.action = action;
+        }
+    }
+
+    // Marker telling the writer thread to drain and stop
+    private static final Entry POISON = new Entry(0L, null);
+
+    private static final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static final AtomicLong pendingDrops = new AtomicLong();
+    private static final AtomicLong totalDrops = new AtomicLong();
+
+    private static volatile OverflowPolicy overflowPolicy = parsePolicy(System.getProperty("applogger.overflow"));
+    private static volatile boolean closed = false;
+    private static volatile boolean writerFailed = false;
+    private static Thread writer; // guarded by AppLogger.class
+
+    // Writer-thread-only timestamp cache (one format call per second instead of per line)
+    private static long cachedSecond = Long.MIN_VALUE;
+    private static String cachedStamp;
+
+    public static void log(String action) {
+        if (closed) {
+            // Late messages after shutdown (e.g. from shutdown hooks) are written directly
+            writeDirect(System.currentTimeMillis(), action);
+            return;
+        }
+        ensureWriter();
+        if (writerFailed) {
+            totalDrops.incrementAndGet();
+            return;
+        }
+
+        long t = Metrics.LOG_ENQUEUE.start();
+        Entry entry = new Entry(System.currentTimeMillis(), action);
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    // Wait for space, but give up once the writer is gone
+                    while (!queue.offer(entry, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                        if (writerFailed) {
+                            totalDrops.incrementAndGet();
+                            break;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                break;
+            case DROP:
+                if (!queue.offer(entry)) totalDrops.incrementAndGet();
+                break;
+            case COUNT:
+                if (!queue.offer(entry)) {
+                    totalDrops.incrementAndGet();
+                    pendingDrops.incrementAndGet();
+                }
+                break;
+        }
+        Metrics.LOG_ENQUEUE.record(t);
+        Metrics.LOG_LINES.increment();
+
+        // shutdown() may have started after the check above: the writer may be gone
+        if (closed) drainLeftovers();
+    }
+
+    /**
+     * Drains every queued message to disk and stops the writer thread.
+     * Safe to call more than once.
+     */
+    public static void shutdown() {
+        Thread w;
+        synchronized (AppLogger.class) {
+            if (closed) return;
+            closed = true;
+            w = writer;
+        }
+        if (w == null) return;
+
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    while (w.isAlive() && !queue.offer(POISON, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                        // queue full: retry until the writer makes room or dies
+                    }
+                    w.join();
+                    drainLeftovers();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param policy behaviour when the queue is full
+     */
+    public static void setOverflowPolicy(OverflowPolicy policy) {
+        overflowPolicy = policy;
+    }
+
+    /**
+     * @return number of messages discarded because the queue was full
+     */
+    public static long getDroppedCount() {
+        return totalDrops.get();
+    }
+
+    // --- Writer Thread ---
+
+    private static synchronized void ensureWriter() {
+        if (writer != null || closed) return;
+        writer = new Thread(AppLogger::runWriter, "app-logger");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(AppLogger::shutdown, "app-logger-shutdown"));
+    }
+
+    private static void runWriter() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder sb = new StringBuilder(FLUSH_BYTES);
+        long lastFlush = System.currentTimeMillis();
+        boolean stop = false;
+
+        // 'APPEND' so we don't overwrite previous logs
+        FileRotator rotator = FileRotator.of(LOG_FILE);
+        FileChannel channel = null;
+        try {
+            channel = rotator.open();
+            while (!stop) {
+                Entry first;
+                try {
+                    first = queue.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    first = null;
+                }
+
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                    for (Entry e : batch) {
+                        if (e == POISON) {
+                            stop = true;
+                        } else {
+                            appendLine(sb, e.millis, e.action);
+                        }
+                    }
+                    batch.clear();
+                }
+
+                long dropped = pendingDrops.getAndSet(0);
+                if (dropped > 0) {
+                    appendLine(sb, System.currentTimeMillis(),
+                            "Logger: " + dropped + " message(s) dropped (queue full)");
+                }
+
+                long now = System.currentTimeMillis();
+                boolean due = first == null || now - lastFlush >= FLUSH_INTERVAL_MS;
+                if (sb.length() >= FLUSH_BYTES || (sb.length() > 0 && due) || stop) {
+                    if (rotator.isDue(channel)) {
+                        rotator.close(channel);
+                        channel = null;
+                        channel = rotator.open();
+                    }
+                    flush(channel, sb);
+                    lastFlush = now;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println(">> Logger Error: " + e.getMessage());
+        } finally {
+            if (!stop) {
+                // Nobody consumes the queue from here on: release waiting callers
+                writerFailed = true;
+                totalDrops.addAndGet(queue.size());
+                queue.clear();
+                System.err.println(">> Logger Error: writer stopped, further messages are dropped.");
+            }
+            if (channel != null) {
+                try {
+                    rotator.close(channel);
+                } catch (IOException e) {
+                    System.err.println(">> Logger Error: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void appendLine(StringBuilder sb, long millis, String action) {
+        long second = millis / 1000;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedStamp = dtf.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+        }
+        sb.append('[').append(cachedStamp).append("] ").append(action).append(System.lineSeparator());
+    }
+
+    private static void flush(FileChannel channel, StringBuilder sb) throws IOException {
+        if (sb.length() == 0) return;
+        long t = Metrics.LOG_FLUSH.start();
+        ByteBuffer buf = ByteBuffer.wrap(sb.toString().getBytes(FileManager.REPORT_CHARSET));
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        sb.setLength(0);
+        Metrics.LOG_FLUSH.record(t);
+    }
+
+    // --- Helper Methods ---
+
+    // Writes what was queued after the writer stopped; while it still runs, it (and
+    // shutdown() after joining it) takes care of the queue
+    private static void drainLeftovers() {
+        Thread w;
+        synchronized (AppLogger.class) {
+            w = writer;
+        }
+        if (w != null && w.isAlive()) return;
+        for (Entry e; (e = queue.poll()) != null; ) {
+            if (e != POISON) writeDirect(e.millis, e.action);
+        }
+    }
+
+    private static synchronized void writeDirect(long millis, String action) {
+        String line = "[" + dtf.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()))
+                + "] " + action + System.lineSeparator();
+        try (FileChannel channel = FileChannel.open(Paths.get(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(line.getBytes(FileManager.REPORT_CHARSET)));
+        } catch (IOException e) {
+            System.err.println(">> Logger Error: " + e.getMessage());
+        }
+    }
+
+    private static OverflowPolicy parsePolicy(String value) {
+        if (value == null) return OverflowPolicy.BLOCK;
+        try {
+            return OverflowPolicy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return OverflowPolicy.BLOCK;
+        }
+    }
+}
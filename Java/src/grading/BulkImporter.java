@@ -0,0 +1,357 @@
+package grading;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * HEADLESS BULK IMPORTER
+ * * Purpose: Loads students, courses and grades from CSV files without any prompts.
+ * Each file is streamed line by line (never fully loaded) and every row goes through
+ * the same validation rules as the interactive phases in Main.
+ *
+ * Usage: Main --import students.csv courses.csv grades.csv
+ *
+ * File layouts (blank lines and lines starting with '#' are ignored):
+ * - students.csv : firstName,lastName,studentId,birthDate
+ * - courses.csv  : courseName,courseCode,ects
+ * - grades.csv   : studentId,courseCode,letterGrade
+ *
+ * Multi-department mode: Main --import-departments dirA dirB ...
+ * Each directory holds one department (department.csv : name,webPage,establishmentDate)
+ * plus its own students.csv / courses.csv / grades.csv. Directories are imported in
+ * parallel into their department's partition: students and courses first, then grades
+ * once every department's courses are known. A grade row may only refer to a student
+ * of the same department.
+ *
+ * Large multi-file loads: see ImportPipeline (Main --import-pipeline), which runs the
+ * same rules on several threads.
+ */
+public class BulkImporter {
+
+    private final StudentRegistry registry;
+    private final Journal journal; // may be null
+    private Department department; // target partition (null = not partitioned)
+
+    private int rejectedRows = 0;
+    private int studentsAdded = 0;
+    private int coursesAdded = 0;
+
+    private BulkImporter(StudentRegistry registry, Journal journal) {
+        this.registry = registry;
+        this.journal = journal;
+    }
+
+    /**
+     * Runs a full import followed by the session report.
+     *
+     * @param registry     registry used for duplicate checks and session membership
+     * @param journal      journal for accepted rows (group-committed, synced at the end), or null
+     * @param studentsFile path of the students CSV
+     * @param coursesFile  path of the courses CSV
+     * @param gradesFile   path of the grades CSV
+     * @throws IOException if one of the files cannot be read
+     */
+    public static void run(StudentRegistry registry, Journal journal,
+                           String studentsFile, String coursesFile, String gradesFile) throws IOException {
+        int rejectedRows = load(registry, journal, studentsFile, coursesFile, gradesFile);
+
+        System.out.println(">> Import finished. Students: " + registry.studentCount()
+                + " | Courses: " + registry.courseCount()
+                + " | Rejected rows: " + rejectedRows);
+        AppLogger.log("Bulk import finished: " + registry.studentCount() + " students, "
+                + registry.courseCount() + " courses, " + rejectedRows + " rejected rows");
+
+        // Large cohorts: stream the report and only echo the top rows to the console
+        FileManager.streamAndSaveReport(registry.getSessionStudents(), Constants.IMPORT_CONSOLE_ROWS);
+    }
+
+    /**
+     * Imports the three files without the report.
+     *
+     * @return number of rejected rows
+     */
+    static int load(StudentRegistry registry, Journal journal,
+                    String studentsFile, String coursesFile, String gradesFile) throws IOException {
+        BulkImporter importer = new BulkImporter(registry, journal);
+
+        importer.importStudents(studentsFile);
+        importer.importCourses(coursesFile);
+        importer.importGrades(gradesFile);
+        if (journal != null) journal.sync();
+        return importer.rejectedRows;
+    }
+
+    /**
+     * Imports one directory per department, in parallel, followed by the department
+     * reports and the university summary.
+     *
+     * @param registry    registry used for duplicate checks and partitions
+     * @param journal     journal for accepted rows (group-committed, synced at the end), or null
+     * @param directories department directories (see class comment for the layout)
+     * @throws IOException if one of the files cannot be read
+     */
+    public static void runDepartments(StudentRegistry registry, Journal journal, List<String> directories)
+            throws IOException {
+        // Department headers first (one line each), so two directories can't claim the same department
+        List<BulkImporter> importers = new ArrayList<>();
+        List<Path> dirs = new ArrayList<>();
+        Set<Department> claimed = new HashSet<>();
+        for (String dir : directories) {
+            BulkImporter importer = new BulkImporter(registry, journal);
+            Path path = Paths.get(dir);
+            if (importer.importDepartment(path.resolve(Constants.DEPT_INFO_FILE).toString())) {
+                if (claimed.add(importer.department)) {
+                    importers.add(importer);
+                    dirs.add(path);
+                } else {
+                    System.out.println(">> WARNING: " + dir + " repeats department " + importer.department + ", skipped.");
+                }
+            } else {
+                System.out.println(">> WARNING: " + dir + " has no valid " + Constants.DEPT_INFO_FILE + ", skipped.");
+            }
+        }
+        if (importers.isEmpty()) return;
+
+        // Phase 1: students and courses, every department in parallel
+        runParallel(importers, i -> {
+            importers.get(i).importStudents(dirs.get(i).resolve(Constants.DEPT_STUDENTS_FILE).toString());
+            importers.get(i).importCourses(dirs.get(i).resolve(Constants.DEPT_COURSES_FILE).toString());
+        });
+        // Phase 2: grades (courses of other departments are known by now)
+        runParallel(importers, i ->
+                importers.get(i).importGrades(dirs.get(i).resolve(Constants.DEPT_GRADES_FILE).toString()));
+        if (journal != null) journal.sync();
+
+        List<DepartmentPartition> partitions = new ArrayList<>();
+        for (BulkImporter importer : importers) {
+            System.out.println(">> " + importer.department + " | Students: " + importer.studentsAdded
+                    + " | Courses: " + importer.coursesAdded + " | Rejected rows: " + importer.rejectedRows);
+            AppLogger.log("Department import finished: " + importer.department + " - " + importer.studentsAdded
+                    + " students, " + importer.coursesAdded + " courses, " + importer.rejectedRows + " rejected rows");
+            partitions.add(registry.getPartition(importer.department));
+        }
+
+        FileManager.saveDepartmentReports(partitions, true);
+    }
+
+    // One unit of per-directory work (index into the importer list)
+    @FunctionalInterface
+    private interface ImportTask {
+        void run(int index) throws IOException;
+    }
+
+    // Runs the task for every importer on a small pool (file I/O bound) and rethrows the first failure
+    private static void runParallel(List<BulkImporter> importers, ImportTask task) throws IOException {
+        int threads = Math.min(importers.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < importers.size(); i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    task.run(index);
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) throw (IOException) cause;
+                    if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                    throw new IOException(cause);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Department import interrupted");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // --- Phase: Department ---
+
+    /**
+     * Reads the first data row of department.csv and registers the department
+     * (or reuses the registered one with the same web page).
+     *
+     * @return true if a valid department was found
+     */
+    private boolean importDepartment(String file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                String[] f = split(line, 3);
+                if (f == null) continue;
+                if (f.length != 3) { reject(file, lineNo, "expected 3 fields"); return false; }
+
+                if (Validator.checkName(f[0]) != Validator.Result.OK) { reject(file, lineNo, "invalid name"); return false; }
+                if (Validator.checkWebPage(f[1]) != Validator.Result.OK) { reject(file, lineNo, "invalid web page"); return false; }
+                LocalDate date = Validator.parseDate(f[2]);
+                if (Validator.checkPastDate(date) != Validator.Result.OK) { reject(file, lineNo, "invalid date"); return false; }
+
+                Department d = new Department(f[0], f[1], date);
+                if (registry.addDepartment(d)) {
+                    if (journal != null) journal.logDepartment(d);
+                }
+                department = registry.findDepartment(f[1]);
+                return true;
+            }
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        return false;
+    }
+
+    // --- Phase: Students ---
+
+    private void importStudents(String file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                String[] f = split(line, 4);
+                if (f == null) continue;
+                if (f.length != 4) { reject(file, lineNo, "expected 4 fields"); continue; }
+
+                String name = f[0];
+                String surname = f[1];
+                String id = f[2];
+
+                if (Validator.checkName(name) != Validator.Result.OK
+                        || Validator.checkName(surname) != Validator.Result.OK) {
+                    reject(file, lineNo, "invalid name"); continue;
+                }
+                if (Validator.checkText(id) != Validator.Result.OK) { reject(file, lineNo, "invalid student ID"); continue; }
+                if (registry.containsStudent(id)) { reject(file, lineNo, "duplicate student ID " + id); continue; }
+
+                LocalDate bDate = Validator.parseDate(f[3]);
+                Validator.Result dateCheck = Validator.checkPastDate(bDate);
+                if (dateCheck == Validator.Result.INVALID_DATE) { reject(file, lineNo, "invalid date format"); continue; }
+                if (dateCheck == Validator.Result.FUTURE_DATE) { reject(file, lineNo, "birth date in the future"); continue; }
+
+                Student s = new Student(name, surname, id, bDate, department);
+                if (!registry.addStudent(s)) {
+                    reject(file, lineNo, "duplicate student ID " + id);
+                } else {
+                    studentsAdded++;
+                    if (journal != null) journal.logStudent(s);
+                }
+            }
+        }
+    }
+
+    // --- Phase: Courses ---
+
+    private void importCourses(String file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                String[] f = split(line, 3);
+                if (f == null) continue;
+                if (f.length != 3) { reject(file, lineNo, "expected 3 fields"); continue; }
+
+                String cName = f[0];
+                String code = f[1];
+
+                if (Validator.checkText(cName) != Validator.Result.OK
+                        || Validator.checkText(code) != Validator.Result.OK) {
+                    reject(file, lineNo, "invalid course name or code"); continue;
+                }
+                if (registry.containsCourse(code)) { reject(file, lineNo, "duplicate course code " + code); continue; }
+
+                int ects = Validator.parseInt(f[2]);
+                if (ects == Validator.NOT_A_NUMBER) { reject(file, lineNo, "ECTS is not numeric"); continue; }
+                if (ects <= 0) { reject(file, lineNo, "ECTS must be greater than 0"); continue; }
+
+                String conflict = CourseCatalog.conflict(cName, code, ects, department);
+                if (conflict != null) { reject(file, lineNo, conflict); continue; }
+
+                Course c = Course.of(cName, code, ects, department);
+                if (!registry.addCourse(c)) {
+                    reject(file, lineNo, "duplicate course code " + code);
+                } else {
+                    coursesAdded++;
+                    if (journal != null) journal.logCourse(c);
+                }
+            }
+        }
+    }
+
+    // --- Phase: Grades ---
+
+    private void importGrades(String file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                String[] f = split(line, 3);
+                if (f == null) continue;
+                if (f.length != 3) { reject(file, lineNo, "expected 3 fields"); continue; }
+
+                Student s = registry.findStudent(f[0]);
+                if (s == null) { reject(file, lineNo, "unknown student ID " + f[0]); continue; }
+                // Partitions are graded concurrently: only touch this department's students
+                if (department != null && !department.equals(s.getDepartment())) {
+                    reject(file, lineNo, "student " + f[0] + " belongs to another department"); continue;
+                }
+
+                Course c = registry.findCourse(f[1]);
+                if (c == null) { reject(file, lineNo, "unknown course code " + f[1]); continue; }
+
+                LetterGrade grade = LetterGrade.parse(f[2]);
+                if (grade == null) { reject(file, lineNo, "invalid grade code " + f[2]); continue; }
+
+                s.addGrade(c, grade);
+                if (journal != null) journal.logGrade(s, c, grade);
+            }
+        }
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Splits a CSV line on commas and trims every field.
+     *
+     * @return the fields, or null for blank/comment lines
+     */
+    static String[] split(String line, int expected) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.charAt(0) == '#') return null;
+
+        String[] fields = trimmed.split(",", -1);
+        if (fields.length != expected) return fields;
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim();
+        }
+        return fields;
+    }
+
+    private void reject(String file, int lineNo, String reason) {
+        rejectedRows++;
+        AppLogger.log("Import rejected: " + file + ":" + lineNo + " - " + reason);
+    }
+}
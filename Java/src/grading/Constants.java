@@ -0,0 +1,68 @@
+package grading;
+
+/**
+ * PROJECT CONFIGURATION & CONSTANTS
+ * * Purpose: Centralizes all string literals and configuration settings for Maintainability.
+ *
+ */
+public class Constants {
+    // Files
+    public static final String OUTPUT_FILE_NAME = "results.txt";
+    public static final String LOG_FILE_NAME = "app.log";
+    public static final String SNAPSHOT_FILE_NAME = "students.snapshot";
+    public static final String JOURNAL_FILE_NAME = "students.journal";
+    public static final String IMPORT_ERROR_FILE_NAME = "import-errors.txt"; // Rows rejected by --import-pipeline
+
+    // Reporting
+    public static final int IMPORT_CONSOLE_ROWS = 20; // Ranking rows echoed to the console after --import
+    public static final double PROBATION_GPA = 2.00; // Graded students below this GPA are on academic probation
+
+    public static final String CMD_END = "end";
+    public static final String CMD_CANCEL = "cancel";
+    public static final String CMD_IMPORT = "--import";
+    public static final String CMD_REPORT = "--report";
+    public static final String CMD_IMPORT_DEPARTMENTS = "--import-departments";
+    public static final String CMD_IMPORT_PIPELINE = "--import-pipeline";
+    public static final String CMD_SERVE = "--serve";
+    public static final String CMD_ARCHIVE = "--archive";
+
+    // Report archive listing (--archive)
+    public static final int ARCHIVE_LIST_ROWS = 20;
+
+    // HTTP service mode (--serve)
+    public static final int SERVER_PORT = Integer.getInteger("server.port", 8080);
+
+    // Files inside each department directory (--import-departments)
+    public static final String DEPT_INFO_FILE = "department.csv";
+    public static final String DEPT_STUDENTS_FILE = "students.csv";
+    public static final String DEPT_COURSES_FILE = "courses.csv";
+    public static final String DEPT_GRADES_FILE = "grades.csv";
+
+    // PDF Required Prompts
+    public static final String MSG_ENTER_DEPT = "Enter department information";
+    public static final String MSG_ENTER_STUDENT = "Enter student information";
+    public static final String MSG_ENTER_COURSE = "Enter course information";
+    public static final String MSG_IMPORT_USAGE = "Usage: Main --import <students.csv> <courses.csv> <grades.csv>";
+    public static final String MSG_IMPORT_DEPARTMENTS_USAGE = "Usage: Main --import-departments <dir> [<dir> ...]";
+    public static final String MSG_IMPORT_PIPELINE_USAGE = "Usage: Main --import-pipeline <courses*.csv|students*.csv|grades*.csv> [...]";
+    public static final String MSG_SERVE_USAGE = "Usage: Main --serve [port]";
+    public static final String MSG_ARCHIVE_USAGE = "Usage: Main --archive [last <n> | show <n> | at <dd.MM.yyyy> [HH:mm] | export <n> <file>]";
+
+
+    // Error Messages (User Experience)
+    public static final String ERR_EMPTY = ">> ERROR: This field cannot be empty. Please try again.";
+    public static final String ERR_INVALID_NAME = ">> ERROR: Name contains invalid characters. Use letters only.";
+    public static final String ERR_INVALID_NUMBER = ">> ERROR: Invalid input! Please enter a numeric value.";
+    public static final String ERR_NEGATIVE = ">> ERROR: The value must be greater than 0.";
+    public static final String ERR_DATE_FMT = ">> ERROR: Invalid date format! Expected: 'dd.MM.yyyy' (e.g., 25.09.2000).";
+    public static final String ERR_FUTURE_DATE = ">> ERROR: Date cannot be in the future.";
+    public static final String ERR_INVALID_TEXT = ">> ERROR: Invalid character! (You cannot use +, -, *, ? etc.).\n"
+            + ">> Please use only letters, numbers, and spaces.";
+    public static final String ERR_INVALID_WEB_PAGE = ">> ERROR: Invalid web address format!\n"
+            + ">> Please enter the address in the format 'www.duzce.edu.tr' or 'site.com'.";
+    public static final String ERR_INVALID_GRADE = ">> ERROR: Invalid grade code. Please use the table (AA-FF).";
+    //public static final String ERR_DUPLICATE_ID = ">> CRITICAL ERROR: This Student ID is already registered! Duplicate prevented.";
+    public static final String MSG_CONFIRM = ">> Is the information above correct? (y/n): ";
+    public static final String MSG_CANCELLED = ">> Entry cancelled by user.";
+    public static final String MSG_RETRY = ">> Reloading entry form...";
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package grading;
+
+/**
+ * COURSE ENTITY
+ * * Purpose: Stores course details and ensures ECTS validity.
+ * Requirements:  Name, Code, ECTS.
+ */
+public class Course {
+    private String name;
+    private String code;
+    private int ects;
+    private final int catalogId; // Dense ID from CourseCatalog (shared by equal codes)
+    private final Department department; // Offering department (null = not partitioned)
+
+    /**
+     * Creates a new Course instance.
+     *
+     * @param name the name of the course
+     * @param code the unique course code
+     * @param ects the ECTS credit value (must be non-negative)
+     * @throws IllegalArgumentException if ects is negative
+     */
+    public Course(String name, String code, int ects) {
+        this(name, code, ects, null);
+    }
+
+    /**
+     * Creates a new Course offered by a department.
+     *
+     * @param name       the name of the course
+     * @param code       the unique course code
+     * @param ects       the ECTS credit value (must be non-negative)
+     * @param department offering department (null = not partitioned)
+     * @throws IllegalArgumentException if ects is negative or the code is registered with other values
+     */
+    public Course(String name, String code, int ects, Department department) {
+        // Logic Check: Defensive programming against negative credits
+        if (ects < 0) {
+            throw new IllegalArgumentException("ECTS cannot be negative.");
+        }
+        this.name = name;
+        this.code = code;
+        this.ects = ects;
+        this.department = department;
+        this.catalogId = CourseCatalog.register(this);
+    }
+
+    /**
+     * Returns the one Course instance of a code (see {@link CourseCatalog#canonical}).
+     * Loaders and input handlers use this instead of the constructor so every
+     * transcript, index and partition refers to the same object.
+     *
+     * @param name       the name of the course
+     * @param code       the course code (case-insensitive)
+     * @param ects       the ECTS credit value
+     * @param department offering department (null = not partitioned)
+     * @return the canonical course
+     * @throws IllegalArgumentException if ects is negative or the code is registered with other values
+     */
+    public static Course of(String name, String code, int ects, Department department) {
+        return CourseCatalog.canonical(name, code, ects, department);
+    }
+
+    /**
+     * @return the course name
+     */
+
+    public String getName() { return name; }
+
+    /**
+     * @return the course code
+     */
+    public String getCode() { return code; }
+
+    /**
+     * @return the ECTS credit value
+     */
+    public int getEcts() { return ects; }
+
+    /**
+     * @return the dense catalog ID of this course code
+     */
+    public int getCatalogId() { return catalogId; }
+
+    /**
+     * @return the offering department, or null if not partitioned
+     */
+    public Department getDepartment() { return department; }
+
+    /**
+     * Returns a readable string representation of the course.
+     *
+     * @return formatted course name and code
+     */
+    @Override
+    public String toString() { return name + " (" + code + ")"; }
+
+
+    /**
+     * Compares courses based on their course code (case-insensitive, via the catalog ID).
+     *
+     * @param o the object to compare
+     * @return true if both courses have the same code
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Course course = (Course) o;
+        return catalogId == course.catalogId;
+    }
+
+    /**
+     * Generates hash code based on course code.
+     *
+     * @return hash code of the course
+     */
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(catalogId);
+    }
+}
\ No newline at end of file
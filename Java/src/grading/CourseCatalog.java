@@ -0,0 +1,149 @@
+package grading;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * COURSE CATALOG (Dense IDs)
+ * * Purpose: Gives every course code a dense integer ID so transcripts can store
+ * an int per course instead of a Course reference, and keeps the ECTS values in
+ * one shared int[] indexed by that ID.
+ *
+ * Courses are identified by case-folded code, like Course.equals and the registry.
+ * The first course registered for a code is the canonical one: it defines the
+ * ECTS, and {@link #canonical} hands it out instead of building another Course
+ * for the same code (one instance per code, shared by every transcript).
+ *
+ * The catalog lives as long as the process. A code that is already registered
+ * can only be registered again with the same name, ECTS and department; anything
+ * else is rejected with an IllegalArgumentException instead of silently getting
+ * the first course's values. Input paths check {@link #conflict} first and report
+ * the reason like any other validation error.
+ */
+public class CourseCatalog {
+
+    private static final Map<String, Integer> idsByCode = new HashMap<>(); // case-folded code -> ID
+
+    // Published copy-on-grow so readers never need the lock
+    private static volatile int[] ectsById = new int[64];
+    private static volatile Course[] coursesById = new Course[64];
+    private static int size = 0; // guarded by CourseCatalog.class
+
+    /**
+     * Returns the dense ID for the course's code, registering it on first use.
+     *
+     * @param course the course
+     * @return its catalog ID (0, 1, 2, ...)
+     * @throws IllegalArgumentException if the code is registered with a different name, ECTS or department
+     */
+    public static synchronized int register(Course course) {
+        String key = normalize(course.getCode());
+        Integer existing = idsByCode.get(key);
+        if (existing != null) {
+            Course known = coursesById[existing];
+            if (!matches(known, course.getName(), course.getEcts(), course.getDepartment())) {
+                throw new IllegalArgumentException(describe(known));
+            }
+            return existing;
+        }
+
+        int id = size;
+        int[] ects = ectsById;
+        Course[] courses = coursesById;
+        if (id == ects.length) {
+            ects = Arrays.copyOf(ects, id * 2);
+            courses = Arrays.copyOf(courses, id * 2);
+        }
+        ects[id] = course.getEcts();
+        courses[id] = course;
+        size = id + 1;
+
+        // Volatile writes publish the filled slots
+        coursesById = courses;
+        ectsById = ects;
+        idsByCode.put(key, id);
+        return id;
+    }
+
+    /**
+     * Returns the course registered for the code, creating (and registering) it
+     * only if the code is new.
+     *
+     * @param name       the name of the course
+     * @param code       the course code (case-insensitive)
+     * @param ects       the ECTS credit value (must be non-negative)
+     * @param department offering department (null = not partitioned)
+     * @return the canonical course of the code
+     * @throws IllegalArgumentException if ects is negative or the code is registered with other values
+     */
+    public static synchronized Course canonical(String name, String code, int ects, Department department) {
+        Course existing = find(code);
+        if (existing == null) return new Course(name, code, ects, department); // registers itself
+        if (!matches(existing, name, ects, department)) throw new IllegalArgumentException(describe(existing));
+        return existing;
+    }
+
+    /**
+     * Checks whether a course with these values may be created.
+     *
+     * @return the reason it may not (code registered with another name, ECTS or
+     *         department), or null if the code is new or registered with the same values
+     */
+    public static synchronized String conflict(String name, String code, int ects, Department department) {
+        Course existing = find(code);
+        return existing == null || matches(existing, name, ects, department) ? null : describe(existing);
+    }
+
+    /**
+     * @param code course code (case-insensitive)
+     * @return the canonical course of the code, or null if the code is unknown
+     */
+    public static synchronized Course find(String code) {
+        Integer id = idsByCode.get(normalize(code));
+        return id == null ? null : coursesById[id];
+    }
+
+    private static boolean matches(Course c, String name, int ects, Department department) {
+        return c.getEcts() == ects && Objects.equals(c.getName(), name)
+                && Objects.equals(c.getDepartment(), department);
+    }
+
+    private static String describe(Course c) {
+        return "course code " + c.getCode() + " is already registered as " + c.getName() + ", "
+                + c.getEcts() + " ECTS" + (c.getDepartment() != null ? ", " + c.getDepartment() : "");
+    }
+
+    /**
+     * @param code course code
+     * @return the key courses are identified by (upper case, locale-independent)
+     */
+    public static String normalize(String code) {
+        return code.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @param id catalog ID
+     * @return ECTS of that course
+     */
+    public static int ects(int id) {
+        return ectsById[id];
+    }
+
+    /**
+     * @param id catalog ID
+     * @return the course registered under that ID
+     */
+    public static Course course(int id) {
+        return coursesById[id];
+    }
+
+    /**
+     * @return number of distinct course codes
+     */
+    public static synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,95 @@
+package grading;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * DATE PARSER
+ * * Purpose: Parses the accepted date layouts (dd.MM.yyyy, dd/MM/yyyy, dd-MM-yyyy)
+ * in a single pass, without DateTimeFormatter and without using exceptions for
+ * control flow. Used for birth dates and establishment dates.
+ *
+ * Accept/reject behavior matches the former DateTimeFormatter loop:
+ * - exactly two day digits, two month digits and four year digits (0001 - 9999),
+ *   separated by the same '.', '/' or '-' character;
+ * - day 01-31 and month 01-12; a day past the end of the month is moved to the
+ *   last valid day (31.04 -> 30.04, 29.02 in a non-leap year -> 28.02), as the
+ *   default SMART resolver did.
+ */
+public class DateParser {
+
+    private static final int LENGTH = 10; // dd?MM?yyyy
+
+    // Today's epoch day in the system zone, refreshed when the day changes
+    // (epoch day is written first, so a reader that sees the new window sees the new day)
+    private static volatile long todayEpochDay;
+    private static volatile long todayValidFromMillis;
+    private static volatile long todayValidUntilMillis;
+
+    /**
+     * Parses a date in one of the accepted formats.
+     * The future-date rule is NOT applied here; see {@link #isFuture(LocalDate)}.
+     *
+     * @param input trimmed user or file input
+     * @return the parsed date, or null if the input is not a valid date
+     */
+    public static LocalDate parse(CharSequence input) {
+        if (input == null || input.length() != LENGTH) return null;
+
+        char sep = input.charAt(2);
+        if ((sep != '.' && sep != '/' && sep != '-') || input.charAt(5) != sep) return null;
+
+        int day = digits(input, 0, 2);
+        int month = digits(input, 3, 2);
+        int year = digits(input, 6, 4);
+        if (day < 1 || day > 31 || month < 1 || month > 12 || year < 1) return null;
+
+        int lastDay = lengthOfMonth(year, month);
+        return LocalDate.of(year, month, Math.min(day, lastDay));
+    }
+
+    /**
+     * @param date a parsed date
+     * @return true if the date is after today (system time zone)
+     */
+    public static boolean isFuture(LocalDate date) {
+        return date.toEpochDay() > today();
+    }
+
+    // --- Helpers ---
+
+    // Value of 'count' ASCII digits starting at 'from', or -1 if any is not a digit
+    private static int digits(CharSequence s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4: case 6: case 9: case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static long today() {
+        long now = System.currentTimeMillis();
+        if (now >= todayValidUntilMillis || now < todayValidFromMillis) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate today = LocalDate.now(zone);
+            todayEpochDay = today.toEpochDay();
+            todayValidFromMillis = today.atStartOfDay(zone).toInstant().toEpochMilli();
+            todayValidUntilMillis = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        return todayEpochDay;
+    }
+}
@@ -1,3 +1,5 @@
+package grading;
+
 import java.time.LocalDate;
 import java.util.Objects;
 /**
@@ -29,6 +31,16 @@ public class Department {
      */
     public String getName() { return name; }
 
+    /**
+     * @return the web page (identity of the department)
+     */
+    public String getWebPage() { return webPage; }
+
+    /**
+     * @return the establishment date
+     */
+    public LocalDate getEstablishmentDate() { return establishmentDate; }
+
     /**
      * Returns a readable string representation of the department.
      *
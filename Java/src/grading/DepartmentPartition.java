@@ -0,0 +1,85 @@
+package grading;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DEPARTMENT PARTITION
+ * * Purpose: The students and courses of one department, kept apart from the other
+ * departments so each one can be imported and reported on its own (and in parallel).
+ * Created and filled by StudentRegistry; the registry still owns the global
+ * ID / course-code indexes, so duplicates are detected across the whole university.
+ *
+ * Thread-safety: each list is guarded by its own monitor; getters return snapshots.
+ */
+public class DepartmentPartition {
+
+    private final Department department;
+
+    // Insertion order (used for Grade Entry and Reporting)
+    private final List<Student> students = new ArrayList<>();
+    private final List<Student> sessionStudents = new ArrayList<>();
+    private final List<Course> courses = new ArrayList<>();
+
+    DepartmentPartition(Department department) {
+        this.department = department;
+    }
+
+    void addStudent(Student student, boolean session) {
+        synchronized (students) {
+            students.add(student);
+        }
+        if (session) {
+            synchronized (sessionStudents) {
+                sessionStudents.add(student);
+            }
+        }
+    }
+
+    void addCourse(Course course) {
+        synchronized (courses) {
+            courses.add(course);
+        }
+    }
+
+    /**
+     * @return the department this partition belongs to
+     */
+    public Department getDepartment() { return department; }
+
+    /**
+     * @return snapshot of every student of the department (previous runs + this session)
+     */
+    public List<Student> getStudents() {
+        synchronized (students) {
+            return new ArrayList<>(students);
+        }
+    }
+
+    /**
+     * @return snapshot of the department's students added in this session
+     */
+    public List<Student> getSessionStudents() {
+        synchronized (sessionStudents) {
+            return new ArrayList<>(sessionStudents);
+        }
+    }
+
+    /**
+     * @return snapshot of the department's courses (insertion order)
+     */
+    public List<Course> getCourses() {
+        synchronized (courses) {
+            return new ArrayList<>(courses);
+        }
+    }
+
+    /**
+     * @return number of students of the department (all, not only this session)
+     */
+    public int studentCount() {
+        synchronized (students) {
+            return students.size();
+        }
+    }
+}
@@ -0,0 +1,605 @@
+package grading;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime; // For Date and Time
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * FILE MANAGER
+ * Purpose: Handles reporting to 'result.txt' with timestamps and append mode.
+ *
+ * The report is streamed: text is rendered into a small reusable buffer and written
+ * to the file channel in chunks, so memory stays flat regardless of cohort size.
+ * Report files are rotated by {@link FileRotator}; each report is also stored in the
+ * indexed {@link ReportArchive} for random access.
+ *
+ * @author Zeynep Can
+ */
+public class FileManager {
+
+    private static final String RESULT_FILE = System.getProperty("report.file", "result.txt");
+
+    /** Pass as consoleRows to echo every ranking row to the console. */
+    public static final int CONSOLE_ALL_ROWS = -1;
+
+    // Flush threshold for the in-memory report buffer (characters)
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    // Cohorts at least this large are ranked and summarized in parallel
+    private static final int PARALLEL_THRESHOLD = Integer.getInteger("report.parallelThreshold", 50_000);
+
+    private static final String NL = System.lineSeparator();
+
+    // Same charset FileWriter used, so the file bytes stay compatible (also used for cached rows)
+    static final Charset REPORT_CHARSET = Charset.defaultCharset();
+    private static final byte[] RANK_SEPARATOR = ". ".getBytes(REPORT_CHARSET);
+
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private static final DateTimeFormatter TIMESTAMP_FMT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+
+    /**
+     * Generates the report, prints it to the console, and appends it to the END of the 'result.txt' file. *
+     * @param sessionStudents Only the list of new students added in this session.
+     */
+    public static void printAndSaveReport(List<Student> sessionStudents) {
+        streamAndSaveReport(sessionStudents, CONSOLE_ALL_ROWS);
+    }
+
+    /**
+     * Streaming variant: appends the same report layout to 'result.txt' chunk by chunk.
+     * The console echo can be limited to the top N ranking rows (or disabled with 0).
+     *
+     * @param sessionStudents Only the list of new students added in this session.
+     * @param consoleRows     ranking rows to echo ({@link #CONSOLE_ALL_ROWS} for all, 0 for none)
+     */
+    public static void streamAndSaveReport(List<Student> sessionStudents, int consoleRows) {
+        if (sessionStudents.isEmpty()) {
+            System.out.println(">> There is no new data to report.");
+            return;
+        }
+        writeReport(RESULT_FILE, null, sessionStudents, consoleRows);
+    }
+
+    // =============================================================
+    // OFF-HEAP STORE REPORT
+    // =============================================================
+
+    /**
+     * Same report as {@link #streamAndSaveReport(List, int)} for the students of an
+     * {@link OffHeapStudentStore}. Rows are rendered through one reused view, so no
+     * Student objects are created.
+     *
+     * @param store       the students (ranked GPA high to low, ties by student ID)
+     * @param consoleRows ranking rows to echo ({@link #CONSOLE_ALL_ROWS} for all, 0 for none)
+     */
+    public static void streamAndSaveReport(OffHeapStudentStore store, int consoleRows) {
+        if (store.size() == 0) {
+            System.out.println(">> There is no new data to report.");
+            return;
+        }
+        long started = Metrics.REPORT_TOTAL.start();
+
+        long t = Metrics.REPORT_SORT.start();
+        int[] order = store.ranking();
+        Metrics.REPORT_SORT.record(t);
+
+        t = Metrics.REPORT_STATS.start();
+        GpaStatistics stats = store.statistics(order);
+        Metrics.REPORT_STATS.record(t);
+
+        boolean echo = consoleRows != 0;
+        LocalDateTime reportTime = LocalDateTime.now();
+        try (ReportSink sink = new ReportSink(RESULT_FILE)) {
+            StringBuilder sb = sink.buffer();
+            appendReportHeading(sb, null, reportTime);
+            appendStatistics(sb, order.length, stats);
+            sink.commit(echo);
+
+            OffHeapStudentStore.StudentView view = store.view();
+            for (int i = 0; i < order.length; i++) {
+                view.moveTo(order[i]);
+                appendRowBody(sb.append(i + 1).append(". "), view, view.calculateGPA());
+                sink.commit(consoleRows == CONSOLE_ALL_ROWS || i < consoleRows);
+            }
+
+            int hidden = order.length - consoleRows;
+            if (echo && consoleRows != CONSOLE_ALL_ROWS && hidden > 0) {
+                sink.echoOnly("... " + hidden + " more row(s) in '" + RESULT_FILE + "'" + NL);
+            }
+            sb.append("==========================================\n");
+            sb.append("------------------------------------------\n");
+            sink.commit(echo);
+            sink.finish(echo);
+            sink.archive(reportTime, ReportArchive.Kind.CLASS, null, stats);
+
+            System.out.println(">> The report has been successfully ADDED to the '" + RESULT_FILE + "' file.");
+        } catch (IOException e) {
+            System.err.println(">>File saving error: " + e.getMessage());
+        }
+        Metrics.REPORT_TOTAL.record(started);
+        Metrics.REPORTS.increment();
+    }
+
+    // =============================================================
+    // DEPARTMENT REPORTS (one file per department + university summary)
+    // =============================================================
+
+    /**
+     * Writes one report file per department, all departments in parallel, then appends
+     * a cross-department summary to 'result.txt'. The summary merges the statistics
+     * computed by the department reports, so students are not scanned again.
+     *
+     * @param partitions  the departments to report
+     * @param sessionOnly true to include only students added in this session
+     */
+    public static void saveDepartmentReports(List<DepartmentPartition> partitions, boolean sessionOnly) {
+        List<Department> departments = new ArrayList<>();
+        List<List<Student>> cohorts = new ArrayList<>();
+        for (DepartmentPartition p : partitions) {
+            List<Student> students = sessionOnly ? p.getSessionStudents() : p.getStudents();
+            if (students.isEmpty()) continue;
+            departments.add(p.getDepartment());
+            cohorts.add(students);
+        }
+        if (cohorts.isEmpty()) {
+            System.out.println(">> There is no department data to report.");
+            return;
+        }
+
+        // Departments share nothing, so each one is ranked, summarized and written on its own worker
+        GpaStatistics[] stats = IntStream.range(0, cohorts.size()).parallel()
+                .mapToObj(i -> saveDepartmentReport(departments.get(i), cohorts.get(i)))
+                .toArray(GpaStatistics[]::new);
+
+        saveUniversitySummary(departments, stats);
+    }
+
+    /**
+     * Writes the report of a single department to its own file
+     * (e.g. 'result-duzce.edu.tr.txt'). Nothing is echoed to the console.
+     *
+     * @param department the department
+     * @param students   its students (reordered by rank)
+     * @return the department's statistics (for the university summary)
+     */
+    public static GpaStatistics saveDepartmentReport(Department department, List<Student> students) {
+        return writeReport(departmentReportFile(department), department, students, 0);
+    }
+
+    /**
+     * Appends the cross-department summary to 'result.txt' and prints it.
+     *
+     * @param departments the departments, in report order
+     * @param stats       statistics of each department (same order)
+     */
+    public static void saveUniversitySummary(List<Department> departments, GpaStatistics[] stats) {
+        GpaStatistics total = new GpaStatistics();
+        for (GpaStatistics s : stats) {
+            total.combine(s);
+        }
+
+        LocalDateTime reportTime = LocalDateTime.now();
+        try (ReportSink sink = new ReportSink(RESULT_FILE)) {
+            StringBuilder sb = sink.buffer();
+            appendReportHeading(sb, null, reportTime);
+            sb.append("==========================================\n");
+            sb.append("            UNIVERSITY SUMMARY            \n");
+            sb.append("==========================================\n");
+            sb.append("- Departments   : ").append(departments.size()).append("\n");
+            sb.append("- Total Students: ").append(total.getCount()).append("\n");
+            appendFixed2(sb.append("- Average GPA   : "), total.getAverage()).append(NL);
+            appendFixed2(sb.append("- Highest GPA   : "), total.getMax()).append(NL);
+            appendFixed2(sb.append("- Lowest GPA    : "), total.getMin()).append(NL);
+            appendQuantiles(sb, total);
+
+            sb.append("\n=== BY DEPARTMENT ===\n");
+            for (int i = 0; i < departments.size(); i++) {
+                GpaStatistics s = stats[i];
+                sb.append(departments.get(i)).append(" - Students: ").append(s.getCount());
+                appendFixed2(sb.append(" - Avg: "), s.getAverage());
+                appendFixed2(sb.append(" - Median: "), s.getMedian());
+                appendFixed2(sb.append(" - Max: "), s.getMax());
+                appendFixed2(sb.append(" - Min: "), s.getMin());
+                sb.append(" - High/Good/Mid/Fail: ").append(s.getCountHigh()).append('/').append(s.getCountGood())
+                        .append('/').append(s.getCountMid()).append('/').append(s.getCountFail()).append(NL);
+            }
+            sb.append("==========================================\n");
+            sink.commit(true);
+            sink.finish(true);
+            sink.archive(reportTime, ReportArchive.Kind.SUMMARY, null, total);
+
+            System.out.println(">> Department reports written; summary ADDED to the '" + RESULT_FILE + "' file.");
+        } catch (IOException e) {
+            System.err.println(">>File saving error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the report file of a department: 'result.txt' with the web page as a suffix
+     */
+    static String departmentReportFile(Department department) {
+        String key = department.getWebPage().replaceFirst("^https?://", "").replaceAll("[^A-Za-z0-9.-]", "_");
+        int dot = RESULT_FILE.lastIndexOf('.');
+        return dot > 0
+                ? RESULT_FILE.substring(0, dot) + "-" + key + RESULT_FILE.substring(dot)
+                : RESULT_FILE + "-" + key;
+    }
+
+    // =============================================================
+    // REPORT WRITER
+    // =============================================================
+
+    // Ranks, summarizes and appends one report; returns the statistics
+    private static GpaStatistics writeReport(String file, Department department,
+                                             List<Student> sessionStudents, int consoleRows) {
+        boolean parallel = sessionStudents.size() >= PARALLEL_THRESHOLD;
+        long started = Metrics.REPORT_TOTAL.start();
+
+        // 1. RANKING (GPA High to Low)
+        long t = Metrics.REPORT_SORT.start();
+        RankingIndex index = RankingIndex.of(sessionStudents);
+        rank(sessionStudents, parallel, index);
+        Metrics.REPORT_SORT.record(t);
+
+        // 2. STATISTICAL CALCULATION (kept up to date by the index for all / session students)
+        t = Metrics.REPORT_STATS.start();
+        GpaStatistics stats = index != null ? index.statistics(sessionStudents) : null;
+        if (stats == null) stats = GpaStatistics.of(sessionStudents, parallel);
+        Metrics.REPORT_STATS.record(t);
+
+        // Rows of unchanged students are reused from the previous report
+        ReportCache.Tally tally = ReportCache.isEnabled() ? new ReportCache.Tally() : null;
+
+        // 3. Streaming the report text (APPEND MODE - no deletion)
+        boolean echo = consoleRows != 0;
+        LocalDateTime reportTime = LocalDateTime.now();
+        t = Metrics.REPORT_RENDER.start();
+        try (ReportSink sink = new ReportSink(file)) {
+            StringBuilder sb = sink.buffer();
+            appendReportHeading(sb, department, reportTime);
+
+            appendStatistics(sb, sessionStudents.size(), stats);
+            sink.commit(echo);
+
+            int rank = 1;
+            for (Student s : sessionStudents) {
+                boolean echoRow = consoleRows == CONSOLE_ALL_ROWS || rank <= consoleRows;
+                if (tally != null) {
+                    sink.commitRow(rank, ReportCache.row(s, tally), echoRow);
+                } else {
+                    appendRankingRow(sb, rank, s);
+                    sink.commit(echoRow);
+                }
+                rank++;
+            }
+
+            int hidden = sessionStudents.size() - consoleRows;
+            if (echo && consoleRows != CONSOLE_ALL_ROWS && hidden > 0) {
+                sink.echoOnly("... " + hidden + " more row(s) in '" + file + "'" + NL);
+            }
+
+            sb.append("==========================================\n");
+            sb.append("------------------------------------------\n");
+            sink.commit(echo);
+            sink.finish(echo);
+
+            // Render time excludes the file writes, which are reported on their own
+            if (t != 0L) {
+                Metrics.REPORT_RENDER.recordNanos(System.nanoTime() - t - sink.writeNanos);
+                Metrics.REPORT_WRITE.recordNanos(sink.writeNanos);
+            }
+            sink.archive(reportTime, department == null ? ReportArchive.Kind.CLASS : ReportArchive.Kind.DEPARTMENT,
+                    department == null ? null : department.toString(), stats);
+
+            System.out.println(">> The report has been successfully ADDED to the '" + file + "' file.");
+            if (tally != null) {
+                ReportCache.record(tally);
+                AppLogger.log("Report cache (" + file + "): " + tally.hits + " hit(s), " + tally.misses + " miss(es)");
+            }
+        } catch (IOException e) {
+            System.err.println(">>File saving error: " + e.getMessage());
+        }
+        Metrics.REPORT_TOTAL.record(started);
+        Metrics.REPORTS.increment();
+        return stats;
+    }
+
+    // ---  DATE AND TIME HEADING (plus the department, for department reports) ---
+    private static void appendReportHeading(StringBuilder sb, Department department, LocalDateTime time) {
+        sb.append("\n******************************************\n");
+        sb.append("   REPORT DATE: ").append(time.format(TIMESTAMP_FMT)).append("\n");
+        if (department != null) {
+            sb.append("   DEPARTMENT : ").append(department).append("\n");
+        }
+        sb.append("******************************************\n");
+    }
+
+    // --- CLASS STATISTICS block, up to the STUDENT RANKINGS heading ---
+    private static void appendStatistics(StringBuilder sb, int students, GpaStatistics stats) {
+        sb.append("==========================================\n");
+        sb.append("            CLASS STATISTICS              \n");
+        sb.append("==========================================\n");
+        sb.append("CLASS ANALYTICS REPORT:\n");
+        sb.append("- Total Students: ").append(students).append("\n");
+        appendFixed2(sb.append("- Class Average : "), stats.getAverage()).append(NL);
+        appendFixed2(sb.append("- Highest GPA   : "), stats.getMax()).append(NL);
+        appendFixed2(sb.append("- Lowest GPA    : "), stats.getMin()).append(NL);
+        appendQuantiles(sb, stats);
+
+        sb.append("\n=== GPA DISTRIBUTION (HISTOGRAM) ===\n");
+        sb.append("4.00 [High] : ").append(stats.getCountHigh()).append("\n");
+        sb.append("3.xx [Good] : ").append(stats.getCountGood()).append("\n");
+        sb.append("Mid-Range   : ").append(stats.getCountMid()).append("\n");
+        sb.append("0.00 [Fail] : ").append(stats.getCountFail()).append("\n");
+
+        sb.append("\n==========================================\n");
+        sb.append("            STUDENT RANKINGS              \n");
+        sb.append("==========================================\n");
+    }
+
+    /**
+     * Sorts students by GPA (High to Low).
+     * Registered students are read in order from the registry's live {@link RankingIndex}
+     * (ties by student ID) without sorting. Otherwise ties keep their original order in
+     * both modes; the parallel path sorts precomputed (GPA, student) pairs with a stable
+     * parallel merge sort.
+     */
+    static void rank(List<Student> students, boolean parallel) {
+        rank(students, parallel, RankingIndex.of(students));
+    }
+
+    // index: RankingIndex.of(students), already looked up by the caller
+    private static void rank(List<Student> students, boolean parallel, RankingIndex index) {
+        if (index != null && index.sortByRank(students)) {
+            return;
+        }
+
+        if (!parallel) {
+            students.sort(Comparator.comparingDouble(Student::calculateGPA).reversed());
+            return;
+        }
+
+        RankKey[] keys = new RankKey[students.size()];
+        for (int i = 0; i < keys.length; i++) {
+            Student s = students.get(i);
+            keys[i] = new RankKey(s.calculateGPA(), s);
+        }
+        Arrays.parallelSort(keys, RankKey.BY_GPA_DESC);
+        for (int i = 0; i < keys.length; i++) {
+            students.set(i, keys[i].student);
+        }
+    }
+
+    // Precomputed sort key for the parallel ranking
+    private static final class RankKey {
+        static final Comparator<RankKey> BY_GPA_DESC = (a, b) -> Double.compare(b.gpa, a.gpa);
+
+        final double gpa;
+        final Student student;
+
+        RankKey(double gpa, Student student) {
+            this.gpa = gpa;
+            this.student = student;
+        }
+    }
+
+    // --- Row & Number Formatting (replaces String.format on the hot path) ---
+
+    /**
+     * Appends one ranking row, equivalent to
+     * {@code "%d. %s - ID: %s - Birth: %s - GPA: %.2f%n"}.
+     */
+    static void appendRankingRow(StringBuilder sb, int rank, Student s) {
+        appendRowBody(sb.append(rank).append(". "), s, s.calculateGPA());
+    }
+
+    /**
+     * Appends a ranking row without its rank prefix (the part {@link ReportCache} keeps).
+     */
+    static void appendRowBody(StringBuilder sb, Student s, double gpa) {
+        sb.append(s.getFirstName()).append(' ').append(s.getLastName())
+                .append(" - ID: ").append(s.getStudentId())
+                .append(" - Birth: ");
+        appendDate(sb, s.getBirthDate());
+        appendFixed2(sb.append(" - GPA: "), gpa).append(NL);
+    }
+
+    /**
+     * Ranking row body of an off-heap student (same text as the Student variant).
+     */
+    static void appendRowBody(StringBuilder sb, OffHeapStudentStore.StudentView s, double gpa) {
+        sb.append(s.getFirstName()).append(' ').append(s.getLastName()).append(" - ID: ");
+        s.appendStudentId(sb).append(" - Birth: ");
+        appendDate(sb, s.getBirthDate());
+        appendFixed2(sb.append(" - GPA: "), gpa).append(NL);
+    }
+
+    // Median, quartiles and the 10th/90th percentiles (streaming sketch, no sort needed)
+    private static void appendQuantiles(StringBuilder sb, GpaStatistics stats) {
+        appendFixed2(sb.append("- Median GPA    : "), stats.getMedian()).append(NL);
+        appendFixed2(sb.append("- Q1 / Q3       : "), stats.getQuantile(0.25));
+        appendFixed2(sb.append(" / "), stats.getQuantile(0.75)).append(NL);
+        appendFixed2(sb.append("- P10 / P90     : "), stats.getQuantile(0.10));
+        appendFixed2(sb.append(" / "), stats.getQuantile(0.90)).append(NL);
+    }
+
+    /**
+     * Appends a non-negative value with exactly two decimals, matching
+     * {@code String.format(Locale.US, "%.2f", value)} (half-up on the shortest decimal form).
+     */
+    static StringBuilder appendFixed2(StringBuilder sb, double value) {
+        long hundredths = roundHundredths(value);
+        long fraction = hundredths % 100;
+        sb.append(hundredths / 100).append('.');
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction);
+    }
+
+    /**
+     * @return the value in hundredths, rounded exactly as {@link #appendFixed2} prints it
+     */
+    static long roundHundredths(double value) {
+        long hundredths = (long) Math.floor(value * 100);
+        // Round up when the value is at or above the x.xx5 midpoint
+        if (value >= (hundredths * 10 + 5) / 1000.0) {
+            hundredths++;
+        }
+        return hundredths;
+    }
+
+    /**
+     * Appends a date as dd.MM.yyyy, or "N/A" when missing (same as Student.getFormattedBirthDate).
+     */
+    static void appendDate(StringBuilder sb, LocalDate date) {
+        if (date == null) {
+            sb.append("N/A");
+            return;
+        }
+        appendPadded(sb, date.getDayOfMonth(), 2).append('.');
+        appendPadded(sb, date.getMonthValue(), 2).append('.');
+        appendPadded(sb, date.getYear(), 4);
+    }
+
+    private static StringBuilder appendPadded(StringBuilder sb, int value, int width) {
+        for (int limit = 10, i = 1; i < width; i++, limit *= 10) {
+            if (value < limit) sb.append('0');
+        }
+        return sb.append(value);
+    }
+
+    /**
+     * Buffered writer over an append-mode FileChannel with an optional console echo.
+     * Text is rendered into {@link #buffer()} and handed over with {@link #commit(boolean)};
+     * pre-encoded rows (see {@link ReportCache}) go straight to the byte chunk with
+     * {@link #commitRow(int, byte[], boolean)}.
+     */
+    private static final class ReportSink implements Closeable {
+        private final String fileName;
+        private final FileRotator rotator;
+        private final FileChannel channel;
+        private final long start;   // file size when this report began
+        private long written;       // bytes written by this report
+        private final StringBuilder pending = new StringBuilder(512);
+        private final StringBuilder fileText = new StringBuilder(CHUNK_SIZE);
+        private final ByteBuffer fileChunk = ByteBuffer.allocate(CHUNK_SIZE);
+        private final StringBuilder consoleChunk = new StringBuilder(CHUNK_SIZE);
+        private final byte[] digits = new byte[12];
+        long writeNanos; // time spent in channel writes (only measured with metrics on)
+
+        ReportSink(String fileName) throws IOException {
+            // 'APPEND' so we add to the end of the file (No deletion); a full file is
+            // rotated first, and cannot rotate while this report is being written
+            this.fileName = fileName;
+            this.rotator = FileRotator.of(fileName);
+            this.channel = rotator.open();
+            this.start = channel.size();
+        }
+
+        StringBuilder buffer() {
+            return pending;
+        }
+
+        /** Moves the pending text to the file chunk (and console chunk if echo is on). */
+        void commit(boolean echo) throws IOException {
+            fileText.append(pending);
+            if (echo) consoleChunk.append(pending);
+            pending.setLength(0);
+            if (fileText.length() >= CHUNK_SIZE) encodeText();
+            if (consoleChunk.length() >= CHUNK_SIZE) writeConsole();
+        }
+
+        /** Writes "rank. " followed by an already encoded row body. */
+        void commitRow(int rank, byte[] body, boolean echo) throws IOException {
+            encodeText();
+            int n = digits.length;
+            for (int v = rank; v > 0 || n == digits.length; v /= 10) {
+                digits[--n] = (byte) ('0' + v % 10);
+            }
+            put(digits, n, digits.length - n);
+            put(RANK_SEPARATOR, 0, RANK_SEPARATOR.length);
+            put(body, 0, body.length);
+
+            if (echo) {
+                consoleChunk.append(rank).append(". ").append(new String(body, REPORT_CHARSET));
+                if (consoleChunk.length() >= CHUNK_SIZE) writeConsole();
+            }
+        }
+
+        void echoOnly(String text) {
+            consoleChunk.append(text);
+        }
+
+        /** Writes everything out; the console gets the trailing newline println() used to add. */
+        void finish(boolean echo) throws IOException {
+            encodeText();
+            writeFile();
+            if (echo) consoleChunk.append(NL);
+            writeConsole();
+            System.out.flush();
+        }
+
+        /**
+         * Copies the finished report into the {@link ReportArchive}. Called after finish();
+         * skipped if another writer appended to the same file in the meantime.
+         */
+        void archive(LocalDateTime time, ReportArchive.Kind kind, String label, GpaStatistics stats) {
+            ReportArchive archive = ReportArchive.shared();
+            if (archive == null || written == 0) return;
+            try {
+                if (channel.size() != start + written) {
+                    AppLogger.log("Report archive: skipped a report of '" + fileName + "' (file was appended concurrently)");
+                    return;
+                }
+                archive.append(time, kind, label, stats, Paths.get(fileName), start, written);
+            } catch (IOException e) {
+                System.err.println(">> Archive error: " + e.getMessage());
+            }
+        }
+
+        private void encodeText() throws IOException {
+            if (fileText.length() == 0) return;
+            byte[] bytes = fileText.toString().getBytes(REPORT_CHARSET);
+            fileText.setLength(0);
+            put(bytes, 0, bytes.length);
+        }
+
+        private void put(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!fileChunk.hasRemaining()) writeFile();
+                int n = Math.min(length, fileChunk.remaining());
+                fileChunk.put(bytes, offset, n);
+                offset += n;
+                length -= n;
+            }
+        }
+
+        private void writeFile() throws IOException {
+            long t = Metrics.ENABLED ? System.nanoTime() : 0L;
+            fileChunk.flip();
+            while (fileChunk.hasRemaining()) {
+                written += channel.write(fileChunk);
+            }
+            fileChunk.clear();
+            if (t != 0L) writeNanos += System.nanoTime() - t;
+        }
+
+        private void writeConsole() {
+            if (consoleChunk.length() == 0) return;
+            System.out.print(consoleChunk);
+            consoleChunk.setLength(0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            rotator.close(channel);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package grading;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * FILE ROTATOR
+ * * Purpose: Keeps append-only files ('app.log', 'result.txt', department reports)
+ * from growing without bound. When the active file is too large or too old it is
+ * renamed to a timestamped segment (e.g. 'result-20261017-021314-123.txt') and a
+ * fresh file is started; the segment is gzipped on a background thread and only
+ * the newest segments are kept.
+ *
+ * Writers open the file through {@link #open()} and hold it until {@link #close}.
+ * Rotation only happens between two such sessions (a read/write lock), so a report
+ * is never split across two files, and a segment is never compressed while
+ * something is still appending to it. The size and age are checked when a session
+ * starts, so a file may exceed the limit by one report (or one log flush).
+ *
+ * Segments left uncompressed by a crash are picked up again at the next start.
+ *
+ * The start of the active segment is kept in a sidecar file ('result.txt.start',
+ * epoch millis), written when the file is created or rotated, so the age survives
+ * restarts (the JDK reports no real creation time on Linux). A file that predates
+ * its sidecar is aged from the first time this class sees it.
+ *
+ * Configuration (system properties):
+ * - rotation.maxBytes    : rotate at this size, 0 = never (default 64 MiB)
+ * - rotation.maxAgeHours : rotate when the file is this old, 0 = never (default 168);
+ *                          age counts from the segment start in the sidecar file
+ * - rotation.keep        : rolled segments kept per file (default 10)
+ * - rotation.compress    : gzip rolled segments (default true)
+ */
+public class FileRotator {
+
+    private static final long MAX_BYTES = Long.getLong("rotation.maxBytes", 64L * 1024 * 1024);
+    private static final long MAX_AGE_MS = TimeUnit.HOURS.toMillis(Long.getLong("rotation.maxAgeHours", 168L));
+    private static final int KEEP = Math.max(1, Integer.getInteger("rotation.keep", 10));
+    private static final boolean COMPRESS = Boolean.parseBoolean(System.getProperty("rotation.compress", "true"));
+
+    private static final DateTimeFormatter STAMP_FMT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final String GZ = ".gz";
+    private static final String TMP = ".tmp";
+    private static final String START = ".start";
+
+    private static final ConcurrentHashMap<Path, FileRotator> rotators = new ConcurrentHashMap<>();
+
+    // One daemon thread compresses and prunes segments for every file
+    private static final ExecutorService compressor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "file-rotator");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Path path;
+    private final Path startFile;
+    private final String base;
+    private final String extension;
+    private final Pattern segmentName;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long segmentStart = -1; // millis, -1 = not read yet
+
+    private FileRotator(Path path) {
+        this.path = path;
+        this.startFile = path.resolveSibling(path.getFileName() + START);
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        this.base = dot > 0 ? name.substring(0, dot) : name;
+        this.extension = dot > 0 ? name.substring(dot) : "";
+        this.segmentName = Pattern.compile(Pattern.quote(base) + "-\\d{8}-\\d{6}-\\d{3}(-\\d+)?"
+                + Pattern.quote(extension) + "(" + Pattern.quote(GZ) + ")?");
+        submit(this::recover);
+    }
+
+    /**
+     * @param fileName the active file (relative to the working directory or absolute)
+     * @return the shared rotator of that file
+     */
+    public static FileRotator of(String fileName) {
+        Path p = Paths.get(fileName).toAbsolutePath().normalize();
+        return rotators.computeIfAbsent(p, FileRotator::new);
+    }
+
+    // =============================================================
+    // WRITE SESSIONS
+    // =============================================================
+
+    /**
+     * Rotates the file if it is due, then opens it for appending. The file will not
+     * rotate until the channel is passed to {@link #close(FileChannel)}, which must
+     * happen on the same thread.
+     *
+     * @return append-mode channel of the active file
+     * @throws IOException if the file cannot be opened
+     */
+    public FileChannel open() throws IOException {
+        if (isDue(-1)) {
+            lock.writeLock().lock();
+            try {
+                if (isDue(-1)) rotate();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            boolean created = MAX_AGE_MS > 0 && Files.notExists(path);
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (created) markStart(System.currentTimeMillis());
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            lock.readLock().unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Ends a write session started with {@link #open()}.
+     */
+    public void close(FileChannel channel) throws IOException {
+        try {
+            channel.close();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * For long-lived writers (the logger): tells whether the file of an open session
+     * is due for rotation; if so, close the session at a record boundary and open again.
+     *
+     * @param channel the open session
+     * @return true if the file should be rotated
+     */
+    public boolean isDue(FileChannel channel) throws IOException {
+        return isDue(channel.size());
+    }
+
+    /**
+     * Waits (bounded) for queued segment compression to finish; later rotations
+     * leave their segment uncompressed until the next start. Called on exit.
+     *
+     * @param timeoutMs maximum wait
+     */
+    public static void shutdown(long timeoutMs) {
+        compressor.shutdown();
+        try {
+            compressor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // =============================================================
+    // ROTATION
+    // =============================================================
+
+    // size = known size of the active file, or -1 to read it from the file system
+    private boolean isDue(long size) throws IOException {
+        if (MAX_BYTES <= 0 && MAX_AGE_MS <= 0) return false;
+        if (size < 0) {
+            try {
+                size = Files.size(path);
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+        }
+        if (size == 0) return false;
+        if (MAX_BYTES > 0 && size >= MAX_BYTES) return true;
+        if (MAX_AGE_MS <= 0) return false;
+
+        if (segmentStart < 0) loadStart();
+        return System.currentTimeMillis() - segmentStart >= MAX_AGE_MS;
+    }
+
+    // Reads the segment start from the sidecar; a missing or unreadable one starts the age now
+    private void loadStart() {
+        try {
+            segmentStart = Long.parseLong(Files.readString(startFile).trim());
+            return;
+        } catch (NoSuchFileException e) {
+            // File from before the sidecar existed
+        } catch (IOException | NumberFormatException e) {
+            System.err.println(">> Rotation Error: unreadable segment start " + startFile + ", age restarts now");
+        }
+        markStart(System.currentTimeMillis());
+    }
+
+    // Records a new segment start (concurrent first openers write nearly the same value)
+    private void markStart(long millis) {
+        segmentStart = millis;
+        try {
+            Files.writeString(startFile, Long.toString(millis));
+        } catch (IOException e) {
+            System.err.println(">> Rotation Error: " + e.getMessage());
+        }
+    }
+
+    // Caller holds the write lock: nobody has the file open
+    private void rotate() throws IOException {
+        Path segment = nextSegment();
+        try {
+            Files.move(path, segment, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(path, segment);
+        }
+        markStart(System.currentTimeMillis());
+
+        submit(() -> {
+            if (COMPRESS) compress(segment);
+            prune();
+        });
+    }
+
+    private Path nextSegment() {
+        String stamp = LocalDateTime.now().format(STAMP_FMT);
+        Path segment = path.resolveSibling(base + "-" + stamp + extension);
+        for (int i = 1; Files.exists(segment) || Files.exists(gzipOf(segment)); i++) {
+            segment = path.resolveSibling(base + "-" + stamp + "-" + i + extension);
+        }
+        return segment;
+    }
+
+    // --- Background Work (compressor thread) ---
+
+    private void compress(Path segment) {
+        Path gz = gzipOf(segment);
+        Path tmp = gz.resolveSibling(gz.getFileName() + TMP);
+        try (InputStream in = Files.newInputStream(segment);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024)) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            System.err.println(">> Rotation Error: " + e.getMessage());
+            deleteQuietly(tmp);
+            return;
+        }
+        try {
+            Files.move(tmp, gz, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(segment);
+        } catch (IOException e) {
+            System.err.println(">> Rotation Error: " + e.getMessage());
+        }
+    }
+
+    // Deletes all but the newest KEEP segments (names sort by time)
+    private void prune() {
+        List<Path> segments = listSegments();
+        Collections.sort(segments);
+        for (int i = 0; i < segments.size() - KEEP; i++) {
+            deleteQuietly(segments.get(i));
+        }
+    }
+
+    // Finishes what a previous run left behind: partial archives and uncompressed segments
+    private void recover() {
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(path.getParent(), base + "-*" + TMP)) {
+            for (Path tmp : dir) {
+                String name = tmp.getFileName().toString();
+                if (segmentName.matcher(name.substring(0, name.length() - TMP.length())).matches()) {
+                    deleteQuietly(tmp);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println(">> Rotation Error: " + e.getMessage());
+        }
+        if (COMPRESS) {
+            for (Path segment : listSegments()) {
+                if (!segment.getFileName().toString().endsWith(GZ)) compress(segment);
+            }
+        }
+        prune();
+    }
+
+    // --- Helper Methods ---
+
+    private List<Path> listSegments() {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(path.getParent(), base + "-*")) {
+            for (Path p : dir) {
+                if (segmentName.matcher(p.getFileName().toString()).matches()) segments.add(p);
+            }
+        } catch (IOException e) {
+            System.err.println(">> Rotation Error: " + e.getMessage());
+        }
+        return segments;
+    }
+
+    private static Path gzipOf(Path segment) {
+        return segment.resolveSibling(segment.getFileName() + GZ);
+    }
+
+    private static void deleteQuietly(Path p) {
+        try {
+            Files.deleteIfExists(p);
+        } catch (IOException e) {
+            System.err.println(">> Rotation Error: " + e.getMessage());
+        }
+    }
+
+    private static void submit(Runnable task) {
+        try {
+            compressor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the segment stays uncompressed and is handled at the next start
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package grading;
+
+import java.util.Arrays;
+
+/**
+ * GPA QUANTILE SKETCH
+ * * Purpose: Streaming median / quartiles / percentiles of a cohort in constant
+ * memory, without keeping or sorting the GPAs.
+ *
+ * GPA is bounded (0.00 - 4.00) and reports print two decimals, so the sketch is a
+ * fixed histogram of 401 bins, one per printed value (0.00, 0.01 ... 4.00), using the
+ * same rounding as the report. Rounding never changes the order of two GPAs, so the
+ * k-th smallest bin is the bin of the k-th smallest GPA: every quantile equals the
+ * exact (sorted) quantile as printed, i.e. within 0.005 of the unrounded value.
+ *
+ * Memory: one int[401] (~1.6 KB) whatever the cohort size.
+ * Sketches of different blocks, threads or departments merge by adding the bins;
+ * merging is exact and order-independent.
+ */
+public class GpaQuantileSketch {
+
+    /** Number of bins: 0.00 .. 4.00 in steps of 0.01. */
+    public static final int BINS = 401;
+
+    private final int[] bins = new int[BINS];
+    private long count = 0;
+
+    /**
+     * Adds one GPA (values outside 0.00 - 4.00 are clamped).
+     *
+     * @param gpa the GPA
+     */
+    public void accept(double gpa) {
+        bins[bin(gpa)]++;
+        count++;
+    }
+
+    /**
+     * Takes back one GPA added earlier (incremental upkeep, see GpaStatistics).
+     *
+     * @param gpa the GPA that was added
+     */
+    void remove(double gpa) {
+        bins[bin(gpa)]--;
+        count--;
+    }
+
+    private static int bin(double gpa) {
+        long bin = FileManager.roundHundredths(Math.max(0.0, gpa));
+        return (int) Math.min(bin, BINS - 1);
+    }
+
+    /**
+     * Adds another sketch into this one.
+     *
+     * @param other sketch of another block, thread or department
+     * @return this sketch
+     */
+    public GpaQuantileSketch merge(GpaQuantileSketch other) {
+        for (int i = 0; i < BINS; i++) {
+            bins[i] += other.bins[i];
+        }
+        count += other.count;
+        return this;
+    }
+
+    /**
+     * Nearest-rank quantile: the smallest GPA that at least q of the cohort is at or below.
+     *
+     * @param q fraction (0.0 - 1.0), e.g. 0.5 for the median
+     * @return the quantile rounded to two decimals, or 0.0 when empty
+     * @throws IllegalArgumentException if q is outside 0.0 - 1.0
+     */
+    public double quantile(double q) {
+        if (!(q >= 0.0 && q <= 1.0)) throw new IllegalArgumentException("Quantile must be within 0..1: " + q);
+        if (count == 0) return 0.0;
+
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i = 0; i < BINS; i++) {
+            seen += bins[i];
+            if (seen >= rank) return i / 100.0;
+        }
+        return (BINS - 1) / 100.0;
+    }
+
+    /**
+     * @return number of GPAs added
+     */
+    public long getCount() { return count; }
+
+    /**
+     * @return number of GPAs in each bin (index = GPA in hundredths), a copy
+     */
+    public int[] getBins() { return Arrays.copyOf(bins, BINS); }
+}
@@ -0,0 +1,198 @@
+package grading;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * GPA STATISTICS ACCUMULATOR
+ * * Purpose: Combinable summary of a cohort (count, total, min, max, the
+ * four histogram buckets and a {@link GpaQuantileSketch} for the median and
+ * percentiles) used by the "CLASS STATISTICS" block of the report.
+ *
+ * Students are summed in fixed-size blocks and the block results are combined
+ * in block order. The total is kept in fixed point (units of 2^-32, exact integer
+ * additions), so the sequential, parallel and incremental paths produce
+ * bit-identical totals whatever the order or number of threads; the rounding
+ * (below 1e-9 per student) never shows in the two printed decimals.
+ *
+ * The live {@link RankingIndex} keeps whole-cohort statistics up to date with
+ * {@link #accept(double)} and {@link #remove(double)}; min/max come from its ends.
+ */
+public class GpaStatistics {
+
+    // Block size is fixed (not derived from the core count) to keep results deterministic
+    private static final int BLOCK_SIZE = 4096;
+
+    // Fixed-point scale of the total: 4.00 * 2^32 per student leaves room for 2^29 students
+    private static final double SCALE = 0x1p32;
+
+    private long count = 0;
+    private long total = 0; // sum of GPAs in units of 1/SCALE
+    private double max = Double.NEGATIVE_INFINITY;
+    private double min = Double.POSITIVE_INFINITY;
+    private int countHigh = 0;
+    private int countGood = 0;
+    private int countMid = 0;
+    private int countFail = 0;
+    private final GpaQuantileSketch quantiles = new GpaQuantileSketch();
+
+    /**
+     * Computes statistics over the students' GPAs.
+     *
+     * @param students the cohort (should be a RandomAccess list)
+     * @param parallel true to compute the blocks on the common fork/join pool
+     * @return the combined statistics
+     */
+    public static GpaStatistics of(List<Student> students, boolean parallel) {
+        int n = students.size();
+        int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        IntStream blockIds = IntStream.range(0, blocks);
+        if (parallel) blockIds = blockIds.parallel();
+
+        // toArray() keeps encounter (block) order; the combine below is sequential
+        GpaStatistics[] partials = blockIds
+                .mapToObj(b -> ofRange(students, b * BLOCK_SIZE, Math.min(n, (b + 1) * BLOCK_SIZE)))
+                .toArray(GpaStatistics[]::new);
+
+        GpaStatistics result = new GpaStatistics();
+        for (GpaStatistics p : partials) {
+            result.combine(p);
+        }
+        return result;
+    }
+
+    /**
+     * Sequential {@link #of(List, boolean)} over GPAs already read (same blocks, same totals).
+     *
+     * @param gpas the GPAs, in report order
+     * @return the combined statistics
+     */
+    public static GpaStatistics of(double[] gpas) {
+        GpaStatistics result = new GpaStatistics();
+        for (int from = 0; from < gpas.length; from += BLOCK_SIZE) {
+            GpaStatistics block = new GpaStatistics();
+            for (int i = from; i < Math.min(gpas.length, from + BLOCK_SIZE); i++) {
+                block.accept(gpas[i]);
+            }
+            result.combine(block);
+        }
+        return result;
+    }
+
+    private static GpaStatistics ofRange(List<Student> students, int from, int to) {
+        GpaStatistics stats = new GpaStatistics();
+        for (int i = from; i < to; i++) {
+            stats.accept(students.get(i).calculateGPA());
+        }
+        return stats;
+    }
+
+    /**
+     * Adds one GPA.
+     *
+     * @param gpa the GPA (0.00 - 4.00)
+     */
+    public void accept(double gpa) {
+        count++;
+        total += fixed(gpa);
+        if (gpa > max) max = gpa;
+        if (gpa < min) min = gpa;
+        bucket(gpa, 1);
+        quantiles.accept(gpa);
+    }
+
+    /**
+     * Takes back one GPA added earlier (for incremental upkeep). Min/max are not
+     * updated; the owner supplies them through {@link #withRange(double, double)}.
+     *
+     * @param gpa the GPA that was added
+     */
+    void remove(double gpa) {
+        count--;
+        total -= fixed(gpa);
+        bucket(gpa, -1);
+        quantiles.remove(gpa);
+    }
+
+    /**
+     * @param min lowest GPA of the cohort
+     * @param max highest GPA of the cohort
+     * @return a copy of these statistics with the given extremes
+     */
+    GpaStatistics withRange(double min, double max) {
+        GpaStatistics copy = new GpaStatistics().combine(this);
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+
+    private void bucket(double gpa, int delta) {
+        if (gpa >= 3.50) countHigh += delta;
+        else if (gpa >= 3.00) countGood += delta;
+        else if (gpa >= 2.00) countMid += delta;
+        else countFail += delta;
+    }
+
+    private static long fixed(double gpa) {
+        return Math.round(gpa * SCALE);
+    }
+
+    /**
+     * Merges another accumulator into this one.
+     *
+     * @param other statistics of a later block
+     * @return this accumulator
+     */
+    public GpaStatistics combine(GpaStatistics other) {
+        count += other.count;
+        total += other.total;
+        if (other.max > max) max = other.max;
+        if (other.min < min) min = other.min;
+        countHigh += other.countHigh;
+        countGood += other.countGood;
+        countMid += other.countMid;
+        countFail += other.countFail;
+        quantiles.merge(other.quantiles);
+        return this;
+    }
+
+    // --- Getters ---
+
+    public long getCount() { return count; }
+
+    public double getTotal() { return total / SCALE; }
+
+    /**
+     * @return average GPA, or 0.0 when empty
+     */
+    public double getAverage() {
+        return count == 0 ? 0.0 : total / SCALE / count;
+    }
+
+    /**
+     * @return highest GPA, or 0.0 when empty
+     */
+    public double getMax() { return count == 0 ? 0.0 : max; }
+
+    /**
+     * @return lowest GPA, or 0.0 when empty
+     */
+    public double getMin() { return count == 0 ? 0.0 : min; }
+
+    /**
+     * @param q fraction (0.0 - 1.0)
+     * @return nearest-rank quantile at two decimals (see GpaQuantileSketch), or 0.0 when empty
+     */
+    public double getQuantile(double q) { return quantiles.quantile(q); }
+
+    /**
+     * @return median GPA at two decimals, or 0.0 when empty
+     */
+    public double getMedian() { return quantiles.quantile(0.5); }
+
+    public int getCountHigh() { return countHigh; }
+    public int getCountGood() { return countGood; }
+    public int getCountMid() { return countMid; }
+    public int getCountFail() { return countFail; }
+}
@@ -0,0 +1,178 @@
+package grading;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * CONCURRENT GRADEBOOK
+ * * Purpose: Accepts grade submissions from many threads at once (e.g. several
+ * instructors grading in parallel). Student transcripts are not thread-safe on
+ * their own, so every concurrent grade update and GPA read goes through here.
+ *
+ * Locking: lock striping by student ID. Graders working on different students
+ * almost never share a stripe, and the transcript and its running GPA totals are
+ * always updated and read together under the student's stripe lock.
+ * ReentrantLock (not synchronized), like the Journal it waits on, so virtual
+ * threads are never pinned, not even during the group-commit wait.
+ *
+ * Durability: with a journal, each grade is appended inside the stripe lock (so the
+ * journal order per student matches the in-memory order) and the submitter then
+ * waits for the group commit outside the lock.
+ */
+public class Gradebook {
+
+    /**
+     * Outcome of a submission.
+     */
+    public enum Result {
+        RECORDED,
+        UNKNOWN_STUDENT,
+        UNKNOWN_COURSE
+    }
+
+    private static final int DEFAULT_STRIPES = 256;
+
+    private final StudentRegistry registry;
+    private final Journal journal; // may be null
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    private final LongAdder recorded = new LongAdder();
+
+    /**
+     * @param registry student/course lookup
+     * @param journal  journal for recorded grades, or null
+     */
+    public Gradebook(StudentRegistry registry, Journal journal) {
+        this(registry, journal, Integer.getInteger("gradebook.stripes", DEFAULT_STRIPES));
+    }
+
+    /**
+     * @param registry student/course lookup
+     * @param journal  journal for recorded grades, or null
+     * @param stripes  number of lock stripes (rounded up to a power of two)
+     */
+    public Gradebook(StudentRegistry registry, Journal journal, int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.registry = registry;
+        this.journal = journal;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    // =============================================================
+    // SUBMISSIONS
+    // =============================================================
+
+    /**
+     * Records (or corrects) a grade by student ID and course code.
+     *
+     * @param studentId  the student
+     * @param courseCode the course (any case)
+     * @param grade      the letter grade
+     * @return RECORDED, UNKNOWN_STUDENT or UNKNOWN_COURSE
+     * @throws IOException if the journal cannot be written
+     */
+    public Result submit(String studentId, String courseCode, LetterGrade grade) throws IOException {
+        Student s = registry.findStudent(studentId);
+        if (s == null) return Result.UNKNOWN_STUDENT;
+        Course c = registry.findCourse(courseCode);
+        if (c == null) return Result.UNKNOWN_COURSE;
+        submit(s, c, grade);
+        return Result.RECORDED;
+    }
+
+    /**
+     * Records (or corrects) a grade and, with a journal, waits until it is durable.
+     *
+     * @param student a registered student
+     * @param course  a registered course
+     * @param grade   the letter grade
+     * @throws IOException if the journal cannot be written
+     */
+    public void submit(Student student, Course course, LetterGrade grade) throws IOException {
+        long seq = 0;
+        ReentrantLock lock = stripeFor(student);
+        lock.lock();
+        try {
+            student.addGrade(course, grade);
+            if (journal != null) seq = journal.logGrade(student, course, grade);
+        } finally {
+            lock.unlock();
+        }
+        recorded.increment();
+        // Concurrent submitters share one fsync (group commit)
+        if (journal != null) journal.sync(seq);
+    }
+
+    // =============================================================
+    // CONSISTENT READS
+    // =============================================================
+
+    /**
+     * @param student a registered student
+     * @return the student's GPA, read atomically with respect to submissions
+     */
+    public double gpa(Student student) {
+        ReentrantLock lock = stripeFor(student);
+        lock.lock();
+        try {
+            return student.calculateGPA();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param student a registered student
+     * @return number of graded courses, read atomically with respect to submissions
+     */
+    public int gradeCount(Student student) {
+        ReentrantLock lock = stripeFor(student);
+        lock.lock();
+        try {
+            return student.getGradeCount();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Verifies that every student's running GPA totals match a full recalculation.
+     *
+     * @param students the students to check
+     * @return true if all are consistent
+     */
+    public boolean isConsistent(List<Student> students) {
+        for (Student s : students) {
+            ReentrantLock lock = stripeFor(s);
+            lock.lock();
+            try {
+                if (!s.isGpaConsistent()) return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return number of grades recorded through this gradebook
+     */
+    public long getRecordedCount() {
+        return recorded.sum();
+    }
+
+    // --- Helper Methods ---
+
+    private ReentrantLock stripeFor(Student student) {
+        int h = student.getStudentId().hashCode();
+        h ^= (h >>> 16); // spread the high bits (same as HashMap)
+        return stripes[h & mask];
+    }
+}
@@ -0,0 +1,557 @@
+package grading;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP SERVICE MODE
+ * * Purpose: Serves the registry over HTTP (JDK built-in com.sun.net.httpserver)
+ * so students, courses and grades can be entered by many clients at once.
+ * Every request runs on its own virtual thread (platform threads before Java 21).
+ *
+ * Usage: Main --serve [port]
+ *
+ * Endpoints (POST bodies are application/x-www-form-urlencoded, responses are JSON):
+ * - POST /departments  name, webPage, establishmentDate
+ * - POST /students     firstName, lastName, studentId, birthDate [, department=webPage]
+ * - POST /courses      name, code, ects [, department=webPage]
+ * - POST /grades       studentId, courseCode, grade (AA..FF)
+ * - GET  /students/{id}             student details and GPA
+ * - GET  /students?minGpa=&maxGpa=&course=&bornAfter=&bornBefore=&probation=true&department=&limit=N
+ *                                   students matching all given conditions, best GPA first
+ *                                   (answered from the secondary indexes, see StudentIndex)
+ * - GET  /ranking?from=R&limit=N    N students by GPA from rank R (defaults 1 and 20)
+ * - GET  /statistics                class statistics of all students (incl. median, quartiles, P10/P90)
+ * - POST /reports                   appends the all-students report to result.txt
+ *                                   (plus department reports when there are several)
+ * - GET  /archive?last=N             summaries of the newest N archived reports (default 20)
+ * - GET  /archive/{n}                text of archived report #n (text/plain)
+ *
+ * Input goes through the same Validator rules as the console, new entries are
+ * journaled like console entries, and grades go through the Gradebook.
+ */
+public class GradingServer {
+
+    private static final int MAX_BODY = 64 * 1024;
+    private static final int DEFAULT_RANKING_LIMIT = 20;
+
+    private final StudentRegistry registry;
+    private final Journal journal; // may be null
+    private final Gradebook gradebook;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param registry data served and updated by the endpoints
+     * @param journal  journal for new entries, or null
+     */
+    public GradingServer(StudentRegistry registry, Journal journal) {
+        this.registry = registry;
+        this.journal = journal;
+        this.gradebook = new Gradebook(registry, journal);
+    }
+
+    // =============================================================
+    // LIFECYCLE
+    // =============================================================
+
+    /**
+     * Binds the port and starts serving.
+     *
+     * @param port TCP port (0 = any free port)
+     * @throws IOException if the port cannot be bound
+     */
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        executor = VirtualThreads.newPerTaskExecutor("http");
+        server.setExecutor(executor);
+
+        server.createContext("/departments", route(this::handleDepartments));
+        server.createContext("/students", route(this::handleStudents));
+        server.createContext("/courses", route(this::handleCourses));
+        server.createContext("/grades", route(this::handleGrades));
+        server.createContext("/ranking", route(this::handleRanking));
+        server.createContext("/statistics", route(this::handleStatistics));
+        server.createContext("/reports", route(this::handleReports));
+        server.createContext("/archive", route(this::handleArchive));
+
+        server.start();
+        AppLogger.log("Server started on port " + getPort() + (VirtualThreads.isAvailable() ? " (virtual threads)" : ""));
+    }
+
+    /**
+     * Stops accepting requests and waits (up to 2 seconds) for running ones.
+     */
+    public void stop() {
+        if (server == null) return;
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        AppLogger.log("Server stopped.");
+    }
+
+    /**
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // =============================================================
+    // HANDLERS
+    // =============================================================
+
+    private void handleDepartments(HttpExchange ex) throws IOException {
+        requireMethod(ex, "POST");
+        Map<String, String> form = readForm(ex);
+        String name = field(form, "name");
+        String webPage = field(form, "webPage");
+        String date = field(form, "establishmentDate");
+
+        check(Validator.checkName(name), "name");
+        check(Validator.checkWebPage(webPage), "webPage");
+        check(Validator.checkDate(date), "establishmentDate");
+
+        Department d = new Department(name, webPage, Validator.parseDate(date));
+        if (!registry.addDepartment(d)) {
+            throw new ApiException(409, "DUPLICATE", "Department " + webPage + " already exists.");
+        }
+        if (journal != null) journal.sync(journal.logDepartment(d));
+        AppLogger.log("Department set: " + name + " (HTTP)");
+
+        StringBuilder sb = new StringBuilder("{");
+        json(sb, "name", name).append(',');
+        json(sb, "webPage", webPage).append('}');
+        send(ex, 201, sb);
+    }
+
+    private void handleStudents(HttpExchange ex) throws IOException {
+        String id = pathTail(ex, "/students");
+        if (id != null) {
+            requireMethod(ex, "GET");
+            Student s = registry.findStudent(id);
+            if (s == null) throw new ApiException(404, "UNKNOWN_STUDENT", "No student with ID " + id + ".");
+            send(ex, 200, studentJson(new StringBuilder(), s));
+            return;
+        }
+        if (ex.getRequestMethod().equals("GET")) {
+            queryStudents(ex);
+            return;
+        }
+
+        requireMethod(ex, "POST");
+        Map<String, String> form = readForm(ex);
+        String first = field(form, "firstName");
+        String last = field(form, "lastName");
+        String studentId = field(form, "studentId");
+        String birth = field(form, "birthDate");
+
+        check(Validator.checkName(first), "firstName");
+        check(Validator.checkName(last), "lastName");
+        check(Validator.checkText(studentId), "studentId");
+        check(Validator.checkDate(birth), "birthDate");
+        Department dept = optionalDepartment(form);
+
+        Student s = new Student(first, last, studentId, Validator.parseDate(birth), dept);
+        if (!registry.addStudent(s)) {
+            throw new ApiException(409, "DUPLICATE", "Student with ID " + studentId + " already exists.");
+        }
+        if (journal != null) journal.sync(journal.logStudent(s));
+        AppLogger.log("Student added: ID " + studentId + " (HTTP)");
+        send(ex, 201, studentJson(new StringBuilder(), s));
+    }
+
+    // GET /students?minGpa=&maxGpa=&course=&bornAfter=&bornBefore=&probation=&department=&limit=
+    private void queryStudents(HttpExchange ex) throws IOException {
+        StudentQuery q = new StudentQuery().limit(intParam(ex, "limit", DEFAULT_RANKING_LIMIT));
+        double min = gpaParam(ex, "minGpa", Double.NEGATIVE_INFINITY);
+        double max = gpaParam(ex, "maxGpa", Double.POSITIVE_INFINITY);
+        if (min != Double.NEGATIVE_INFINITY || max != Double.POSITIVE_INFINITY) q.gpaBetween(min, max);
+        if ("true".equals(queryParam(ex, "probation"))) q.onProbation();
+
+        String code = queryParam(ex, "course");
+        if (code != null) {
+            Course c = registry.findCourse(code);
+            if (c == null) throw new ApiException(404, "UNKNOWN_COURSE", "No course with code '" + code + "'.");
+            q.tookCourse(c);
+        }
+        LocalDate after = dateParam(ex, "bornAfter");
+        if (after != null) q.bornAfter(after);
+        LocalDate before = dateParam(ex, "bornBefore");
+        if (before != null) q.bornBefore(before);
+
+        String webPage = queryParam(ex, "department");
+        if (webPage != null) {
+            Department d = registry.findDepartment(webPage);
+            if (d == null) throw new ApiException(404, "UNKNOWN_DEPARTMENT", "No department " + webPage + ".");
+            q.inDepartment(d);
+        }
+
+        StudentIndex index = registry.getIndex();
+        List<Student> found = index.query(q);
+        StringBuilder sb = new StringBuilder("{\"total\":").append(index.count(q)).append(',');
+        json(sb, "plan", index.explain(q).toString()).append(",\"students\":[");
+        for (int i = 0; i < found.size(); i++) {
+            if (i > 0) sb.append(',');
+            studentJson(sb, found.get(i));
+        }
+        sb.append("]}");
+        send(ex, 200, sb);
+    }
+
+    private void handleCourses(HttpExchange ex) throws IOException {
+        requireMethod(ex, "POST");
+        Map<String, String> form = readForm(ex);
+        String name = field(form, "name");
+        String code = field(form, "code");
+        String ects = field(form, "ects");
+
+        check(Validator.checkText(name), "name");
+        check(Validator.checkText(code), "code");
+        check(Validator.checkPositiveInt(ects), "ects");
+        Department dept = optionalDepartment(form);
+
+        String conflict = CourseCatalog.conflict(name, code, Validator.parseInt(ects), dept);
+        if (conflict != null) throw new ApiException(409, "DUPLICATE", conflict);
+
+        Course c = Course.of(name, code, Validator.parseInt(ects), dept);
+        if (!registry.addCourse(c)) {
+            throw new ApiException(409, "DUPLICATE", "Course with code '" + code + "' already exists.");
+        }
+        if (journal != null) journal.sync(journal.logCourse(c));
+        AppLogger.log("Course added: " + code + " (HTTP)");
+
+        StringBuilder sb = new StringBuilder("{");
+        json(sb, "name", name).append(',');
+        json(sb, "code", code).append(",\"ects\":").append(c.getEcts()).append('}');
+        send(ex, 201, sb);
+    }
+
+    private void handleGrades(HttpExchange ex) throws IOException {
+        requireMethod(ex, "POST");
+        Map<String, String> form = readForm(ex);
+        String studentId = field(form, "studentId");
+        String courseCode = field(form, "courseCode");
+        String grade = field(form, "grade");
+        check(Validator.checkGrade(grade), "grade");
+
+        Gradebook.Result result = gradebook.submit(studentId, courseCode, LetterGrade.parse(grade));
+        if (result == Gradebook.Result.UNKNOWN_STUDENT) {
+            throw new ApiException(404, "UNKNOWN_STUDENT", "No student with ID " + studentId + ".");
+        }
+        if (result == Gradebook.Result.UNKNOWN_COURSE) {
+            throw new ApiException(404, "UNKNOWN_COURSE", "No course with code '" + courseCode + "'.");
+        }
+
+        StringBuilder sb = new StringBuilder("{");
+        json(sb, "studentId", studentId).append(',');
+        json(sb, "courseCode", courseCode).append(',');
+        json(sb, "grade", LetterGrade.parse(grade).name()).append(",\"gpa\":");
+        FileManager.appendFixed2(sb, gradebook.gpa(registry.findStudent(studentId))).append('}');
+        send(ex, 200, sb);
+    }
+
+    private void handleRanking(HttpExchange ex) throws IOException {
+        requireMethod(ex, "GET");
+        int from = intParam(ex, "from", 1);
+        int limit = intParam(ex, "limit", DEFAULT_RANKING_LIMIT);
+
+        // Read straight from the live ranking index: O(log n + limit), no sorting
+        RankingIndex ranking = registry.getRanking();
+        List<Student> page = ranking.range(from, from + limit - 1);
+
+        StringBuilder sb = new StringBuilder("{\"total\":").append(ranking.size()).append(",\"ranking\":[");
+        for (int i = 0; i < page.size(); i++) {
+            Student s = page.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"rank\":").append(from + i).append(',');
+            json(sb, "studentId", s.getStudentId()).append(',');
+            json(sb, "name", s.getFullName()).append(",\"gpa\":");
+            FileManager.appendFixed2(sb, gradebook.gpa(s)).append('}');
+        }
+        sb.append("]}");
+        send(ex, 200, sb);
+    }
+
+    private void handleStatistics(HttpExchange ex) throws IOException {
+        requireMethod(ex, "GET");
+        GpaStatistics stats = new GpaStatistics();
+        for (Student s : registry.getAllStudents()) {
+            stats.accept(gradebook.gpa(s));
+        }
+
+        StringBuilder sb = new StringBuilder("{\"students\":").append(stats.getCount());
+        FileManager.appendFixed2(sb.append(",\"average\":"), stats.getAverage());
+        FileManager.appendFixed2(sb.append(",\"highest\":"), stats.getMax());
+        FileManager.appendFixed2(sb.append(",\"lowest\":"), stats.getMin());
+        FileManager.appendFixed2(sb.append(",\"median\":"), stats.getMedian());
+        FileManager.appendFixed2(sb.append(",\"q1\":"), stats.getQuantile(0.25));
+        FileManager.appendFixed2(sb.append(",\"q3\":"), stats.getQuantile(0.75));
+        FileManager.appendFixed2(sb.append(",\"p10\":"), stats.getQuantile(0.10));
+        FileManager.appendFixed2(sb.append(",\"p90\":"), stats.getQuantile(0.90));
+        sb.append(",\"histogram\":{\"high\":").append(stats.getCountHigh())
+                .append(",\"good\":").append(stats.getCountGood())
+                .append(",\"mid\":").append(stats.getCountMid())
+                .append(",\"fail\":").append(stats.getCountFail()).append("}}");
+        send(ex, 200, sb);
+    }
+
+    private void handleReports(HttpExchange ex) throws IOException {
+        requireMethod(ex, "POST");
+        List<Student> students = registry.getAllStudents();
+        if (students.isEmpty()) throw new ApiException(404, "NO_DATA", "There is no data to report.");
+
+        // Regenerated often while grading: ReportCache re-renders only the changed students
+        FileManager.streamAndSaveReport(students, 0);
+        if (registry.getDepartments().size() > 1) {
+            FileManager.saveDepartmentReports(registry.getPartitions(), false);
+        }
+
+        StringBuilder sb = new StringBuilder("{\"students\":").append(students.size())
+                .append(",\"cacheHits\":").append(ReportCache.getHits())
+                .append(",\"cacheMisses\":").append(ReportCache.getMisses()).append('}');
+        send(ex, 200, sb);
+    }
+
+    private void handleArchive(HttpExchange ex) throws IOException {
+        requireMethod(ex, "GET");
+        ReportArchive archive = ReportArchive.shared();
+        if (archive == null) throw new ApiException(404, "NO_ARCHIVE", "The report archive is disabled.");
+
+        String tail = pathTail(ex, "/archive");
+        if (tail != null) {
+            check(Validator.checkPositiveInt(tail), "report");
+            int number = Validator.parseInt(tail);
+            if (number > archive.size()) throw new ApiException(404, "UNKNOWN_REPORT", "No report #" + number + ".");
+            ByteBuffer mapped = archive.bytes(archive.entry(number));
+            byte[] text = new byte[mapped.remaining()];
+            mapped.get(text);
+            ex.getResponseHeaders().set("Content-Type", "text/plain; charset=" + FileManager.REPORT_CHARSET.name());
+            ex.sendResponseHeaders(200, text.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(text);
+            }
+            return;
+        }
+
+        List<ReportArchive.Entry> entries = archive.last(intParam(ex, "last", DEFAULT_RANKING_LIMIT));
+        StringBuilder sb = new StringBuilder("{\"total\":").append(archive.size()).append(",\"reports\":[");
+        for (int i = 0; i < entries.size(); i++) {
+            ReportArchive.Entry e = entries.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"number\":").append(e.number).append(',');
+            json(sb, "time", e.getTime().toString()).append(',');
+            json(sb, "kind", e.kind.name()).append(',');
+            json(sb, "department", e.label.isEmpty() ? null : e.label).append(",\"students\":").append(e.students);
+            FileManager.appendFixed2(sb.append(",\"average\":"), e.average);
+            FileManager.appendFixed2(sb.append(",\"highest\":"), e.max);
+            FileManager.appendFixed2(sb.append(",\"lowest\":"), e.min);
+            sb.append(",\"bytes\":").append(e.getLength()).append('}');
+        }
+        sb.append("]}");
+        send(ex, 200, sb);
+    }
+
+    private StringBuilder studentJson(StringBuilder sb, Student s) {
+        sb.append('{');
+        json(sb, "studentId", s.getStudentId()).append(',');
+        json(sb, "firstName", s.getFirstName()).append(',');
+        json(sb, "lastName", s.getLastName()).append(',');
+        json(sb, "birthDate", s.getFormattedBirthDate()).append(',');
+        json(sb, "department", s.getDepartment() == null ? null : s.getDepartment().getWebPage()).append(',');
+        sb.append("\"grades\":").append(gradebook.gradeCount(s))
+                .append(",\"rank\":").append(registry.getRanking().rankOf(s)).append(",\"gpa\":");
+        return FileManager.appendFixed2(sb, gradebook.gpa(s)).append('}');
+    }
+
+    // =============================================================
+    // REQUEST / RESPONSE HELPERS
+    // =============================================================
+
+    // Handler that may throw ApiException (turned into a JSON error response)
+    @FunctionalInterface
+    private interface Endpoint {
+        void handle(HttpExchange ex) throws IOException;
+    }
+
+    /**
+     * Error returned to the client as {"error": code, "message": ...}.
+     */
+    private static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+        final String code;
+
+        ApiException(int status, String code, String message) {
+            super(message);
+            this.status = status;
+            this.code = code;
+        }
+    }
+
+    private static HttpHandler route(Endpoint endpoint) {
+        return ex -> {
+            try {
+                endpoint.handle(ex);
+            } catch (ApiException e) {
+                sendError(ex, e.status, e.code, e.getMessage());
+            } catch (IOException e) {
+                AppLogger.log("HTTP " + ex.getRequestURI() + " failed - " + e.getMessage());
+                sendError(ex, 500, "IO_ERROR", e.getMessage());
+            } catch (RuntimeException e) {
+                AppLogger.log("HTTP " + ex.getRequestURI() + " failed - " + e);
+                sendError(ex, 500, "INTERNAL_ERROR", String.valueOf(e.getMessage()));
+            } finally {
+                ex.close();
+            }
+        };
+    }
+
+    private static void check(Validator.Result result, String field) {
+        if (result != Validator.Result.OK) {
+            throw new ApiException(400, result.name(), field + ": " + result.message().replace(">> ERROR: ", ""));
+        }
+    }
+
+    private static void requireMethod(HttpExchange ex, String method) {
+        if (!ex.getRequestMethod().equals(method)) {
+            throw new ApiException(405, "METHOD_NOT_ALLOWED", "Use " + method + " for " + ex.getRequestURI().getPath());
+        }
+    }
+
+    private Department optionalDepartment(Map<String, String> form) {
+        String webPage = form.get("department");
+        if (webPage == null || webPage.isEmpty()) return null;
+        Department d = registry.findDepartment(webPage);
+        if (d == null) throw new ApiException(404, "UNKNOWN_DEPARTMENT", "No department " + webPage + ".");
+        return d;
+    }
+
+    private static String field(Map<String, String> form, String name) {
+        String value = form.get(name);
+        return value == null ? "" : value.trim();
+    }
+
+    // "/students/123" -> "123"; "/students" -> null
+    private static String pathTail(HttpExchange ex, String context) {
+        String path = ex.getRequestURI().getPath();
+        if (path.length() <= context.length() + 1) return null;
+        return path.substring(context.length() + 1);
+    }
+
+    private static int intParam(HttpExchange ex, String name, int defaultValue) {
+        String value = queryParam(ex, name);
+        if (value == null) return defaultValue;
+        check(Validator.checkPositiveInt(value), name);
+        return Validator.parseInt(value);
+    }
+
+    private static double gpaParam(HttpExchange ex, String name, double defaultValue) {
+        String value = queryParam(ex, name);
+        if (value == null) return defaultValue;
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "NOT_A_NUMBER", name + ": " + value + " is not a number.");
+        }
+    }
+
+    private static LocalDate dateParam(HttpExchange ex, String name) {
+        String value = queryParam(ex, name);
+        if (value == null) return null;
+        check(Validator.checkDate(value), name);
+        return Validator.parseDate(value);
+    }
+
+    private static String queryParam(HttpExchange ex, String name) {
+        URI uri = ex.getRequestURI();
+        return uri.getRawQuery() == null ? null : parseForm(uri.getRawQuery()).get(name);
+    }
+
+    private static Map<String, String> readForm(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY + 1);
+            if (body.length > MAX_BODY) throw new ApiException(413, "TOO_LARGE", "Request body is too large.");
+            return parseForm(new String(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : encoded.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            try {
+                form.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw new ApiException(400, "BAD_ENCODING", "Malformed form field: " + key);
+            }
+        }
+        return form;
+    }
+
+    private static void sendError(HttpExchange ex, int status, String code, String message) {
+        StringBuilder sb = new StringBuilder("{");
+        json(sb, "error", code).append(',');
+        json(sb, "message", message).append('}');
+        try {
+            send(ex, status, sb);
+        } catch (IOException e) {
+            // Client is gone; nothing else to do
+        }
+    }
+
+    private static void send(HttpExchange ex, int status, CharSequence body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Appends "key":"value" (or "key":null) with JSON string escaping
+    private static StringBuilder json(StringBuilder sb, String key, String value) {
+        sb.append('"').append(key).append("\":");
+        if (value == null) return sb.append("null");
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"');
+    }
+}
@@ -0,0 +1,729 @@
+package grading;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * STAGED IMPORT PIPELINE
+ * * Purpose: Multi-core variant of the --import path for large, multi-file loads.
+ * Rows flow through five stages connected by bounded queues, each stage with its
+ * own thread count:
+ *
+ *   read -> split -> parse/validate -> dedupe -> apply
+ *
+ * - read   : one thread per file being read (several files at once), batches of lines
+ * - split  : skips blank/comment lines, splits on commas, checks the field count
+ * - parse  : the Validator rules of BulkImporter (and the console prompts), builds the rows
+ * - dedupe : one thread; puts each file's batches back in line order, rejects IDs and
+ *            codes already registered and routes every row to an applier by student ID
+ *            (course code), so all rows of one student are applied in file order
+ * - apply  : registry inserts, grades, journal
+ *
+ * Back-pressure: a full queue blocks the stage in front of it, and a reader stops once
+ * a fixed window of its file's batches has not reached the dedupe stage yet, so memory
+ * stays bounded however fast files are read.
+ *
+ * Failure: the first exception in any stage (unreadable file, journal write error, a
+ * bug in a stage) interrupts every stage thread and no end markers are passed on after
+ * it, so no stage stays blocked on a queue nobody drains or fills any more. The run
+ * stops and the import fails with that exception (rows already applied stay applied).
+ *
+ * Usage: Main --import-pipeline <file> [<file> ...]
+ * Files are recognized by name (same layouts as BulkImporter): courses*.csv, students*.csv
+ * and grades*.csv. All course files are loaded first, then all student files, then all
+ * grade files; the files of one kind are processed at the same time.
+ *
+ * Within one file the outcome equals a sequential import (the first row of an ID wins,
+ * a later grade for the same course replaces the earlier one). Between files of the
+ * same kind, which duplicate wins depends on timing.
+ *
+ * Rejected rows are written to the error file ("file:line", reason and the original
+ * row, tab-separated). After each kind a per-stage table (rows, busy/blocked time,
+ * throughput per thread, input queue depth) is printed and logged for tuning.
+ *
+ * Configuration (system properties):
+ * - import.readers       : files read at once (default: all of them)
+ * - import.splitters     : split threads (default 1)
+ * - import.parsers       : parse/validate threads (default: available processors)
+ * - import.appliers      : apply threads (default 1)
+ * - import.batchSize     : lines per batch (default 1024)
+ * - import.queueCapacity : batches per queue (default 16)
+ * - import.errorFile     : rejected rows (default import-errors.txt)
+ */
+public class ImportPipeline {
+
+    private static final long SAMPLE_INTERVAL_MS = 5;
+
+    /**
+     * Stage parallelism and queue sizes, read from the system properties.
+     */
+    static final class Settings {
+        int readers = Integer.getInteger("import.readers", 0); // 0 = every file at once
+        int splitters = Integer.getInteger("import.splitters", 1);
+        int parsers = Integer.getInteger("import.parsers", Runtime.getRuntime().availableProcessors());
+        int appliers = Integer.getInteger("import.appliers", 1);
+        int batchSize = Integer.getInteger("import.batchSize", 1024);
+        int queueCapacity = Integer.getInteger("import.queueCapacity", 16);
+        String errorFile = System.getProperty("import.errorFile", Constants.IMPORT_ERROR_FILE_NAME);
+    }
+
+    // Input file kinds, in import order (grades need both of the others)
+    enum Kind {
+        COURSES("courses", 3), STUDENTS("students", 4), GRADES("grades", 3);
+
+        final String prefix;
+        final int fields;
+
+        Kind(String prefix, int fields) {
+            this.prefix = prefix;
+            this.fields = fields;
+        }
+
+        static Kind of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            for (Kind k : values()) {
+                if (name.startsWith(k.prefix)) return k;
+            }
+            return null;
+        }
+    }
+
+    // =============================================================
+    // QUEUE ITEMS
+    // =============================================================
+
+    // Consecutive lines of one file; later stages fill in fields and rows
+    private static final class Batch {
+        static final Batch END = new Batch(-1, -1, 0, new String[0], 0);
+
+        final int file;
+        final int seq;       // position within the file
+        final int firstLine; // line number of lines[0]
+        final String[] lines;
+        final int count;
+        String[][] fields;   // split: null = blank, comment or rejected
+        Object[] rows;       // parse: Student / CourseRow / GradeRow, null = skipped or rejected
+
+        Batch(int file, int seq, int firstLine, String[] lines, int count) {
+            this.file = file;
+            this.seq = seq;
+            this.firstLine = firstLine;
+            this.lines = lines;
+            this.count = count;
+        }
+    }
+
+    // The rows of a batch routed to one applier
+    private static final class Slice {
+        static final Slice END = new Slice(null, new int[0], 0);
+
+        final Batch batch;
+        final int[] rows;
+        final int size;
+
+        Slice(Batch batch, int[] rows, int size) {
+            this.batch = batch;
+            this.rows = rows;
+            this.size = size;
+        }
+    }
+
+    // A validated course row (the Course itself is only created once it is accepted)
+    private static final class CourseRow {
+        final String name;
+        final String code;
+        final int ects;
+
+        CourseRow(String name, String code, int ects) {
+            this.name = name;
+            this.code = code;
+            this.ects = ects;
+        }
+    }
+
+    private static final class GradeRow {
+        final Student student;
+        final Course course;
+        final LetterGrade grade;
+
+        GradeRow(Student student, Course course, LetterGrade grade) {
+            this.student = student;
+            this.course = course;
+            this.grade = grade;
+        }
+    }
+
+    // =============================================================
+    // STAGE STATISTICS
+    // =============================================================
+
+    private static final class Stage {
+        final String name;
+        final int threads;
+        final List<? extends BlockingQueue<?>> inputs; // empty for the read stage
+        final int capacity;
+        final AtomicInteger running;
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong busyNanos = new AtomicLong();
+        final AtomicLong blockedNanos = new AtomicLong(); // waiting for space downstream
+
+        // Written by the sampler thread only (read after it has been joined)
+        long depthSum;
+        int depthMax;
+        int samples;
+
+        Stage(String name, int threads, List<? extends BlockingQueue<?>> inputs, int capacity) {
+            this.name = name;
+            this.threads = threads;
+            this.inputs = inputs;
+            this.capacity = capacity;
+            this.running = new AtomicInteger(threads);
+        }
+
+        void busy(long since, int n) {
+            busyNanos.addAndGet(System.nanoTime() - since);
+            rows.addAndGet(n);
+        }
+
+        void blocked(long since) {
+            blockedNanos.addAndGet(System.nanoTime() - since);
+        }
+
+        void sample() {
+            int depth = 0;
+            for (BlockingQueue<?> q : inputs) depth += q.size();
+            depthSum += depth;
+            depthMax = Math.max(depthMax, depth);
+            samples++;
+        }
+    }
+
+    // =============================================================
+    // ERROR FILE
+    // =============================================================
+
+    // Rejected rows, shared by every stage; the file is only created on the first rejection
+    private static final class ErrorFile implements Closeable {
+        private final Path path;
+        private BufferedWriter out;
+        private long count;
+
+        ErrorFile(Path path) throws IOException {
+            this.path = path;
+            Files.deleteIfExists(path); // no stale rejections from an earlier run
+        }
+
+        synchronized void write(String location, String reason, String row) {
+            count++;
+            try {
+                if (out == null) {
+                    out = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+                    out.write("# file:line\treason\trow");
+                    out.newLine();
+                }
+                out.write(location);
+                out.write('\t');
+                out.write(reason);
+                out.write('\t');
+                out.write(row);
+                out.newLine();
+            } catch (IOException e) {
+                System.err.println(">> Import Error: cannot write " + path + ": " + e.getMessage());
+            }
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (out != null) out.close();
+        }
+    }
+
+    // =============================================================
+    // ENTRY POINTS
+    // =============================================================
+
+    /**
+     * Runs a pipelined import followed by the session report.
+     *
+     * @param registry registry used for duplicate checks and session membership
+     * @param journal  journal for accepted rows (group-committed, synced at the end), or null
+     * @param files    courses*, students* and grades* CSV files, in any order
+     * @return false if a file name is not recognized (nothing imported)
+     * @throws IOException if one of the files cannot be read
+     */
+    public static boolean run(StudentRegistry registry, Journal journal, List<String> files) throws IOException {
+        Settings settings = new Settings();
+        long rejected = load(registry, journal, files, settings);
+        if (rejected < 0) return false;
+
+        System.out.println(">> Import finished. Students: " + registry.studentCount()
+                + " | Courses: " + registry.courseCount()
+                + " | Rejected rows: " + rejected
+                + (rejected > 0 ? " (see " + settings.errorFile + ")" : ""));
+        AppLogger.log("Pipeline import finished: " + registry.studentCount() + " students, "
+                + registry.courseCount() + " courses, " + rejected + " rejected rows");
+
+        // Large cohorts: stream the report and only echo the top rows to the console
+        FileManager.streamAndSaveReport(registry.getSessionStudents(), Constants.IMPORT_CONSOLE_ROWS);
+        return true;
+    }
+
+    /**
+     * Imports the files without the report.
+     *
+     * @return rejected rows, or -1 if a file name is not recognized
+     */
+    static long load(StudentRegistry registry, Journal journal, List<String> files, Settings settings)
+            throws IOException {
+        Map<Kind, List<Path>> byKind = new EnumMap<>(Kind.class);
+        for (String file : files) {
+            Path path = Paths.get(file);
+            Kind kind = Kind.of(path);
+            if (kind == null) {
+                System.out.println(">> ERROR: " + file + " is not a courses*, students* or grades* file.");
+                return -1;
+            }
+            if (!Files.isReadable(path)) throw new NoSuchFileException(file);
+            byKind.computeIfAbsent(kind, k -> new ArrayList<>()).add(path);
+        }
+
+        try (ErrorFile errors = new ErrorFile(Paths.get(settings.errorFile))) {
+            for (Map.Entry<Kind, List<Path>> e : byKind.entrySet()) {
+                new ImportPipeline(registry, journal, settings, errors, e.getKey(), e.getValue()).execute();
+            }
+            if (journal != null) journal.sync();
+            return errors.count();
+        }
+    }
+
+    // =============================================================
+    // ONE PIPELINE RUN (all files of one kind)
+    // =============================================================
+
+    private final StudentRegistry registry;
+    private final Journal journal; // may be null
+    private final ErrorFile errors;
+    private final Kind kind;
+    private final List<Path> files;
+    private final int batchSize;
+
+    private final BlockingQueue<Batch> lines;  // read -> split
+    private final BlockingQueue<Batch> fields; // split -> parse
+    private final BlockingQueue<Batch> parsed; // parse -> dedupe
+    private final List<BlockingQueue<Slice>> accepted = new ArrayList<>(); // dedupe -> apply (one per applier)
+    private final Semaphore[] window; // per file: batches read but not yet taken by dedupe
+
+    private final Stage read;
+    private final Stage split;
+    private final Stage parse;
+    private final Stage dedupe;
+    private final Stage apply;
+
+    private final AtomicInteger nextFile = new AtomicInteger();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final List<Thread> threads = new ArrayList<>(); // complete before the first one starts
+
+    private ImportPipeline(StudentRegistry registry, Journal journal, Settings settings, ErrorFile errors,
+                           Kind kind, List<Path> files) {
+        this.registry = registry;
+        this.journal = journal;
+        this.errors = errors;
+        this.kind = kind;
+        this.files = files;
+        this.batchSize = Math.max(1, settings.batchSize);
+
+        int capacity = Math.max(1, settings.queueCapacity);
+        int readers = settings.readers <= 0 ? files.size() : Math.min(settings.readers, files.size());
+        int splitters = Math.max(1, settings.splitters);
+        int parsers = Math.max(1, settings.parsers);
+        int appliers = Math.max(1, settings.appliers);
+
+        lines = new ArrayBlockingQueue<>(capacity);
+        fields = new ArrayBlockingQueue<>(capacity);
+        parsed = new ArrayBlockingQueue<>(capacity);
+        for (int i = 0; i < appliers; i++) accepted.add(new ArrayBlockingQueue<>(capacity));
+
+        // Enough to fill every queue and worker; bounds the dedupe stage's reorder buffer
+        window = new Semaphore[files.size()];
+        for (int i = 0; i < window.length; i++) window[i] = new Semaphore(3 * capacity + splitters + parsers);
+
+        read = new Stage("read", readers, List.of(), 0);
+        split = new Stage("split", splitters, List.of(lines), capacity);
+        parse = new Stage("parse", parsers, List.of(fields), capacity);
+        dedupe = new Stage("dedupe", 1, List.of(parsed), capacity);
+        apply = new Stage("apply", appliers, accepted, capacity * appliers);
+    }
+
+    // Work of one thread; any exception ends it and fails the import
+    @FunctionalInterface
+    private interface Worker {
+        void run() throws Exception;
+    }
+
+    // What a split/parse thread does to each batch before passing it on
+    @FunctionalInterface
+    private interface BatchStep {
+        void process(Batch b);
+    }
+
+    private void execute() throws IOException {
+        long t0 = System.nanoTime();
+        for (int i = 0; i < read.threads; i++) threads.add(thread(read, i, this::readFiles));
+        for (int i = 0; i < split.threads; i++) threads.add(thread(split, i, () -> step(lines, fields, split, this::split)));
+        for (int i = 0; i < parse.threads; i++) threads.add(thread(parse, i, () -> step(fields, parsed, parse, this::parse)));
+        threads.add(thread(dedupe, 0, this::dedupe));
+        for (int i = 0; i < apply.threads; i++) {
+            BlockingQueue<Slice> in = accepted.get(i);
+            threads.add(thread(apply, i, () -> apply(in)));
+        }
+        for (Thread t : threads) t.start();
+
+        Stage[] stages = {read, split, parse, dedupe, apply};
+        Thread sampler = new Thread(() -> {
+            try {
+                while (true) {
+                    for (Stage s : stages) s.sample();
+                    Thread.sleep(SAMPLE_INTERVAL_MS);
+                }
+            } catch (InterruptedException ignored) {
+                // import finished
+            }
+        }, "import-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        try {
+            for (Thread t : threads) t.join();
+            sampler.interrupt();
+            sampler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Pipeline import interrupted");
+        }
+
+        report(stages, System.nanoTime() - t0);
+        Throwable e = failure.get();
+        if (e instanceof IOException) throw (IOException) e;
+        if (e instanceof Error) throw (Error) e;
+        if (e != null) throw new IOException("Pipeline import failed: " + e, e);
+    }
+
+    private Thread thread(Stage stage, int index, Worker worker) {
+        return new Thread(() -> {
+            try {
+                worker.run();
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }, "import-" + stage.name + "-" + index);
+    }
+
+    // The first failure wins and interrupts every stage thread (blocked ones throw
+    // InterruptedException, busy ones at their next queue operation)
+    private void fail(Throwable e) {
+        if (!failure.compareAndSet(null, e)) return;
+        for (Thread t : threads) t.interrupt();
+    }
+
+    // Passes an end marker on, unless the import failed (nobody may be left to take it)
+    private <T> void end(BlockingQueue<T> queue, T marker) throws InterruptedException {
+        if (failure.get() == null) queue.put(marker);
+    }
+
+    // --- Stage: Read ---
+
+    private void readFiles() throws InterruptedException {
+        try {
+            for (int f; failure.get() == null && (f = nextFile.getAndIncrement()) < files.size(); ) {
+                readFile(f);
+            }
+        } finally {
+            if (read.running.decrementAndGet() == 0) end(lines, Batch.END);
+        }
+    }
+
+    private void readFile(int f) throws InterruptedException {
+        try (BufferedReader reader = Files.newBufferedReader(files.get(f), StandardCharsets.UTF_8)) {
+            int seq = 0;
+            int lineNo = 0;
+            int n = 0;
+            String[] chunk = new String[batchSize];
+            long t0 = System.nanoTime();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                chunk[n++] = line;
+                lineNo++;
+                if (n == batchSize) {
+                    read.busy(t0, n);
+                    emit(new Batch(f, seq++, lineNo - n + 1, chunk, n));
+                    chunk = new String[batchSize];
+                    n = 0;
+                    t0 = System.nanoTime();
+                }
+            }
+            read.busy(t0, n);
+            if (n > 0) emit(new Batch(f, seq, lineNo - n + 1, chunk, n));
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void emit(Batch b) throws InterruptedException {
+        long t0 = System.nanoTime();
+        window[b.file].acquire();
+        lines.put(b);
+        read.blocked(t0);
+    }
+
+    // --- Stages: Split and Parse (any number of threads, batches in any order) ---
+
+    private void step(BlockingQueue<Batch> in, BlockingQueue<Batch> out, Stage stage, BatchStep work)
+            throws InterruptedException {
+        try {
+            while (true) {
+                Batch b = in.take();
+                if (b == Batch.END) {
+                    in.put(Batch.END); // for the other threads of this stage
+                    return;
+                }
+                long t0 = System.nanoTime();
+                work.process(b);
+                stage.busy(t0, b.count);
+
+                t0 = System.nanoTime();
+                out.put(b);
+                stage.blocked(t0);
+            }
+        } finally {
+            if (stage.running.decrementAndGet() == 0) end(out, Batch.END);
+        }
+    }
+
+    private void split(Batch b) {
+        b.fields = new String[b.count][];
+        for (int i = 0; i < b.count; i++) {
+            String[] f = BulkImporter.split(b.lines[i], kind.fields);
+            if (f == null) continue;
+            if (f.length != kind.fields) { reject(b, i, "expected " + kind.fields + " fields"); continue; }
+            b.fields[i] = f;
+        }
+    }
+
+    private void parse(Batch b) {
+        b.rows = new Object[b.count];
+        for (int i = 0; i < b.count; i++) {
+            String[] f = b.fields[i];
+            if (f == null) continue;
+            try {
+                switch (kind) {
+                    case STUDENTS: b.rows[i] = parseStudent(b, i, f); break;
+                    case COURSES: b.rows[i] = parseCourse(b, i, f); break;
+                    default: b.rows[i] = parseGrade(b, i, f); break;
+                }
+            } catch (RuntimeException e) {
+                reject(b, i, "unreadable row (" + e + ")");
+            }
+        }
+        b.fields = null;
+    }
+
+    private Student parseStudent(Batch b, int i, String[] f) {
+        if (Validator.checkName(f[0]) != Validator.Result.OK
+                || Validator.checkName(f[1]) != Validator.Result.OK) {
+            reject(b, i, "invalid name"); return null;
+        }
+        if (Validator.checkText(f[2]) != Validator.Result.OK) { reject(b, i, "invalid student ID"); return null; }
+
+        LocalDate bDate = Validator.parseDate(f[3]);
+        Validator.Result dateCheck = Validator.checkPastDate(bDate);
+        if (dateCheck == Validator.Result.INVALID_DATE) { reject(b, i, "invalid date format"); return null; }
+        if (dateCheck == Validator.Result.FUTURE_DATE) { reject(b, i, "birth date in the future"); return null; }
+
+        return new Student(f[0], f[1], f[2], bDate, null);
+    }
+
+    private CourseRow parseCourse(Batch b, int i, String[] f) {
+        if (Validator.checkText(f[0]) != Validator.Result.OK
+                || Validator.checkText(f[1]) != Validator.Result.OK) {
+            reject(b, i, "invalid course name or code"); return null;
+        }
+        int ects = Validator.parseInt(f[2]);
+        if (ects == Validator.NOT_A_NUMBER) { reject(b, i, "ECTS is not numeric"); return null; }
+        if (ects <= 0) { reject(b, i, "ECTS must be greater than 0"); return null; }
+
+        return new CourseRow(f[0], f[1], ects);
+    }
+
+    private GradeRow parseGrade(Batch b, int i, String[] f) {
+        // Every student and course file has been applied before the grades start
+        Student s = registry.findStudent(f[0]);
+        if (s == null) { reject(b, i, "unknown student ID " + f[0]); return null; }
+
+        Course c = registry.findCourse(f[1]);
+        if (c == null) { reject(b, i, "unknown course code " + f[1]); return null; }
+
+        LetterGrade grade = LetterGrade.parse(f[2]);
+        if (grade == null) { reject(b, i, "invalid grade code " + f[2]); return null; }
+
+        return new GradeRow(s, c, grade);
+    }
+
+    // --- Stage: Dedupe (single thread, file order restored) ---
+
+    private void dedupe() throws InterruptedException {
+        List<Map<Integer, Batch>> waiting = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) waiting.add(new HashMap<>());
+        int[] next = new int[files.size()];
+        try {
+            while (true) {
+                Batch b = parsed.take();
+                if (b == Batch.END) return;
+
+                int file = b.file;
+                Map<Integer, Batch> pending = waiting.get(file);
+                pending.put(b.seq, b);
+                while ((b = pending.remove(next[file])) != null) {
+                    next[file]++;
+                    window[file].release();
+
+                    long t0 = System.nanoTime();
+                    Slice[] slices = route(b);
+                    dedupe.busy(t0, b.count);
+
+                    t0 = System.nanoTime();
+                    for (int k = 0; k < slices.length; k++) {
+                        if (slices[k] != null) accepted.get(k).put(slices[k]);
+                    }
+                    dedupe.blocked(t0);
+                }
+            }
+        } finally {
+            for (BlockingQueue<Slice> q : accepted) end(q, Slice.END);
+        }
+    }
+
+    // Rejects rows whose ID/code is already registered, groups the rest by applier
+    private Slice[] route(Batch b) {
+        int appliers = accepted.size();
+        int[][] picked = new int[appliers][];
+        int[] sizes = new int[appliers];
+        for (int i = 0; i < b.count; i++) {
+            Object row = b.rows[i];
+            if (row == null) continue;
+
+            String key;
+            if (row instanceof Student) {
+                key = ((Student) row).getStudentId();
+                if (registry.containsStudent(key)) { reject(b, i, "duplicate student ID " + key); continue; }
+            } else if (row instanceof CourseRow) {
+                key = CourseCatalog.normalize(((CourseRow) row).code);
+                if (registry.containsCourse(key)) {
+                    reject(b, i, "duplicate course code " + ((CourseRow) row).code); continue;
+                }
+            } else {
+                key = ((GradeRow) row).student.getStudentId();
+            }
+
+            // Same key, same applier: duplicates still in flight meet there in file order
+            int k = appliers == 1 ? 0 : (key.hashCode() & 0x7fffffff) % appliers;
+            if (picked[k] == null) picked[k] = new int[b.count];
+            picked[k][sizes[k]++] = i;
+        }
+
+        Slice[] slices = new Slice[appliers];
+        for (int k = 0; k < appliers; k++) {
+            if (sizes[k] > 0) slices[k] = new Slice(b, picked[k], sizes[k]);
+        }
+        return slices;
+    }
+
+    // --- Stage: Apply ---
+
+    private void apply(BlockingQueue<Slice> in) throws InterruptedException, IOException {
+        while (true) {
+            Slice s = in.take();
+            if (s == Slice.END) return;
+
+            long t0 = System.nanoTime();
+            for (int j = 0; j < s.size; j++) {
+                int i = s.rows[j];
+                Object row = s.batch.rows[i];
+                if (row instanceof Student) {
+                    Student st = (Student) row;
+                    if (!registry.addStudent(st)) { reject(s.batch, i, "duplicate student ID " + st.getStudentId()); continue; }
+                    if (journal != null) journal.logStudent(st);
+                } else if (row instanceof CourseRow) {
+                    CourseRow cr = (CourseRow) row;
+                    String conflict = CourseCatalog.conflict(cr.name, cr.code, cr.ects, null);
+                    if (conflict != null) { reject(s.batch, i, conflict); continue; }
+                    Course c = Course.of(cr.name, cr.code, cr.ects, null);
+                    if (!registry.addCourse(c)) { reject(s.batch, i, "duplicate course code " + cr.code); continue; }
+                    if (journal != null) journal.logCourse(c);
+                } else {
+                    GradeRow g = (GradeRow) row;
+                    g.student.addGrade(g.course, g.grade);
+                    if (journal != null) journal.logGrade(g.student, g.course, g.grade);
+                }
+                applied.incrementAndGet();
+            }
+            apply.busy(t0, s.size);
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private void reject(Batch b, int i, String reason) {
+        errors.write(files.get(b.file) + ":" + (b.firstLine + i), reason, b.lines[i]);
+    }
+
+    // Per-stage table: where the time went and which queues filled up
+    private void report(Stage[] stages, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long total = read.rows.get();
+        String header = String.format(Locale.US, ">> Pipeline %s: %d file(s), %,d lines, %,d applied in %.2f s (%,.0f lines/s)",
+                kind.prefix, files.size(), total, applied.get(), seconds, total / Math.max(seconds, 1e-9));
+        System.out.println(header);
+        AppLogger.log(header.substring(3));
+        System.out.println(String.format(Locale.US, "   %-7s %7s %12s %7s %9s %15s %18s",
+                "stage", "threads", "rows in", "busy %", "blocked %", "rows/s/thread", "queue avg/max/cap"));
+
+        for (Stage s : stages) {
+            double threadNanos = (double) elapsedNanos * s.threads;
+            double busy = s.busyNanos.get() / threadNanos * 100;
+            double blocked = s.blockedNanos.get() / threadNanos * 100;
+            double rate = s.rows.get() / Math.max(s.busyNanos.get() / 1e9, 1e-9);
+            String queue = s.inputs.isEmpty() ? "-" : String.format(Locale.US, "%.1f/%d/%d",
+                    s.samples == 0 ? 0.0 : (double) s.depthSum / s.samples, s.depthMax, s.capacity);
+            String row = String.format(Locale.US, "%-7s %7d %,12d %6.1f%% %8.1f%% %,15.0f %18s",
+                    s.name, s.threads, s.rows.get(), busy, blocked, rate, queue);
+            System.out.println("   " + row);
+            AppLogger.log("Pipeline " + kind.prefix + " stage " + row.trim().replaceAll("\\s+", " "));
+        }
+    }
+}
@@ -1,6 +1,7 @@
+package grading;
+
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.Scanner;
 
 /**
@@ -49,11 +50,11 @@ public class InputHelper {
             System.out.print(prompt + " ");
             String input = scanner.nextLine().trim();
             checkCommand(input);
-            // Regex: Letters, spaces, dots, hyphens allowed. No numbers.
-            if (input.matches("[a-zA-ZğüşıöçĞÜŞİÖÇ ]+")) {
+            Validator.Result result = Validator.checkName(input);
+            if (result == Validator.Result.OK) {
                 return input;
             }
-            System.out.println(Constants.ERR_INVALID_NAME);
+            System.out.println(result.message());
         }
     }
 
@@ -64,25 +65,15 @@ public class InputHelper {
             String input = scanner.nextLine().trim();
             checkCommand(input);
 
-            try {
-                int val = Integer.parseInt(input);
-                if (val <= 0) { System.out.println(Constants.ERR_NEGATIVE); continue; }
-                return val;
-            } catch (NumberFormatException e) {
-                System.out.println(Constants.ERR_INVALID_NUMBER);
-            }
+            int val = Validator.parseInt(input);
+            if (val == Validator.NOT_A_NUMBER) { System.out.println(Constants.ERR_INVALID_NUMBER); continue; }
+            if (val <= 0) { System.out.println(Constants.ERR_NEGATIVE); continue; }
+            return val;
         }
     }
 
 
     public static LocalDate getDate(String prompt) {
-        // Çoklu format desteği için dizimiz (İstersen sadece DATE_FMT de kullanabilirsin)
-        DateTimeFormatter[] formatters = {
-                DateTimeFormatter.ofPattern("dd.MM.yyyy"),
-                DateTimeFormatter.ofPattern("dd/MM/yyyy"),
-                DateTimeFormatter.ofPattern("dd-MM-yyyy")
-        };
-
         while (true) {
             System.out.print(prompt + " ");
 
@@ -96,37 +87,12 @@ public class InputHelper {
                 continue;
             }
 
-            try {
-                LocalDate date = null;
-
-
-                for (DateTimeFormatter fmt : formatters) {
-                    try {
-
-                        date = LocalDate.parse(input, fmt);
-                        break;
-                    } catch (DateTimeParseException ignored) {
-
-                    }
-                }
-
-
-                if (date == null) {
-                    throw new DateTimeParseException("Invalid format", input, 0);
-                }
-
-
-                if (date.isAfter(LocalDate.now())) {
-                    System.out.println(Constants.ERR_FUTURE_DATE);
-                    continue;
-                }
-
+            LocalDate date = Validator.parseDate(input);
+            Validator.Result result = Validator.checkPastDate(date);
+            if (result == Validator.Result.OK) {
                 return date;
-
-            } catch (DateTimeParseException e) {
-                // 4. Senin istediğin hata mesajı burada basılıyor
-                System.out.println(Constants.ERR_DATE_FMT);
             }
+            System.out.println(result.message());
         }
     }
 
@@ -136,18 +102,11 @@ public class InputHelper {
             String input = scanner.nextLine().trim();
             checkCommand(input);
 
-            if (input.isEmpty()) {
-                System.out.println(Constants.ERR_EMPTY);
-                continue;
-            }
-
-
-            if (input.matches("[a-zA-Z0-9ğüşıöçĞÜŞİÖÇ ]+")) {
+            Validator.Result result = Validator.checkText(input);
+            if (result == Validator.Result.OK) {
                 return input;
             }
-
-            System.out.println(">> ERROR: Invalid character! (You cannot use +, -, *, ? etc.).");
-            System.out.println(">> Please use only letters, numbers, and spaces.");
+            System.out.println(result.message());
         }
     }
     /**
@@ -160,26 +119,11 @@ public class InputHelper {
             String input = scanner.nextLine().trim();
             checkCommand(input);
 
-            if (input.isEmpty()) {
-                System.out.println(Constants.ERR_EMPTY);
-                continue;
-            }
-
-            // Regex Explanation:
-            // ^(https?://)? -> Optionally starts with http:// or https://
-            // (www\.)? -> Optionally starts with www.
-            // [\w-]+ -> Domain name containing letters, numbers, or hyphens (-)
-            // \.[a-z]{2,} -> Dot and at least 2-letter extension (.com, .edu, etc.)
-            // (\.[a-z]{2,})? -> Optional second extension (.tr, etc.)
-            // Example valid entries: duzce.edu.tr, www.google.com, http://site.net
-            String urlRegex = "^(https?://)?(www\\.)?[\\w-]+\\.[a-z]{2,}(\\.[a-z]{2,})?$";
-
-            if (input.matches(urlRegex)) {
+            Validator.Result result = Validator.checkWebPage(input);
+            if (result == Validator.Result.OK) {
                 return input;
             }
-
-            System.out.println(">> ERROR: Invalid web address format!");
-            System.out.println(">> Please enter the address in the format 'www.duzce.edu.tr' or 'site.com'.");
+            System.out.println(result.message());
         }
     }
     /**
@@ -191,19 +135,11 @@ public class InputHelper {
             System.out.print(">> Grade (AA, BA...): ");
             String input = scanner.nextLine().trim(); // toUpperCase'i sonra yapıyoruz
             checkCommand(input);
-            switch (input.toUpperCase()) {
-                case "AA": return 4.00;
-                case "BA": return 3.50;
-                case "BB": return 3.25;
-                case "CB": return 3.00;
-                case "CC": return 2.50;
-                case "DC": return 2.25;
-                case "DD": return 2.00;
-                case "FD": return 1.50;
-                case "FF": return 0.00;
-                default:
-                    System.out.println(">> ERROR: Invalid grade code. Please use the table (AA-FF).");
+            double grade = Validator.gradePoints(input);
+            if (grade >= 0) {
+                return grade;
             }
+            System.out.println(Constants.ERR_INVALID_GRADE);
         }
     }
 
@@ -0,0 +1,507 @@
+package grading;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * PERSISTENCE (Write-Ahead Journal)
+ * * Purpose: Append-only binary log of every confirmed mutation (department set,
+ * student added, course added, grade recorded) so nothing is lost if the JVM dies
+ * before the end-of-session snapshot is written.
+ *
+ * Group commit: records are encoded into an in-memory buffer and a single flusher
+ * thread writes and fsyncs them in batches. Callers that need durability wait with
+ * {@link #sync(long)}; everyone waiting during one fsync is covered by the next one,
+ * so high ingest rates never pay one fsync per record.
+ *
+ * Record layout: int length | byte type | payload | int crc32(type + payload)
+ * Student and course payloads end with the department web page ("" = none);
+ * records written before departments were partitioned simply lack it.
+ * Replay is idempotent (duplicates are ignored, grades are overwrites), and a torn
+ * or corrupt tail is cut off at the last valid record.
+ *
+ * Locking: one ReentrantLock with two conditions (work for the flusher, batch
+ * written for sync() and checkpoint()), not synchronized/wait, so a virtual thread
+ * waiting for its group commit unmounts instead of pinning its carrier.
+ */
+public class Journal implements Closeable {
+
+    // Record types
+    private static final byte TYPE_DEPARTMENT = 1;
+    private static final byte TYPE_STUDENT = 2;
+    private static final byte TYPE_COURSE = 3;
+    private static final byte TYPE_GRADE = 4;
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final int MAX_RECORD = 1 << 20;
+
+    // Group-commit policy: flush when this much is pending, or after the interval
+    private static final int FLUSH_THRESHOLD = 256 * 1024;
+    private static final long GROUP_COMMIT_MS = Long.getLong("journal.groupCommitMs", 5L);
+
+    private final FileChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition(); // flusher: records pending, a waiter or close
+    private final Condition batchWritten = lock.newCondition();  // sync()/checkpoint(): durableSeq or flushing changed
+    private final Thread flusher;
+
+    // --- guarded by 'lock' ---
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer spare = ByteBuffer.allocate(64 * 1024);
+    private long appendedSeq = 0;
+    private long durableSeq = 0;
+    private int waiters = 0;
+    private boolean flushing = false; // a swapped-out batch is being written
+    private boolean closed = false;
+    private IOException failure;
+
+    private final CRC32 crc = new CRC32(); // guarded by 'lock'
+
+    /**
+     * Opens (or creates) a journal for appending.
+     *
+     * @param file journal file
+     * @throws IOException if the file cannot be opened
+     */
+    public Journal(Path file) throws IOException {
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.flusher = new Thread(this::runFlusher, "journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * @return the default journal location (Constants.JOURNAL_FILE_NAME)
+     */
+    public static Path defaultFile() {
+        return Paths.get(Constants.JOURNAL_FILE_NAME);
+    }
+
+    // =============================================================
+    // APPEND (returns a sequence number to pass to sync())
+    // =============================================================
+
+    public long logDepartment(Department d) throws IOException {
+        lock.lock();
+        try {
+            int start = begin(TYPE_DEPARTMENT);
+            putString(d.getName());
+            putString(d.getWebPage());
+            putDate(d.getEstablishmentDate());
+            return end(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long logStudent(Student s) throws IOException {
+        lock.lock();
+        try {
+            int start = begin(TYPE_STUDENT);
+            putString(s.getFirstName());
+            putString(s.getLastName());
+            putString(s.getStudentId());
+            putDate(s.getBirthDate());
+            putDepartment(s.getDepartment());
+            return end(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long logCourse(Course c) throws IOException {
+        lock.lock();
+        try {
+            int start = begin(TYPE_COURSE);
+            putString(c.getName());
+            putString(c.getCode());
+            ensure(4);
+            pending.putInt(c.getEcts());
+            putDepartment(c.getDepartment());
+            return end(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long logGrade(Student s, Course c, LetterGrade grade) throws IOException {
+        lock.lock();
+        try {
+            int start = begin(TYPE_GRADE);
+            putString(s.getStudentId());
+            putString(c.getCode());
+            ensure(1);
+            pending.put(grade.code());
+            return end(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the record with the given sequence number is on disk.
+     *
+     * @param seq value returned by one of the log methods
+     * @throws IOException if the journal could not be written
+     */
+    public void sync(long seq) throws IOException {
+        lock.lock();
+        try {
+            waiters++;
+            try {
+                workAvailable.signal(); // wake the flusher: someone is waiting
+                while (durableSeq < seq && failure == null) {
+                    batchWritten.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for journal sync", e);
+            } finally {
+                waiters--;
+            }
+            if (failure != null && durableSeq < seq) throw failure;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until everything appended so far is on disk.
+     *
+     * @throws IOException if the journal could not be written
+     */
+    public void sync() throws IOException {
+        long seq;
+        lock.lock();
+        try {
+            seq = appendedSeq;
+        } finally {
+            lock.unlock();
+        }
+        sync(seq);
+    }
+
+    /**
+     * Checkpoint/compaction: writes a snapshot of the registry and then truncates
+     * the journal, since its contents are now captured in the snapshot.
+     * Appends are blocked while the checkpoint runs, and an in-flight batch is
+     * allowed to finish first so no older record can land after the truncation.
+     *
+     * @param registry current in-memory state
+     * @param snapshot snapshot file
+     * @throws IOException if the snapshot or the truncation fails
+     */
+    public void checkpoint(StudentRegistry registry, Path snapshot) throws IOException {
+        lock.lock();
+        try {
+            try {
+                while (flushing) {
+                    batchWritten.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for journal flush", e);
+            }
+            checkFailure();
+
+            pending.flip();
+            writeFully(pending);
+            pending.clear();
+            channel.force(false);
+
+            SnapshotStore.save(registry, snapshot);
+
+            channel.truncate(0);
+            channel.force(true);
+
+            durableSeq = appendedSeq;
+            batchWritten.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes pending records and stops the flusher thread.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        lock.lock();
+        try {
+            if (failure != null) throw failure;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- Record Encoding (caller holds 'lock') ---
+
+    private int begin(byte type) throws IOException {
+        checkFailure();
+        if (closed) throw new IOException("Journal is closed");
+        ensure(5);
+        int start = pending.position();
+        pending.putInt(0); // length, patched in end()
+        pending.put(type);
+        return start;
+    }
+
+    // A record replay would reject (and truncate the journal at) is dropped here instead
+    private long end(int start) throws IOException {
+        int length = pending.position() - start - 4; // type + payload
+        if (length > MAX_RECORD) {
+            pending.position(start);
+            throw new IOException("Journal record of " + length + " bytes exceeds the limit of " + MAX_RECORD + " bytes");
+        }
+
+        crc.reset();
+        crc.update(pending.array(), start + 4, length);
+        ensure(4);
+        pending.putInt((int) crc.getValue());
+        pending.putInt(start, length);
+
+        appendedSeq++;
+        if (start == 0 || pending.position() >= FLUSH_THRESHOLD) {
+            workAvailable.signal(); // first record of a batch, or batch is full
+        }
+        return appendedSeq;
+    }
+
+    private void putString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        ensure(4 + bytes.length);
+        pending.putInt(bytes.length);
+        pending.put(bytes);
+    }
+
+    private void putDate(LocalDate date) {
+        ensure(8);
+        pending.putLong(date == null ? NO_DATE : date.toEpochDay());
+    }
+
+    private void putDepartment(Department d) {
+        putString(d == null ? "" : d.getWebPage());
+    }
+
+    private void ensure(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending.flip();
+            bigger.put(pending);
+            pending = bigger;
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) throw failure;
+    }
+
+    // --- Flusher Thread ---
+
+    private void runFlusher() {
+        while (true) {
+            ByteBuffer batch;
+            long batchSeq;
+            lock.lock();
+            try {
+                try {
+                    while (!closed && pending.position() == 0) {
+                        workAvailable.await();
+                    }
+                    // Nobody is waiting: give more records a chance to join this batch
+                    if (!closed && waiters == 0 && pending.position() < FLUSH_THRESHOLD) {
+                        workAvailable.await(GROUP_COMMIT_MS, TimeUnit.MILLISECONDS);
+                    }
+                } catch (InterruptedException e) {
+                    closed = true;
+                }
+                if (pending.position() == 0) {
+                    if (closed) return;
+                    continue;
+                }
+                batch = pending;
+                batchSeq = appendedSeq;
+                pending = spare;
+                spare = null;
+                flushing = true;
+            } finally {
+                lock.unlock();
+            }
+
+            // Write + fsync outside the lock so appends can continue meanwhile
+            IOException error = null;
+            try {
+                batch.flip();
+                writeFully(batch);
+                channel.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+
+            lock.lock();
+            try {
+                batch.clear();
+                spare = batch;
+                flushing = false;
+                if (error != null) {
+                    failure = error;
+                    System.err.println(">> Journal Error: " + error.getMessage());
+                } else if (batchSeq > durableSeq) {
+                    durableSeq = batchSeq;
+                }
+                batchWritten.signalAll();
+                if (error != null) return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    // =============================================================
+    // REPLAY
+    // =============================================================
+
+    /**
+     * Re-applies every valid journal record to the registry (after the snapshot was loaded).
+     * Students from the journal count as existing, not as this session's students.
+     * A torn or corrupt tail is truncated so new records follow the last valid one.
+     *
+     * @param file     journal file
+     * @param registry target registry
+     * @return number of records read
+     * @throws IOException if the file cannot be read
+     */
+    public static int replay(Path file, StudentRegistry registry) throws IOException {
+        if (!Files.exists(file)) return 0;
+
+        int records = 0;
+        long validEnd = 0;
+        long size = Files.size(file);
+        CRC32 crc = new CRC32();
+        byte[] scratch = new byte[256];
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            while (true) {
+                int length = in.readInt();
+                if (length < 1 || length > MAX_RECORD || validEnd + 8 + length > size) break;
+
+                if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+                in.readFully(scratch, 0, length);
+                crc.reset();
+                crc.update(scratch, 0, length);
+                if ((int) crc.getValue() != in.readInt()) break;
+
+                try {
+                    apply(ByteBuffer.wrap(scratch, 0, length), registry);
+                } catch (RuntimeException e) {
+                    // Structurally valid but unusable record (e.g. bad ECTS): skip it
+                    AppLogger.log("Journal: skipped record at offset " + validEnd + " - " + e.getMessage());
+                }
+                records++;
+                validEnd += 8 + length;
+            }
+        } catch (EOFException e) {
+            // Torn tail: handled below
+        }
+
+        if (validEnd < size) {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ch.truncate(validEnd);
+                ch.force(true);
+            }
+            AppLogger.log("Journal: truncated " + (size - validEnd) + " byte(s) of torn/corrupt tail.");
+        }
+        return records;
+    }
+
+    private static void apply(ByteBuffer rec, StudentRegistry registry) {
+        byte type = rec.get();
+        switch (type) {
+            case TYPE_DEPARTMENT:
+                registry.addDepartment(new Department(getString(rec), getString(rec), getDate(rec)));
+                break;
+            case TYPE_STUDENT: {
+                String first = getString(rec);
+                String last = getString(rec);
+                String id = getString(rec);
+                LocalDate birth = getDate(rec);
+                registry.addExistingStudent(new Student(first, last, id, birth, getDepartment(rec, registry)));
+                break;
+            }
+            case TYPE_COURSE: {
+                String name = getString(rec);
+                String code = getString(rec);
+                int ects = rec.getInt();
+                registry.addCourse(Course.of(name, code, ects, getDepartment(rec, registry)));
+                break;
+            }
+            case TYPE_GRADE: {
+                Student s = registry.findStudent(getString(rec));
+                Course c = registry.findCourse(getString(rec));
+                byte code = rec.get();
+                if (s != null && c != null) {
+                    s.addGrade(c, LetterGrade.fromCode(code));
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("unknown record type " + type);
+        }
+    }
+
+    private static String getString(ByteBuffer rec) {
+        int len = rec.getInt();
+        String s = new String(rec.array(), rec.arrayOffset() + rec.position(), len, StandardCharsets.UTF_8);
+        rec.position(rec.position() + len);
+        return s;
+    }
+
+    // Department web page at the end of the record (absent in older records)
+    private static Department getDepartment(ByteBuffer rec, StudentRegistry registry) {
+        if (!rec.hasRemaining()) return null;
+        String webPage = getString(rec);
+        return webPage.isEmpty() ? null : registry.findDepartment(webPage);
+    }
+
+    private static LocalDate getDate(ByteBuffer rec) {
+        long day = rec.getLong();
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+}
@@ -0,0 +1,191 @@
+package grading;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LATENCY HISTOGRAM
+ * * Purpose: Records operation times in fixed log-linear buckets so percentiles
+ * (p50/p99/p999) can be read at any time without storing samples.
+ * Buckets are exact below 16 ns, then 8 per power of two (at most 12.5% error),
+ * covering every positive long in 488 counters.
+ *
+ * Usage:
+ *   long t = Metrics.REPORT_SORT.start();   // 0 when metrics are disabled
+ *   ... work ...
+ *   Metrics.REPORT_SORT.record(t);          // no-op for 0
+ *
+ * Very cheap operations (e.g. a GPA read) can be sampled: only 1 in N calls
+ * is timed, so the clock reads do not dominate what is being measured.
+ */
+public class LatencyHistogram implements LatencyHistogramMBean {
+
+    private static final int LINEAR = 16;
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = LINEAR + (63 - 4) * SUB_BUCKETS;
+
+    private final String name;
+    private final int sampleMask; // 0 = time every call
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Point-in-time view of a histogram (nanoseconds).
+     */
+    public static final class Snapshot {
+        public final long count;
+        public final double mean;
+        public final long p50;
+        public final long p99;
+        public final long p999;
+        public final long max;
+
+        Snapshot(long count, double mean, long p50, long p99, long p999, long max) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+    }
+
+    /**
+     * @param name       metric name
+     * @param sampleRate time 1 in sampleRate calls (rounded up to a power of two; 1 = all)
+     */
+    LatencyHistogram(String name, int sampleRate) {
+        this.name = name;
+        this.sampleMask = sampleRate <= 1 ? 0 : (Integer.highestOneBit(sampleRate - 1) << 1) - 1;
+    }
+
+    // =============================================================
+    // RECORDING
+    // =============================================================
+
+    /**
+     * @return a start timestamp, or 0 when metrics are disabled (or this call is not sampled)
+     */
+    public long start() {
+        if (!Metrics.ENABLED) return 0L;
+        if (sampleMask != 0 && (ThreadLocalRandom.current().nextInt() & sampleMask) != 0) return 0L;
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the time since {@link #start()} (no-op if start returned 0).
+     */
+    public void record(long start) {
+        if (start != 0L) recordNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * Records a measured duration.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        if (!Metrics.ENABLED) return;
+        if (nanos < 0) nanos = 0;
+        buckets.incrementAndGet(bucketOf(nanos));
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    // =============================================================
+    // READING
+    // =============================================================
+
+    /**
+     * @return count, mean and percentiles from one consistent pass over the buckets
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        long max = maxNanos.get();
+        double mean = count == 0 ? 0.0 : (double) totalNanos.sum() / count;
+        return new Snapshot(count, mean,
+                percentile(counts, count, 0.50, max),
+                percentile(counts, count, 0.99, max),
+                percentile(counts, count, 0.999, max),
+                max);
+    }
+
+    public String getName() { return name; }
+
+    @Override
+    public long getCount() {
+        return snapshot().count;
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return snapshot().mean / 1000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return snapshot().p50 / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return snapshot().p99 / 1000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return snapshot().p999 / 1000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return maxNanos.get() / 1000.0;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    // --- Helper Methods ---
+
+    private static int bucketOf(long nanos) {
+        if (nanos < LINEAR) return (int) nanos;
+        int exp = 63 - Long.numberOfLeadingZeros(nanos); // >= 4
+        int sub = (int) (nanos >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exp - 4) * SUB_BUCKETS + sub;
+    }
+
+    // Largest value that falls into the bucket
+    private static long upperBound(int bucket) {
+        if (bucket < LINEAR) return bucket;
+        int exp = (bucket - LINEAR) / SUB_BUCKETS + 4;
+        int sub = (bucket - LINEAR) % SUB_BUCKETS;
+        long width = 1L << (exp - SUB_BITS);
+        return (SUB_BUCKETS + sub) * width + width - 1;
+    }
+
+    private static long percentile(long[] counts, long count, double q, long max) {
+        if (count == 0) return 0;
+        long rank = (long) Math.ceil(q * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,21 @@
+package grading;
+
+/**
+ * JMX view of a {@link LatencyHistogram} (all times in microseconds).
+ */
+public interface LatencyHistogramMBean {
+
+    long getCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
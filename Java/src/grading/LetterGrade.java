@@ -0,0 +1,92 @@
+package grading;
+
+/**
+ * LETTER GRADE SCALE
+ * * Purpose: The AA..FF grading table. The ordinal doubles as the one-byte
+ * grade code stored in each Student's transcript.
+ */
+public enum LetterGrade {
+    AA(4.00),
+    BA(3.50),
+    BB(3.25),
+    CB(3.00),
+    CC(2.50),
+    DC(2.25),
+    DD(2.00),
+    FD(1.50),
+    FF(0.00);
+
+    // Cached copy of values() (values() clones the array on every call)
+    private static final LetterGrade[] BY_CODE = values();
+
+    // Two-letter lookup table: index = (first - 'A') * 26 + (second - 'A')
+    private static final LetterGrade[] BY_LETTERS = new LetterGrade[26 * 26];
+
+    static {
+        for (LetterGrade g : BY_CODE) {
+            BY_LETTERS[letterIndex(g.name().charAt(0), g.name().charAt(1))] = g;
+        }
+    }
+
+    private final double points;
+
+    LetterGrade(double points) {
+        this.points = points;
+    }
+
+    /**
+     * @return grade points (0.00 - 4.00)
+     */
+    public double getPoints() { return points; }
+
+    /**
+     * @return one-byte code used for compact storage
+     */
+    public byte code() { return (byte) ordinal(); }
+
+    /**
+     * @param code a value returned by {@link #code()}
+     * @return the matching grade
+     */
+    public static LetterGrade fromCode(byte code) {
+        return BY_CODE[code];
+    }
+
+    /**
+     * Finds the letter grade worth exactly the given points.
+     *
+     * @param points grade points (e.g. 3.25)
+     * @return the matching grade, or null if the value is not on the scale
+     */
+    public static LetterGrade fromPoints(double points) {
+        for (LetterGrade g : BY_CODE) {
+            if (g.points == points) return g;
+        }
+        return null;
+    }
+
+    /**
+     * Parses a letter code such as "AA" or "cb" (case-insensitive) without allocating.
+     *
+     * @param text the letter code
+     * @return the matching grade, or null if unknown
+     */
+    public static LetterGrade parse(CharSequence text) {
+        if (text == null || text.length() != 2) return null;
+        int index = letterIndex(text.charAt(0), text.charAt(1));
+        return index < 0 ? null : BY_LETTERS[index];
+    }
+
+    // ASCII letters only; lower case folds to upper case
+    private static int letterIndex(char first, char second) {
+        int a = upper(first);
+        int b = upper(second);
+        return (a < 0 || b < 0) ? -1 : a * 26 + b;
+    }
+
+    private static int upper(char c) {
+        if (c >= 'A' && c <= 'Z') return c - 'A';
+        if (c >= 'a' && c <= 'z') return c - 'a';
+        return -1;
+    }
+}
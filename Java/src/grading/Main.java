@@ -0,0 +1,567 @@
+package grading;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+
+public class Main {
+
+    // Single lookup path for students/courses (duplicate checks + session membership)
+    private static final StudentRegistry registry = new StudentRegistry();
+
+    // Set when the snapshot could not be read, so we never overwrite it with partial data
+    private static boolean snapshotLoadFailed = false;
+
+    // Write-ahead journal of confirmed entries (null if it could not be opened)
+    private static Journal journal;
+
+    private static final DateTimeFormatter ARCHIVE_TIME_FMT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+
+    public static void main(String[] args) {
+        // 1. Setup Locale
+        Locale.setDefault(Locale.US);
+
+        // 2. Visual Start
+        printBanner();
+        AppLogger.log("System Started.");
+
+
+
+        try {
+            // =============================================================
+            // ARCHIVE MODE: Main --archive ... (reads past reports, no student data needed)
+            // =============================================================
+            if (args.length > 0 && args[0].equals(Constants.CMD_ARCHIVE)) {
+                if (!showArchive(Arrays.asList(args).subList(1, args.length))) {
+                    System.out.println(Constants.MSG_ARCHIVE_USAGE);
+                }
+                return;
+            }
+
+            // Restore students/courses from previous runs (duplicate check across restarts)
+            loadSnapshot();
+            replayJournal();
+
+            // =============================================================
+            // REPORT MODE: Main --report (all persisted students)
+            // =============================================================
+            if (args.length > 0 && args[0].equals(Constants.CMD_REPORT)) {
+                FileManager.streamAndSaveReport(registry.getAllStudents(), Constants.IMPORT_CONSOLE_ROWS);
+                if (registry.getDepartments().size() > 1) {
+                    FileManager.saveDepartmentReports(registry.getPartitions(), false);
+                }
+                return;
+            }
+
+            // =============================================================
+            // HEADLESS MODE: Main --import-departments dirA dirB ... (one directory per department)
+            // =============================================================
+            if (args.length > 0 && args[0].equals(Constants.CMD_IMPORT_DEPARTMENTS)) {
+                if (args.length < 2) {
+                    System.out.println(Constants.MSG_IMPORT_DEPARTMENTS_USAGE);
+                    return;
+                }
+                BulkImporter.runDepartments(registry, journal, Arrays.asList(args).subList(1, args.length));
+                saveSnapshot();
+                return;
+            }
+
+            // =============================================================
+            // HEADLESS MODE: Main --import-pipeline file1 file2 ... (staged, multi-threaded)
+            // =============================================================
+            if (args.length > 0 && args[0].equals(Constants.CMD_IMPORT_PIPELINE)) {
+                if (args.length < 2
+                        || !ImportPipeline.run(registry, journal, Arrays.asList(args).subList(1, args.length))) {
+                    System.out.println(Constants.MSG_IMPORT_PIPELINE_USAGE);
+                    return;
+                }
+                saveSnapshot();
+                return;
+            }
+
+            // =============================================================
+            // SERVICE MODE: Main --serve [port] (runs until Ctrl+C)
+            // =============================================================
+            if (args.length > 0 && args[0].equals(Constants.CMD_SERVE)) {
+                int port = args.length > 1 ? Validator.parseInt(args[1]) : Constants.SERVER_PORT;
+                if (args.length > 2 || port < 0 || port > 65535) {
+                    System.out.println(Constants.MSG_SERVE_USAGE);
+                    return;
+                }
+                serve(port);
+                saveSnapshot();
+                return;
+            }
+
+            // =============================================================
+            // HEADLESS MODE: Main --import students.csv courses.csv grades.csv
+            // =============================================================
+            if (args.length > 0 && args[0].equals(Constants.CMD_IMPORT)) {
+                if (args.length != 4) {
+                    System.out.println(Constants.MSG_IMPORT_USAGE);
+                    return;
+                }
+                BulkImporter.run(registry, journal, args[1], args[2], args[3]);
+                saveSnapshot();
+                return;
+            }
+
+            // =============================================================
+            // PHASE 1: DEPARTMENT ENTRY (at least one, 'end' to finish)
+            // =============================================================
+            List<Department> sessionDepartments = new ArrayList<>();
+
+            while (true) {
+                try {
+                    System.out.println("\n" + Constants.MSG_ENTER_DEPT);
+                    System.out.println("(Type 'cancel' at any time to reset this section)");
+
+                    boolean first = sessionDepartments.isEmpty();
+                    String dName = InputHelper.getValidName(first ? "Department Name:" : "Department Name ('end' to finish):");
+                    if (!first && dName.equalsIgnoreCase(Constants.CMD_END)) break;
+
+                    String dWeb = InputHelper.getValidWebPage("Web Page:");
+                    LocalDate dDate = InputHelper.getDate("Est. Date (dd.MM.yyyy):");
+
+                    System.out.println("\n--- REVIEW DEPARTMENT ---");
+                    System.out.println("Name: " + dName);
+                    System.out.println("Web : " + dWeb);
+                    System.out.println("Date: " + dDate);
+
+                    if (InputHelper.getConfirmation()) {
+                        Department dept = new Department(dName, dWeb, dDate);
+                        if (registry.addDepartment(dept)) {
+                            journalSync(j -> j.logDepartment(dept));
+                        }
+                        // Same web page = same department (reuse the registered one)
+                        Department registered = registry.findDepartment(dWeb);
+                        if (!sessionDepartments.contains(registered)) {
+                            sessionDepartments.add(registered);
+                        }
+                        AppLogger.log("Department set: " + dName);
+                    } else {
+                        System.out.println(Constants.MSG_RETRY);
+                    }
+
+                } catch (InputHelper.OperationCancelledException e) {
+                    if (sessionDepartments.isEmpty()) {
+                        System.out.println(">> Department entry is mandatory. Resetting form...");
+                    } else {
+                        System.out.println(Constants.MSG_CANCELLED);
+                    }
+                }
+            }
+
+            // =============================================================
+            // PHASE 2: STUDENT ENTRY (Smart Duplicate Check)
+            // =============================================================
+            System.out.println("\n" + Constants.MSG_ENTER_STUDENT);
+
+            while (true) {
+                try {
+                    System.out.println("\n--- NEW STUDENT ENTRY ---");
+                    System.out.println("(Type 'cancel' at any time to reset this section)");
+
+                    String name = InputHelper.getValidName("First Name ('end' to finish):");
+                    if (name.equalsIgnoreCase(Constants.CMD_END)) break;
+
+                    String surname = InputHelper.getValidName("Last Name:");
+
+
+                    String id = InputHelper.getSafeText("Student ID:");
+
+                    // --- SMART DUPLICATE CHECK  ---
+                    if (registry.containsStudent(id)) {
+                        System.out.println(">> WARNING: Student with ID " + id + " already exists!");
+                        System.out.println(">> Skipping new entry.");
+                        continue;
+                    }
+
+                    LocalDate bDate = InputHelper.getDate("Birth Date (dd.MM.yyyy):");
+                    Department sDept = chooseDepartment(sessionDepartments);
+
+                    // REVIEW & CONFIRM
+                    System.out.println("\n--- REVIEW STUDENT ---");
+                    System.out.println("Name: " + name + " " + surname);
+                    System.out.println("ID  : " + id);
+                    System.out.println("Age : " + (java.time.Period.between(bDate, LocalDate.now()).getYears()));
+                    System.out.println("Dept: " + sDept);
+
+                    if (InputHelper.getConfirmation()) {
+                        // (Name, Surname, ID, BirthDate, Department) - GPA is calculated later
+                        Student newStudent = new Student(name, surname, id, bDate, sDept);
+
+                        // Registers for validation AND session reporting
+                        if (registry.addStudent(newStudent)) {
+                            journalSync(j -> j.logStudent(newStudent));
+                            AppLogger.log("Student added: ID " + id);
+                            System.out.println(">> Student saved successfully.");
+                        } else {
+                            System.out.println(">> WARNING: Student with ID " + id + " already exists!");
+                        }
+                    } else {
+                        System.out.println(Constants.MSG_RETRY);
+                    }
+
+                } catch (InputHelper.OperationCancelledException e) {
+                    System.out.println(Constants.MSG_CANCELLED);
+                }
+            }
+
+            // =============================================================
+            // PHASE 3: COURSE ENTRY
+            // =============================================================
+            System.out.println("\n" + Constants.MSG_ENTER_COURSE);
+
+            while (true) {
+                try {
+                    System.out.println("\n--- NEW COURSE ENTRY ---");
+                    System.out.println("(Type 'cancel' at any time to reset this section)");
+                    String cName = InputHelper.getSafeText("Course Name ('end' to finish):");
+                    if (cName.equalsIgnoreCase(Constants.CMD_END)) break;
+
+                    String code = InputHelper.getSafeText("Course Code:");
+
+                    // Check duplicates
+                    if (registry.containsCourse(code)) {
+                        System.out.println(">> WARNING: Course with code '" + code + "' already exists!");
+                        continue;
+                    }
+
+                    int ects = InputHelper.getInt("ECTS:");
+                    Department cDept = chooseDepartment(sessionDepartments);
+
+                    String conflict = CourseCatalog.conflict(cName, code, ects, cDept);
+                    if (conflict != null) {
+                        System.out.println(">> WARNING: " + conflict + ".");
+                        continue;
+                    }
+
+                    System.out.println("\n--- REVIEW COURSE ---");
+                    System.out.println("Name: " + cName + " | Code: " + code + " | ECTS: " + ects + " | Dept: " + cDept);
+
+                    if (InputHelper.getConfirmation()) {
+                        Course newCourse = Course.of(cName, code, ects, cDept);
+                        if (registry.addCourse(newCourse)) {
+                            journalSync(j -> j.logCourse(newCourse));
+                            AppLogger.log("Course added: " + code);
+                            System.out.println(">> Course saved.");
+                        } else {
+                            System.out.println(">> WARNING: Course with code '" + code + "' already exists!");
+                        }
+                    } else {
+                        System.out.println(Constants.MSG_RETRY);
+                    }
+
+                } catch (InputHelper.OperationCancelledException e) {
+                    System.out.println(Constants.MSG_CANCELLED);
+                }
+            }
+
+            // =============================================================
+            // PHASE 4: GRADE ENTRY (Only for NEW students)
+            // =============================================================
+            List<Student> currentSessionStudents = registry.getSessionStudents();
+            List<Course> courses = registry.getCourses();
+            Gradebook gradebook = new Gradebook(registry, journal);
+            if (!currentSessionStudents.isEmpty() && !courses.isEmpty()) {
+                System.out.println("\n==========================================");
+                System.out.println("           GRADE ENTRY PHASE");
+                System.out.println("==========================================");
+
+                // Sadece şu an eklenen öğrencilere not giriyoruz
+                for (Student s : currentSessionStudents) {
+                    System.out.println("\nEntering grades for student: " + s.getFullName());
+
+                    for (Course c : courses) {
+                        try {
+                            double grade = InputHelper.getGrade(c.getName());
+                            recordGrade(gradebook, s, c, LetterGrade.fromPoints(grade));
+                        } catch (InputHelper.OperationCancelledException e) {
+                            System.out.println(">> Grading for '" + c.getName() + "' skipped.");
+                            AppLogger.log("Grade skipped: " + s.getStudentId() + " - " + c.getCode());
+                        }
+                    }
+                }
+            }
+
+            // =============================================================
+            // PHASE 5: REPORTING (Only Current Session Data)
+            // =============================================================
+            finalizeAndReport(sessionDepartments);
+            saveSnapshot();
+
+        } catch (Exception e) {
+            System.err.println("\n>> CRITICAL SYSTEM ERROR: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            InputHelper.close();
+            closeJournal();
+            Metrics.shutdown(); // Final metrics dump (if metrics.dumpFile is set)
+            AppLogger.log("System Terminated.");
+            AppLogger.shutdown(); // Drain queued log lines before exit
+            FileRotator.shutdown(5000); // Finish compressing rolled segments
+            System.out.println("\nProgram terminated successfully.");
+        }
+    }
+
+    /**
+     * Finalizes the process and delegates reporting to FileManager.
+     * Uses the registry's session students so only newly added data is shown.
+     * With several departments, each one also gets its own report plus a summary.
+     */
+    private static void finalizeAndReport(List<Department> sessionDepartments) {
+        System.out.println("\n>> Generating Session Report...");
+
+        // We only include items added in this session in the report.
+        FileManager.printAndSaveReport(registry.getSessionStudents());
+
+        if (sessionDepartments.size() > 1) {
+            List<DepartmentPartition> partitions = new ArrayList<>();
+            for (Department d : sessionDepartments) {
+                partitions.add(registry.getPartition(d));
+            }
+            FileManager.saveDepartmentReports(partitions, true);
+        }
+    }
+
+    /**
+     * Asks which department a student/course belongs to (no question if there is only one).
+     */
+    private static Department chooseDepartment(List<Department> departments) {
+        if (departments.size() == 1) return departments.get(0);
+
+        for (int i = 0; i < departments.size(); i++) {
+            System.out.println("  " + (i + 1) + ") " + departments.get(i));
+        }
+        while (true) {
+            int choice = InputHelper.getInt("Department No:");
+            if (choice <= departments.size()) return departments.get(choice - 1);
+            System.out.println(">> ERROR: Please choose a number from the list.");
+        }
+    }
+
+    /**
+     * Loads the binary snapshot written by a previous run (if any).
+     */
+    private static void loadSnapshot() {
+        long start = System.nanoTime();
+        try {
+            int loaded = SnapshotStore.load(registry, SnapshotStore.defaultFile());
+            if (loaded > 0) {
+                long ms = (System.nanoTime() - start) / 1_000_000;
+                AppLogger.log("Persistence: Loaded " + loaded + " records from previous run. (" + ms + " ms)");
+            }
+        } catch (IOException e) {
+            snapshotLoadFailed = true;
+            System.err.println(">> WARNING: Saved data could not be loaded: " + e.getMessage());
+            AppLogger.log("Persistence: Load failed - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replays entries journaled after the last snapshot (e.g. from a crashed run),
+     * then opens the journal for this session.
+     */
+    private static void replayJournal() {
+        try {
+            int records = Journal.replay(Journal.defaultFile(), registry);
+            if (records > 0) {
+                AppLogger.log("Persistence: Replayed " + records + " journal records.");
+            }
+            journal = new Journal(Journal.defaultFile());
+        } catch (IOException e) {
+            System.err.println(">> WARNING: Journal unavailable, entries will only be saved at exit: " + e.getMessage());
+            AppLogger.log("Persistence: Journal unavailable - " + e.getMessage());
+        }
+    }
+
+    // One journal append (used with journalSync)
+    @FunctionalInterface
+    private interface JournalWrite {
+        long append(Journal j) throws IOException;
+    }
+
+    /**
+     * Appends a confirmed entry to the journal and waits until it is on disk.
+     * Journal errors are reported but never stop the session.
+     */
+    private static void journalSync(JournalWrite write) {
+        if (journal == null) return;
+        try {
+            journal.sync(write.append(journal));
+        } catch (IOException e) {
+            System.err.println(">> WARNING: Journal write failed: " + e.getMessage());
+            AppLogger.log("Persistence: Journal write failed - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records a grade through the gradebook (journaled + synced).
+     * Journal errors are reported but never stop the session.
+     */
+    private static void recordGrade(Gradebook gradebook, Student s, Course c, LetterGrade grade) {
+        try {
+            gradebook.submit(s, c, grade);
+        } catch (IOException e) {
+            System.err.println(">> WARNING: Journal write failed: " + e.getMessage());
+            AppLogger.log("Persistence: Journal write failed - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the HTTP service until the JVM is asked to stop (Ctrl+C / SIGTERM).
+     * The shutdown hook stops the server and then waits for main to save the
+     * snapshot and close the journal.
+     */
+    private static void serve(int port) throws IOException, InterruptedException {
+        GradingServer server = new GradingServer(registry, journal);
+        server.start(port);
+        System.out.println(">> Server listening on http://localhost:" + server.getPort() + "/ (Ctrl+C to stop)");
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Thread mainThread = Thread.currentThread();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            stopped.countDown();
+            try {
+                mainThread.join(10_000);
+            } catch (InterruptedException ignored) {
+                // Exit anyway
+            }
+        }, "server-shutdown"));
+        stopped.await();
+    }
+
+    /**
+     * Lists, prints or exports archived reports.
+     *
+     * @param args the words after --archive
+     * @return false if the arguments are not valid (usage is printed)
+     */
+    private static boolean showArchive(List<String> args) throws IOException {
+        ReportArchive archive = ReportArchive.shared();
+        if (archive == null) {
+            System.out.println(">> The report archive is disabled or could not be opened.");
+            return true;
+        }
+        String command = args.isEmpty() ? "last" : args.get(0);
+        int number = args.size() > 1 ? Validator.parseInt(args.get(1)) : Validator.NOT_A_NUMBER;
+
+        switch (command) {
+            case "last":
+                if (args.size() > 2 || (args.size() == 2 && number < 1)) return false;
+                int rows = args.size() == 2 ? number : Constants.ARCHIVE_LIST_ROWS;
+                printArchiveEntries(archive.last(rows), archive.size());
+                return true;
+            case "at":
+                if (args.size() < 2 || args.size() > 3) return false;
+                LocalDate day = Validator.parseDate(args.get(1));
+                if (day == null) return false;
+                LocalDateTime from = day.atStartOfDay();
+                LocalDateTime to = from.plusDays(1);
+                if (args.size() == 3) {
+                    try {
+                        from = day.atTime(LocalTime.parse(args.get(2)));
+                        to = from.plusMinutes(1);
+                    } catch (DateTimeParseException e) {
+                        return false;
+                    }
+                }
+                List<ReportArchive.Entry> found = archive.between(from, to);
+                if (found.size() == 1) {
+                    System.out.print(archive.text(found.get(0)));
+                } else {
+                    printArchiveEntries(found, archive.size());
+                }
+                return true;
+            case "show":
+            case "export":
+                if (number < 1 || args.size() != (command.equals("show") ? 2 : 3)) return false;
+                if (number > archive.size()) {
+                    System.out.println(">> ERROR: There is no report #" + number + " (archive has " + archive.size() + ").");
+                    return true;
+                }
+                ReportArchive.Entry entry = archive.entry(number);
+                if (command.equals("show")) {
+                    System.out.print(archive.text(entry));
+                } else {
+                    try (FileChannel out = FileChannel.open(Paths.get(args.get(2)),
+                            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                        ByteBuffer bytes = archive.bytes(entry);
+                        while (bytes.hasRemaining()) {
+                            out.write(bytes);
+                        }
+                    }
+                    System.out.println(">> Report #" + number + " exported to '" + args.get(2) + "'.");
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void printArchiveEntries(List<ReportArchive.Entry> entries, int total) {
+        System.out.println("=== REPORT ARCHIVE (" + total + " report(s)) ===");
+        if (entries.isEmpty()) {
+            System.out.println(">> No matching reports.");
+            return;
+        }
+        for (ReportArchive.Entry e : entries) {
+            System.out.printf("#%-5d %s  %-10s Students: %-6d Avg: %.2f  Max: %.2f  Min: %.2f%s%n",
+                    e.number, e.getTime().format(ARCHIVE_TIME_FMT), e.kind, e.students,
+                    e.average, e.max, e.min, e.label.isEmpty() ? "" : "  " + e.label);
+        }
+    }
+
+    private static void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            AppLogger.log("Persistence: Journal close failed - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checkpoint: writes every known department, course and student to the snapshot
+     * file and truncates the journal, whose entries are now part of the snapshot.
+     */
+    private static void saveSnapshot() {
+        if (snapshotLoadFailed) {
+            AppLogger.log("Persistence: Save skipped (previous snapshot could not be loaded).");
+            return;
+        }
+        try {
+            if (journal != null) {
+                journal.checkpoint(registry, SnapshotStore.defaultFile());
+            } else {
+                SnapshotStore.save(registry, SnapshotStore.defaultFile());
+            }
+            AppLogger.log("Persistence: Saved " + registry.studentCount() + " records.");
+        } catch (IOException e) {
+            System.err.println(">> Snapshot save error: " + e.getMessage());
+            AppLogger.log("Persistence: Save failed - " + e.getMessage());
+        }
+    }
+
+    private static void printBanner() {
+        System.out.println("##################################################");
+        System.out.println("#       STUDENT GRADING SYSTEM (SMART)           #");
+        System.out.println("##################################################");
+    }
+}
+
+
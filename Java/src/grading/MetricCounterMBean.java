@@ -0,0 +1,13 @@
+package grading;
+
+/**
+ * JMX view of a {@link MetricCounter}.
+ */
+public interface MetricCounterMBean {
+
+    long getCount();
+
+    double getRatePerSecond();
+
+    void reset();
+}
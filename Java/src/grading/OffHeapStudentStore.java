@@ -0,0 +1,764 @@
+package grading;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * OFF-HEAP STUDENT STORE
+ * * Purpose: Alternative to keeping millions of Student objects on the heap.
+ * Student records and transcripts live in fixed-layout slots of direct (or
+ * memory-mapped) ByteBuffers, so the garbage collector never has to trace them:
+ * the heap only holds a few hundred 4 MiB buffer objects, the distinct names and
+ * the departments, whatever the number of students.
+ *
+ * Students are addressed by record number (0, 1, 2 ... in insertion order) and
+ * read through a reusable {@link StudentView} instead of materialized Students.
+ *
+ * Layout (little-endian):
+ * - Record (64 bytes): weighted points (double), total ECTS (long), birth date
+ *   (epoch day), first/last name (name table index), department (index),
+ *   grade count, first grade block, ID hash, ID length + up to 19 UTF-8 bytes
+ *   (longer IDs: length LONG_ID and an index into a heap overflow table, since
+ *   Validator puts no limit on ID length; rare, so the table stays small)
+ * - Grade block (128 bytes): next block, count, 24 catalog IDs, 24 LetterGrade codes
+ * - ID index: open-addressing int table (record + 1, 0 = empty), load factor <= 0.5
+ *
+ * GPA follows Student exactly (same running totals and division) and ties are
+ * broken by student ID like the registry's RankingIndex, so both stores rank the
+ * same students in the same order.
+ *
+ * Backing: direct buffers by default (limited by -XX:MaxDirectMemorySize, which
+ * defaults to -Xmx). With a file, the records and grade blocks are mapped from it
+ * instead and the page cache holds them; the file is scratch space, deleted on
+ * close. The journal and snapshot stay the durable copies.
+ *
+ * This JDK has no final Foreign Function & Memory API (MemorySegment became
+ * final in Java 22); ByteBuffer chunks give the same fixed layout on Java 17.
+ *
+ * Thread-safety: one lock (ReentrantLock) for every operation. Views read the
+ * fields that never change (ID, names, birth date, department) without it.
+ */
+public class OffHeapStudentStore implements Closeable {
+
+    /** Longest student ID kept in the record itself, in UTF-8 bytes (longer ones overflow to the heap). */
+    public static final int INLINE_ID_BYTES = 19;
+
+    // --- Record layout ---
+    private static final int RECORD_SIZE = 64;
+    private static final int R_WEIGHTED = 0;
+    private static final int R_ECTS = 8;
+    private static final int R_BIRTH = 16;
+    private static final int R_FIRST = 20;
+    private static final int R_LAST = 24;
+    private static final int R_DEPT = 28;
+    private static final int R_GRADES = 32;
+    private static final int R_BLOCK = 36;
+    private static final int R_HASH = 40;
+    private static final int R_ID_LEN = 44;
+    private static final int R_ID = 45;
+
+    // --- Grade block layout ---
+    private static final int BLOCK_SIZE = 128;
+    private static final int BLOCK_SLOTS = 24;
+    private static final int B_NEXT = 0;
+    private static final int B_COUNT = 4;
+    private static final int B_IDS = 8;
+    private static final int B_CODES = B_IDS + 4 * BLOCK_SLOTS;
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int NONE = -1;
+    private static final byte LONG_ID = -1; // ID length marker: R_ID holds an index into longIds
+    private static final long NO_PREFIX = -1L; // see idPrefix()
+
+    // 4 MiB chunks: 65,536 records or 32,768 grade blocks each
+    private static final int CHUNK_BYTES = 4 * 1024 * 1024;
+    private static final int RECORD_SHIFT = 16;
+    private static final int BLOCK_SHIFT = 15;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FileChannel file; // null = direct buffers
+    private final Path filePath;
+    private int chunksMapped = 0;
+
+    private volatile ByteBuffer[] recordChunks = new ByteBuffer[0];
+    private ByteBuffer[] blockChunks = new ByteBuffer[0];
+    private int size = 0;
+    private int blocks = 0;
+
+    private ByteBuffer idIndex;
+    private int idMask;
+
+    // Distinct names and departments (few, compared with students)
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private final List<Department> departments = new ArrayList<>();
+    private final Map<Department, Integer> departmentIds = new HashMap<>();
+
+    // UTF-8 bytes of the IDs longer than INLINE_ID_BYTES
+    private final List<byte[]> longIds = new ArrayList<>();
+
+    /**
+     * Store backed by direct buffers.
+     */
+    public OffHeapStudentStore() {
+        this.file = null;
+        this.filePath = null;
+        this.idIndex = newIndex(1 << 16);
+    }
+
+    /**
+     * Store whose records and grade blocks are mapped from a scratch file.
+     *
+     * @param path the file (truncated now, deleted on close)
+     * @throws IOException if the file cannot be created
+     */
+    public OffHeapStudentStore(Path path) throws IOException {
+        this.file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.filePath = path;
+        this.idIndex = newIndex(1 << 16);
+    }
+
+    // =============================================================
+    // UPDATES
+    // =============================================================
+
+    /**
+     * Adds a student without grades.
+     *
+     * @return the new record number, or -1 if the ID is already stored
+     */
+    public int add(String firstName, String lastName, String studentId, LocalDate birthDate, Department department)
+            throws IOException {
+        byte[] id = studentId.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(id);
+
+        lock.lock();
+        try {
+            if (find(id, hash) != NONE) return NONE;
+
+            int record = size;
+            ByteBuffer chunk = recordChunk(record);
+            int at = recordOffset(record);
+            chunk.putDouble(at + R_WEIGHTED, 0.0);
+            chunk.putLong(at + R_ECTS, 0L);
+            chunk.putInt(at + R_BIRTH, birthDate == null ? NO_DATE : (int) birthDate.toEpochDay());
+            chunk.putInt(at + R_FIRST, nameId(firstName));
+            chunk.putInt(at + R_LAST, nameId(lastName));
+            chunk.putInt(at + R_DEPT, departmentId(department));
+            chunk.putInt(at + R_GRADES, 0);
+            chunk.putInt(at + R_BLOCK, NONE);
+            chunk.putInt(at + R_HASH, hash);
+            if (id.length > INLINE_ID_BYTES) {
+                chunk.put(at + R_ID_LEN, LONG_ID);
+                chunk.putInt(at + R_ID, longIds.size());
+                longIds.add(id);
+            } else {
+                chunk.put(at + R_ID_LEN, (byte) id.length);
+                chunk.put(at + R_ID, id);
+            }
+            size = record + 1;
+
+            if (size * 2L > idMask + 1L) growIndex();
+            insertIndex(record, hash);
+            return record;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copies a heap student and its transcript into the store.
+     *
+     * @param s the student
+     * @return the new record number, or -1 if the ID is already stored
+     */
+    public int add(Student s) throws IOException {
+        int record = add(s.getFirstName(), s.getLastName(), s.getStudentId(), s.getBirthDate(), s.getDepartment());
+        if (record == NONE) return NONE;
+        for (int i = 0; i < s.getGradeCount(); i++) {
+            addGrade(record, CourseCatalog.course(s.getCourseIdAt(i)), s.getGradeAt(i));
+        }
+        return record;
+    }
+
+    /**
+     * Adds or replaces a grade, like {@link Student#addGrade(Course, LetterGrade)}.
+     *
+     * @param record the student's record number
+     * @param course the course
+     * @param grade  the letter grade
+     */
+    public void addGrade(int record, Course course, LetterGrade grade) throws IOException {
+        if (course == null) return;
+        int id = course.getCatalogId();
+        int ects = CourseCatalog.ects(id);
+
+        lock.lock();
+        try {
+            ByteBuffer r = record(record);
+            int at = recordOffset(record);
+            double weighted = r.getDouble(at + R_WEIGHTED);
+            long totalEcts = r.getLong(at + R_ECTS);
+
+            // Overwrite: remove the old contribution first
+            int last = NONE;
+            boolean found = false;
+            for (int b = r.getInt(at + R_BLOCK); b != NONE && !found; b = block(b).getInt(blockOffset(b) + B_NEXT)) {
+                ByteBuffer blk = block(b);
+                int bo = blockOffset(b);
+                int count = blk.getInt(bo + B_COUNT);
+                for (int i = 0; i < count; i++) {
+                    if (blk.getInt(bo + B_IDS + 4 * i) == id) {
+                        weighted -= ects * LetterGrade.fromCode(blk.get(bo + B_CODES + i)).getPoints();
+                        totalEcts -= ects;
+                        blk.put(bo + B_CODES + i, grade.code());
+                        found = true;
+                        break;
+                    }
+                }
+                last = b;
+            }
+            if (!found) {
+                appendGrade(r, at, last, id, grade.code());
+            }
+            r.putDouble(at + R_WEIGHTED, weighted + ects * grade.getPoints());
+            r.putLong(at + R_ECTS, totalEcts + ects);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Appends to the last block, chaining a new block when it is full
+    private void appendGrade(ByteBuffer r, int at, int last, int courseId, byte code) throws IOException {
+        int b = last;
+        if (b == NONE || block(b).getInt(blockOffset(b) + B_COUNT) == BLOCK_SLOTS) {
+            int fresh = newBlock();
+            if (b == NONE) r.putInt(at + R_BLOCK, fresh);
+            else block(b).putInt(blockOffset(b) + B_NEXT, fresh);
+            b = fresh;
+        }
+        ByteBuffer blk = block(b);
+        int bo = blockOffset(b);
+        int count = blk.getInt(bo + B_COUNT);
+        blk.putInt(bo + B_IDS + 4 * count, courseId);
+        blk.put(bo + B_CODES + count, code);
+        blk.putInt(bo + B_COUNT, count + 1);
+        r.putInt(at + R_GRADES, r.getInt(at + R_GRADES) + 1);
+    }
+
+    // =============================================================
+    // QUERIES
+    // =============================================================
+
+    /**
+     * @param studentId the ID to look up
+     * @return the record number, or -1 if not stored
+     */
+    public int find(String studentId) {
+        byte[] id = studentId.getBytes(StandardCharsets.UTF_8);
+        lock.lock();
+        try {
+            return find(id, hash(id));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param record record number
+     * @return GPA from the running totals (same value Student.calculateGPA gives)
+     */
+    public double gpa(int record) {
+        lock.lock();
+        try {
+            return gpaOf(record);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of students
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ranking order for reports: GPA high to low, ties by student ID (the order
+     * of the registry's {@link RankingIndex}, so heap and off-heap reports match).
+     *
+     * @return record numbers, best first
+     */
+    public int[] ranking() {
+        int n;
+        double[] gpas;
+        byte[][] overflow;
+        lock.lock();
+        try {
+            n = size;
+            gpas = new double[n];
+            for (int i = 0; i < n; i++) gpas[i] = gpaOf(i);
+            overflow = longIds.toArray(new byte[0][]);
+        } finally {
+            lock.unlock();
+        }
+
+        long[] prefixes = new long[n];
+        for (int i = 0; i < n; i++) prefixes[i] = idPrefix(i);
+
+        // Primitive merge sort: no boxed keys for millions of students
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        int[] buffer = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n - width; lo += 2 * width) {
+                merge(order, buffer, gpas, prefixes, overflow, lo, lo + width, Math.min(lo + 2 * width, n));
+            }
+        }
+        return order;
+    }
+
+    /**
+     * @param order record numbers in report order (see {@link #ranking()})
+     * @return statistics over those students' GPAs, summed like GpaStatistics.of(List, boolean)
+     */
+    public GpaStatistics statistics(int[] order) {
+        double[] gpas = new double[order.length];
+        lock.lock();
+        try {
+            for (int i = 0; i < order.length; i++) gpas[i] = gpaOf(order[i]);
+        } finally {
+            lock.unlock();
+        }
+        return GpaStatistics.of(gpas);
+    }
+
+    /**
+     * @return a view to position with {@link StudentView#moveTo(int)}
+     */
+    public StudentView view() {
+        return new StudentView();
+    }
+
+    /**
+     * @param record record number
+     * @return a view of that student
+     */
+    public StudentView view(int record) {
+        return new StudentView().moveTo(record);
+    }
+
+    /**
+     * Releases the buffers (freed by the collector once unreachable) and deletes the scratch file.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            recordChunks = new ByteBuffer[0];
+            blockChunks = new ByteBuffer[0];
+            idIndex = newIndex(16);
+            longIds.clear();
+            size = 0;
+            blocks = 0;
+            if (file != null) {
+                file.close();
+                Files.deleteIfExists(filePath);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // =============================================================
+    // VIEW
+    // =============================================================
+
+    /**
+     * Flyweight read access to one stored student. Reposition it with
+     * {@link #moveTo(int)} to walk many students without allocating.
+     */
+    public final class StudentView {
+        private int record = NONE;
+        private ByteBuffer chunk;
+        private int at;
+
+        /**
+         * @param record record number (0 .. size()-1)
+         * @return this view
+         */
+        public StudentView moveTo(int record) {
+            this.chunk = recordChunks[record >>> RECORD_SHIFT];
+            this.at = recordOffset(record);
+            this.record = record;
+            return this;
+        }
+
+        public int getRecord() { return record; }
+
+        public String getStudentId() {
+            int len = chunk.get(at + R_ID_LEN);
+            if (len == LONG_ID) return new String(longId(chunk.getInt(at + R_ID)), StandardCharsets.UTF_8);
+            byte[] id = new byte[len];
+            chunk.get(at + R_ID, id);
+            return new String(id, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Appends the ID without creating a String (inline ASCII IDs).
+         */
+        public StringBuilder appendStudentId(StringBuilder sb) {
+            int len = chunk.get(at + R_ID_LEN);
+            if (len == LONG_ID) return sb.append(getStudentId());
+            for (int i = 0; i < len; i++) {
+                byte b = chunk.get(at + R_ID + i);
+                if (b < 0) return sb.append(getStudentId()); // not ASCII
+            }
+            for (int i = 0; i < len; i++) {
+                sb.append((char) chunk.get(at + R_ID + i));
+            }
+            return sb;
+        }
+
+        public String getFirstName() { return name(chunk.getInt(at + R_FIRST)); }
+
+        public String getLastName() { return name(chunk.getInt(at + R_LAST)); }
+
+        public String getFullName() { return getFirstName() + " " + getLastName(); }
+
+        /**
+         * @return birth date, or null if unknown
+         */
+        public LocalDate getBirthDate() {
+            int day = chunk.getInt(at + R_BIRTH);
+            return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+        }
+
+        /**
+         * @return owning department, or null if not partitioned
+         */
+        public Department getDepartment() {
+            int d = chunk.getInt(at + R_DEPT);
+            return d == NONE ? null : department(d);
+        }
+
+        public int getGradeCount() {
+            lock.lock();
+            try {
+                return chunk.getInt(at + R_GRADES);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public double calculateGPA() { return gpa(record); }
+
+        /**
+         * @return true if the course is in the transcript
+         */
+        public boolean hasCourse(Course c) {
+            return c != null && gradeOf(c) != null;
+        }
+
+        /**
+         * @param c the course
+         * @return the grade in that course, or null if not taken
+         */
+        public LetterGrade gradeOf(Course c) {
+            int id = c.getCatalogId();
+            lock.lock();
+            try {
+                for (int b = chunk.getInt(at + R_BLOCK); b != NONE; b = block(b).getInt(blockOffset(b) + B_NEXT)) {
+                    ByteBuffer blk = block(b);
+                    int bo = blockOffset(b);
+                    int count = blk.getInt(bo + B_COUNT);
+                    for (int i = 0; i < count; i++) {
+                        if (blk.getInt(bo + B_IDS + 4 * i) == id) return LetterGrade.fromCode(blk.get(bo + B_CODES + i));
+                    }
+                }
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return a heap Student with the same data and transcript
+         */
+        public Student toStudent() {
+            Student s = new Student(getFirstName(), getLastName(), getStudentId(), getBirthDate(), getDepartment());
+            lock.lock();
+            try {
+                for (int b = chunk.getInt(at + R_BLOCK); b != NONE; b = block(b).getInt(blockOffset(b) + B_NEXT)) {
+                    ByteBuffer blk = block(b);
+                    int bo = blockOffset(b);
+                    int count = blk.getInt(bo + B_COUNT);
+                    for (int i = 0; i < count; i++) {
+                        s.addGrade(CourseCatalog.course(blk.getInt(bo + B_IDS + 4 * i)),
+                                LetterGrade.fromCode(blk.get(bo + B_CODES + i)));
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            return s;
+        }
+    }
+
+    // =============================================================
+    // INTERNALS (callers hold the lock, except for the immutable view fields)
+    // =============================================================
+
+    private double gpaOf(int record) {
+        ByteBuffer r = record(record);
+        int at = recordOffset(record);
+        long totalEcts = r.getLong(at + R_ECTS);
+        // Division by Zero check
+        return totalEcts == 0 ? 0.0 : r.getDouble(at + R_WEIGHTED) / totalEcts;
+    }
+
+    // Merge of order[lo..mid) and order[mid..hi) by GPA descending, then student ID
+    private void merge(int[] order, int[] buffer, double[] gpas, long[] prefixes, byte[][] overflow,
+                       int lo, int mid, int hi) {
+        if (compareRanks(order[mid - 1], order[mid], gpas, prefixes, overflow) <= 0) return; // already in order
+        System.arraycopy(order, lo, buffer, lo, hi - lo);
+        int i = lo;
+        int j = mid;
+        for (int k = lo; k < hi; k++) {
+            if (i < mid && (j >= hi || compareRanks(buffer[i], buffer[j], gpas, prefixes, overflow) <= 0)) {
+                order[k] = buffer[i++];
+            } else {
+                order[k] = buffer[j++];
+            }
+        }
+    }
+
+    // Records are append-only and an ID never changes, so this runs without the lock
+    private int compareRanks(int a, int b, double[] gpas, long[] prefixes, byte[][] overflow) {
+        int c = Double.compare(gpas[b], gpas[a]);
+        if (c != 0) return c;
+        long pa = prefixes[a];
+        long pb = prefixes[b];
+        if (pa != pb && pa != NO_PREFIX && pb != NO_PREFIX) return Long.compare(pa, pb);
+        return compareIds(a, b, overflow);
+    }
+
+    // First 8 bytes of an ASCII ID, big-endian and zero-padded, so comparing two
+    // different prefixes orders the IDs like String.compareTo (ASCII bytes are
+    // positive longs); NO_PREFIX for long or non-ASCII IDs
+    private long idPrefix(int record) {
+        ByteBuffer r = record(record);
+        int at = recordOffset(record);
+        int len = r.get(at + R_ID_LEN);
+        if (len == LONG_ID) return NO_PREFIX;
+        long prefix = 0;
+        for (int i = 0; i < 8; i++) {
+            byte b = i < len ? r.get(at + R_ID + i) : 0;
+            if (b < 0) return NO_PREFIX;
+            prefix = (prefix << 8) | b;
+        }
+        return prefix;
+    }
+
+    // Same result as String.compareTo on the IDs. Equal UTF-8 prefixes decode to equal
+    // UTF-16 prefixes, so the first differing byte decides while both are ASCII; past a
+    // non-ASCII byte the two orders can differ and the IDs are decoded instead.
+    // Inline IDs are compared in place (this runs for every GPA tie of a sort).
+    private int compareIds(int a, int b, byte[][] overflow) {
+        ByteBuffer ra = record(a);
+        ByteBuffer rb = record(b);
+        int atA = recordOffset(a);
+        int atB = recordOffset(b);
+        int lenA = ra.get(atA + R_ID_LEN);
+        int lenB = rb.get(atB + R_ID_LEN);
+        if (lenA == LONG_ID || lenB == LONG_ID) return decodedCompare(a, b, overflow);
+        int n = Math.min(lenA, lenB);
+        for (int i = 0; i < n; i++) {
+            byte x = ra.get(atA + R_ID + i);
+            byte y = rb.get(atB + R_ID + i);
+            if (x == y) continue;
+            if (x < 0 || y < 0) return decodedCompare(a, b, overflow);
+            return x - y;
+        }
+        return lenA - lenB;
+    }
+
+    private int decodedCompare(int a, int b, byte[][] overflow) {
+        return new String(idBytes(a, overflow), StandardCharsets.UTF_8)
+                .compareTo(new String(idBytes(b, overflow), StandardCharsets.UTF_8));
+    }
+
+    private byte[] idBytes(int record, byte[][] overflow) {
+        ByteBuffer r = record(record);
+        int at = recordOffset(record);
+        int len = r.get(at + R_ID_LEN);
+        if (len == LONG_ID) return overflow[r.getInt(at + R_ID)];
+        byte[] id = new byte[len];
+        r.get(at + R_ID, id);
+        return id;
+    }
+
+    private int find(byte[] id, int hash) {
+        for (int slot = hash & idMask; ; slot = (slot + 1) & idMask) {
+            int entry = idIndex.getInt(slot * 4);
+            if (entry == 0) return NONE;
+            int record = entry - 1;
+            if (sameId(record, id, hash)) return record;
+        }
+    }
+
+    private boolean sameId(int record, byte[] id, int hash) {
+        ByteBuffer r = record(record);
+        int at = recordOffset(record);
+        if (r.getInt(at + R_HASH) != hash) return false;
+        if (r.get(at + R_ID_LEN) == LONG_ID) return Arrays.equals(longIds.get(r.getInt(at + R_ID)), id);
+        if (r.get(at + R_ID_LEN) != id.length) return false;
+        for (int i = 0; i < id.length; i++) {
+            if (r.get(at + R_ID + i) != id[i]) return false;
+        }
+        return true;
+    }
+
+    private void insertIndex(int record, int hash) {
+        int slot = hash & idMask;
+        while (idIndex.getInt(slot * 4) != 0) slot = (slot + 1) & idMask;
+        idIndex.putInt(slot * 4, record + 1);
+    }
+
+    private void growIndex() {
+        idIndex = newIndex((idMask + 1) * 2);
+        for (int record = 0; record < size - 1; record++) {
+            insertIndex(record, record(record).getInt(recordOffset(record) + R_HASH));
+        }
+    }
+
+    private ByteBuffer newIndex(int slots) {
+        idMask = slots - 1;
+        return ByteBuffer.allocateDirect(slots * 4).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private ByteBuffer recordChunk(int record) throws IOException {
+        int c = record >>> RECORD_SHIFT;
+        if (c == recordChunks.length) {
+            ByteBuffer[] grown = Arrays.copyOf(recordChunks, c + 1);
+            grown[c] = newChunk();
+            recordChunks = grown; // volatile write publishes the chunk to views
+        }
+        return recordChunks[c];
+    }
+
+    private int newBlock() throws IOException {
+        int b = blocks;
+        int c = b >>> BLOCK_SHIFT;
+        if (c == blockChunks.length) {
+            blockChunks = Arrays.copyOf(blockChunks, c + 1);
+            blockChunks[c] = newChunk();
+        }
+        ByteBuffer blk = block(b);
+        int bo = blockOffset(b);
+        blk.putInt(bo + B_NEXT, NONE);
+        blk.putInt(bo + B_COUNT, 0);
+        blocks = b + 1;
+        return b;
+    }
+
+    private ByteBuffer newChunk() throws IOException {
+        if (file == null) return ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long offset = (long) chunksMapped++ * CHUNK_BYTES;
+        return file.map(FileChannel.MapMode.READ_WRITE, offset, CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private ByteBuffer record(int record) {
+        return recordChunks[record >>> RECORD_SHIFT];
+    }
+
+    private static int recordOffset(int record) {
+        return (record & ((1 << RECORD_SHIFT) - 1)) * RECORD_SIZE;
+    }
+
+    private ByteBuffer block(int b) {
+        return blockChunks[b >>> BLOCK_SHIFT];
+    }
+
+    private static int blockOffset(int b) {
+        return (b & ((1 << BLOCK_SHIFT) - 1)) * BLOCK_SIZE;
+    }
+
+    private int nameId(String name) {
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(StringPool.names().intern(name));
+            nameIds.put(name, id);
+        }
+        return id;
+    }
+
+    private String name(int id) {
+        lock.lock();
+        try {
+            return names.get(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int departmentId(Department d) {
+        if (d == null) return NONE;
+        Integer id = departmentIds.get(d);
+        if (id == null) {
+            id = departments.size();
+            departments.add(d);
+            departmentIds.put(d, id);
+        }
+        return id;
+    }
+
+    private byte[] longId(int id) {
+        lock.lock();
+        try {
+            return longIds.get(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Department department(int id) {
+        lock.lock();
+        try {
+            return departments.get(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // FNV-1a over the UTF-8 bytes of the ID
+    private static int hash(byte[] id) {
+        int h = 0x811C9DC5;
+        for (byte b : id) {
+            h = (h ^ (b & 0xFF)) * 0x01000193;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,744 @@
+package grading;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LIVE RANKING INDEX
+ * * Purpose: Keeps students permanently ordered by GPA (High to Low, ties by
+ * student ID), so a student's rank, the top K and any rank range are answered
+ * in O(log n) (+ K) instead of sorting the whole cohort.
+ *
+ * Structure: order-statistic AVL tree (each node knows its subtree size).
+ * Each student owns at most one node. add() and Student.addGrade() only queue
+ * the node (lock-free, once until it is filed); the next query files every
+ * queued node under its current GPA before answering, so queries never see a
+ * stale order. A small batch is repositioned node by node (O(k log n)); past
+ * n/16 changes (bulk imports, snapshot loads) the tree is rebuilt from the
+ * untouched nodes merged with the sorted batch (O(n + k log k)).
+ *
+ * Statistics: the index also keeps the {@link GpaStatistics} of all its students
+ * and of the session students, updated from each filed node's old and new key,
+ * so a report over either cohort costs O(changes + log n) instead of a pass over
+ * every GPA (min/max are the first/last node of the cohort, found through the
+ * per-subtree session counts).
+ *
+ * Thread-safety: queries and remove() take one lock (ReentrantLock, so virtual
+ * threads are never pinned); grading never does, so the striped Gradebook and
+ * parallel importers do not serialize on the index.
+ */
+public class RankingIndex {
+
+    // One tree node per indexed student (referenced from Student)
+    static final class Node {
+        final RankingIndex owner;
+        final Student student;
+        final long seq; // last tie-breaker, so keys stay unique even for equal IDs
+        final boolean session; // entered in this session (see StudentRegistry.addStudent)
+        double gpa; // key: the GPA the node is currently filed under (valid while filed)
+        boolean filed; // linked into the tree
+        boolean batched; // part of the batch being rebuilt
+        volatile int queued; // 1 = listed in pending (set and cleared through QUEUED)
+        Node left;
+        Node right;
+        int size = 1;
+        int sessionSize; // session nodes in this subtree
+        int height = 1;
+        boolean moved; // listed in movedNodes (snapshot needs patching)
+        double snapshotGpa; // key when the snapshot was built (valid while moved)
+
+        Node(RankingIndex owner, Student student, long seq, boolean session) {
+            this.owner = owner;
+            this.student = student;
+            this.seq = seq;
+            this.session = session;
+            this.sessionSize = session ? 1 : 0;
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<Node> QUEUED =
+            AtomicIntegerFieldUpdater.newUpdater(Node.class, "queued");
+
+    // Past this many queued nodes (and n/16) a rebuild is cheaper than repositioning each
+    private static final int REBUILD_MIN = 64;
+
+    // Cohorts smaller than 1/SMALL_COHORT_RATIO of the index are sorted, not filtered from it
+    private static final int SMALL_COHORT_RATIO = 8;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong nextSeq = new AtomicLong();
+    private Node root;
+
+    // Added or changed students not yet filed under their current GPA
+    private final ConcurrentLinkedQueue<Node> pending = new ConcurrentLinkedQueue<>();
+
+    // Statistics of the filed keys (min/max are left to the tree)
+    private final GpaStatistics allStats = new GpaStatistics();
+    private final GpaStatistics sessionStats = new GpaStatistics();
+
+    // Full ranking (in-order walk), never modified once built. GPA changes only
+    // record the moved nodes and their old positions; the next snapshot() patches
+    // the array in O(n + moves * log n) instead of walking the whole tree.
+    private Student[] snapshot;
+    private Node[] movedNodes = new Node[16];
+    private int[] movedFrom = new int[16];
+    private int movedCount;
+
+    // =============================================================
+    // UPDATES
+    // =============================================================
+
+    /**
+     * Adds a student; it is filed under its GPA of that time by the next query.
+     *
+     * @param student the student (not indexed anywhere else)
+     * @throws IllegalStateException if the student belongs to another index
+     */
+    public void add(Student student) {
+        add(student, false);
+    }
+
+    /**
+     * Adds a student, optionally as a session student (counted in the session statistics).
+     *
+     * @param student the student (not indexed anywhere else)
+     * @param session true if the student was entered in this session
+     * @throws IllegalStateException if the student belongs to another index
+     */
+    public void add(Student student, boolean session) {
+        Node node = student.rankNode;
+        if (node != null) {
+            if (node.owner == this) return;
+            throw new IllegalStateException("Student " + student.getStudentId() + " is ranked in another index.");
+        }
+        node = new Node(this, student, nextSeq.getAndIncrement(), session);
+        student.rankNode = node;
+        enqueue(node);
+    }
+
+    /**
+     * Removes a student from the index (no-op if it is not indexed here).
+     *
+     * @param student the student
+     */
+    public void remove(Student student) {
+        lock.lock();
+        try {
+            Node node = student.rankNode;
+            if (node == null || node.owner != this) return;
+            // A queued copy is skipped when drained (rankNode no longer points to it)
+            student.rankNode = null;
+            if (node.filed) {
+                root = delete(root, node);
+                node.filed = false;
+                count(node, node.gpa, -1);
+                dropSnapshot();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a student for repositioning after its GPA changed (lock-free).
+     * Called by Student whenever the transcript changes.
+     */
+    void gpaChanged(Student student) {
+        Node node = student.rankNode;
+        if (node != null && node.owner == this) enqueue(node);
+    }
+
+    // The grader's transcript writes happen before the 0 -> 1 swap, which applyPending()
+    // reads back with its own swap before it reads the GPA, so no change is lost
+    private void enqueue(Node node) {
+        if (QUEUED.getAndSet(node, 1) == 0) pending.add(node);
+    }
+
+    // =============================================================
+    // QUERIES
+    // =============================================================
+
+    /**
+     * @return number of indexed students
+     */
+    public int size() {
+        lock.lock();
+        try {
+            applyPending();
+            return size(root);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param student the student
+     * @return its rank (1 = highest GPA), or -1 if it is not indexed here
+     */
+    public int rankOf(Student student) {
+        lock.lock();
+        try {
+            applyPending();
+            Node target = student.rankNode;
+            if (target == null || target.owner != this) return -1;
+            return position(target) + 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param rank position (1 = highest GPA)
+     * @return the student at that rank, or null if out of range
+     */
+    public Student studentAt(int rank) {
+        lock.lock();
+        try {
+            applyPending();
+            if (rank < 1 || rank > size(root)) return null;
+            int index = rank - 1;
+            Node node = root;
+            while (true) {
+                int leftSize = size(node.left);
+                if (index < leftSize) {
+                    node = node.left;
+                } else if (index == leftSize) {
+                    return node.student;
+                } else {
+                    index -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param k number of students
+     * @return the K best students, best first (fewer if the index is smaller)
+     */
+    public List<Student> top(int k) {
+        return range(1, k);
+    }
+
+    /**
+     * @param from first rank (1-based, inclusive)
+     * @param to   last rank (inclusive)
+     * @return the students ranked from..to, best first (clipped to the index size)
+     */
+    public List<Student> range(int from, int to) {
+        lock.lock();
+        try {
+            applyPending();
+            int lo = Math.max(from, 1) - 1;
+            int hi = Math.min(to, size(root)) - 1;
+            List<Student> out = new ArrayList<>(Math.max(0, hi - lo + 1));
+            if (lo <= hi) collect(root, lo, hi, out);
+            return out;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param minGpa lowest GPA (inclusive)
+     * @param maxGpa highest GPA (inclusive)
+     * @return number of students with minGpa <= GPA <= maxGpa, in O(log n)
+     */
+    public int countGpaBetween(double minGpa, double maxGpa) {
+        lock.lock();
+        try {
+            applyPending();
+            return Math.max(0, countAtLeast(minGpa) - countAbove(maxGpa));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param minGpa lowest GPA (inclusive)
+     * @param maxGpa highest GPA (inclusive)
+     * @return the students with minGpa <= GPA <= maxGpa, best first, in O(log n + K)
+     */
+    public List<Student> withGpaBetween(double minGpa, double maxGpa) {
+        lock.lock();
+        try {
+            applyPending();
+            // Best first, so the band is one contiguous rank range
+            int lo = countAbove(maxGpa);
+            int hi = countAtLeast(minGpa) - 1;
+            List<Student> out = new ArrayList<>(Math.max(0, hi - lo + 1));
+            if (lo <= hi) collect(root, lo, hi, out);
+            return out;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Statistics of a cohort that is the whole index or exactly its session students,
+     * kept up to date incrementally (no pass over the GPAs).
+     *
+     * @param cohort distinct students of this index
+     * @return the statistics, or null if the cohort is neither (compute them directly)
+     */
+    GpaStatistics statistics(List<Student> cohort) {
+        lock.lock();
+        try {
+            applyPending();
+            if (cohort.isEmpty() || root == null) return null;
+            if (cohort.size() == root.size) {
+                return allStats.withRange(last(root, false).gpa, first(root, false).gpa);
+            }
+            if (cohort.size() != root.sessionSize) return null;
+            for (Student s : cohort) {
+                Node node = s.rankNode;
+                if (node == null || node.owner != this || !node.session) return null;
+            }
+            return sessionStats.withRange(last(root, true).gpa, first(root, true).gpa);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the index shared by every student of a cohort.
+     *
+     * @param students the cohort
+     * @return the index, or null if some student is not indexed or they are split across indexes
+     */
+    public static RankingIndex of(List<Student> students) {
+        if (students.isEmpty() || students.get(0).rankNode == null) return null;
+        RankingIndex index = students.get(0).rankNode.owner;
+        for (Student s : students) {
+            Node node = s.rankNode;
+            if (node == null || node.owner != index) return null;
+        }
+        return index;
+    }
+
+    /**
+     * Reorders a cohort (all of it, or e.g. one department / this session)
+     * into ranking order. A cohort of at least 1/8 of the index is read from the
+     * index's in-order walk (no comparison sort, O(n)); a smaller one is sorted
+     * by itself in the same order (O(k log k), independent of the index size).
+     *
+     * @param cohort distinct students of this index, reordered in place
+     * @return false (cohort untouched) if the cohort is not a set of students of this index
+     */
+    boolean sortByRank(List<Student> cohort) {
+        if ((long) cohort.size() * SMALL_COHORT_RATIO < size()) {
+            sortSmall(cohort);
+            return true;
+        }
+        Student[] order = snapshot();
+        Student[] ranked;
+        if (cohort.size() == order.length) {
+            ranked = order;
+        } else {
+            Set<Student> members = Collections.newSetFromMap(new IdentityHashMap<>(cohort.size()));
+            members.addAll(cohort);
+            ranked = new Student[cohort.size()];
+            int n = 0;
+            for (Student s : order) {
+                if (members.contains(s) && n < ranked.length) ranked[n++] = s;
+            }
+            if (n != ranked.length) return false;
+        }
+        for (int i = 0; i < ranked.length; i++) {
+            cohort.set(i, ranked[i]);
+        }
+        return true;
+    }
+
+    // Full ranking, best first; the returned array is shared and must not be modified
+    Student[] snapshot() {
+        lock.lock();
+        try {
+            applyPending();
+            if (snapshot == null) {
+                Student[] out = new Student[size(root)];
+                fill(root, out, 0);
+                snapshot = out;
+            } else if (movedCount > 0) {
+                patchSnapshot();
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Students filed under a GPA > gpa (callers hold the lock)
+    private int countAbove(double gpa) {
+        int count = 0;
+        for (Node node = root; node != null; ) {
+            if (node.gpa > gpa) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    // Students filed under a GPA >= gpa (callers hold the lock)
+    private int countAtLeast(double gpa) {
+        int count = 0;
+        for (Node node = root; node != null; ) {
+            if (node.gpa >= gpa) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    // Tree order by GPAs read once up front (concurrent grading cannot upset the sort)
+    private static void sortSmall(List<Student> cohort) {
+        Keyed[] keys = new Keyed[cohort.size()];
+        for (int i = 0; i < keys.length; i++) {
+            Student s = cohort.get(i);
+            keys[i] = new Keyed(s.calculateGPA(), s);
+        }
+        Arrays.sort(keys, Keyed.ORDER);
+        for (int i = 0; i < keys.length; i++) {
+            cohort.set(i, keys[i].student);
+        }
+    }
+
+    // --- Pending changes (callers hold the lock) ---
+
+    // Files every queued node under its current GPA
+    private void applyPending() {
+        if (pending.isEmpty()) return;
+        List<Node> batch = new ArrayList<>();
+        for (Node node; (node = pending.poll()) != null; ) {
+            QUEUED.getAndSet(node, 0);
+            if (node.student.rankNode == node) batch.add(node);
+        }
+        if (batch.size() > Math.max(REBUILD_MIN, size(root) >> 4)) {
+            rebuild(batch);
+        } else {
+            for (Node node : batch) file(node);
+        }
+    }
+
+    // Inserts a new node or moves a changed one (O(log n))
+    private void file(Node node) {
+        double gpa = node.student.calculateGPA();
+        if (node.filed) {
+            if (Double.compare(node.gpa, gpa) == 0) return;
+            if (snapshot != null && !node.moved) recordMove(node);
+            root = delete(root, node);
+            count(node, node.gpa, -1);
+            node.left = null;
+            node.right = null;
+            node.size = 1;
+            node.sessionSize = node.session ? 1 : 0;
+            node.height = 1;
+        } else {
+            node.filed = true;
+            dropSnapshot();
+        }
+        node.gpa = gpa;
+        count(node, gpa, 1);
+        root = insert(root, node);
+    }
+
+    // Untouched nodes (already in order) merged with the re-keyed, sorted batch,
+    // then linked into a perfectly balanced tree: O(n + k log k)
+    private void rebuild(List<Node> batch) {
+        for (Node node : batch) node.batched = true;
+        Node[] kept = new Node[size(root)];
+        int keptCount = collectUntouched(root, kept, 0);
+
+        Node[] changed = batch.toArray(new Node[0]);
+        for (Node node : changed) {
+            if (node.filed) count(node, node.gpa, -1);
+            node.gpa = node.student.calculateGPA();
+            count(node, node.gpa, 1);
+            node.filed = true;
+            node.batched = false;
+        }
+        Arrays.sort(changed, RankingIndex::compare);
+
+        Node[] all = new Node[keptCount + changed.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < all.length; k++) {
+            all[k] = j == changed.length || (i < keptCount && compare(kept[i], changed[j]) < 0)
+                    ? kept[i++] : changed[j++];
+        }
+        root = build(all, 0, all.length - 1);
+        dropSnapshot();
+    }
+
+    // Adds (delta 1) or takes back (-1) a filed key in the statistics it belongs to
+    private void count(Node node, double gpa, int delta) {
+        if (delta > 0) {
+            allStats.accept(gpa);
+            if (node.session) sessionStats.accept(gpa);
+        } else {
+            allStats.remove(gpa);
+            if (node.session) sessionStats.remove(gpa);
+        }
+    }
+
+    // Best node (of the session only if sessionOnly) in a subtree that has one
+    private static Node first(Node node, boolean sessionOnly) {
+        while (true) {
+            if (node.left != null && (!sessionOnly || node.left.sessionSize > 0)) node = node.left;
+            else if (!sessionOnly || node.session) return node;
+            else node = node.right;
+        }
+    }
+
+    // Worst node (of the session only if sessionOnly) in a subtree that has one
+    private static Node last(Node node, boolean sessionOnly) {
+        while (true) {
+            if (node.right != null && (!sessionOnly || node.right.sessionSize > 0)) node = node.right;
+            else if (!sessionOnly || node.session) return node;
+            else node = node.left;
+        }
+    }
+
+    private static int collectUntouched(Node node, Node[] out, int pos) {
+        if (node == null) return pos;
+        pos = collectUntouched(node.left, out, pos);
+        if (!node.batched) out[pos++] = node;
+        return collectUntouched(node.right, out, pos);
+    }
+
+    private static Node build(Node[] sorted, int lo, int hi) {
+        if (lo > hi) return null;
+        int mid = (lo + hi) >>> 1;
+        Node node = sorted[mid];
+        node.left = build(sorted, lo, mid - 1);
+        node.right = build(sorted, mid + 1, hi);
+        update(node);
+        return node;
+    }
+
+    // --- Snapshot maintenance (callers hold the lock) ---
+
+    private void recordMove(Node node) {
+        // Past this many moves a full walk is cheaper than patching
+        if (movedCount >= Math.max(64, snapshot.length >> 4)) {
+            dropSnapshot();
+            return;
+        }
+        if (movedCount == movedNodes.length) {
+            movedNodes = Arrays.copyOf(movedNodes, movedCount * 2);
+            movedFrom = Arrays.copyOf(movedFrom, movedCount * 2);
+        }
+        movedNodes[movedCount] = node;
+        movedFrom[movedCount] = snapshotIndex(node);
+        movedCount++;
+        node.snapshotGpa = node.gpa;
+        node.moved = true;
+    }
+
+    // Binary search of a not yet moved node in the snapshot (ordered by snapshot-time keys)
+    private int snapshotIndex(Node target) {
+        int lo = 0;
+        int hi = snapshot.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            Node node = snapshot[mid].rankNode;
+            if (node == target) return mid;
+            double gpa = node.moved ? node.snapshotGpa : node.gpa;
+            int c = Double.compare(gpa, target.gpa);
+            if (c == 0) c = target.student.getStudentId().compareTo(node.student.getStudentId());
+            if (c == 0) c = Long.compare(target.seq, node.seq);
+            if (c < 0) hi = mid - 1;
+            else lo = mid + 1;
+        }
+        throw new IllegalStateException("Ranking snapshot out of sync");
+    }
+
+    // Moved students go to their new positions; everyone else keeps their relative order
+    private void patchSnapshot() {
+        Student[] old = snapshot;
+        Student[] out = new Student[old.length];
+        boolean[] vacated = new boolean[old.length];
+        for (int i = 0; i < movedCount; i++) {
+            Node node = movedNodes[i];
+            vacated[movedFrom[i]] = true;
+            out[position(node)] = node.student;
+            node.moved = false;
+            movedNodes[i] = null;
+        }
+        movedCount = 0;
+
+        int next = 0;
+        for (int i = 0; i < old.length; i++) {
+            if (vacated[i]) continue;
+            while (out[next] != null) next++;
+            out[next++] = old[i];
+        }
+        snapshot = out;
+    }
+
+    private void dropSnapshot() {
+        for (int i = 0; i < movedCount; i++) {
+            movedNodes[i].moved = false;
+            movedNodes[i] = null;
+        }
+        movedCount = 0;
+        snapshot = null;
+    }
+
+    // 0-based position of a node in the ranking
+    private int position(Node target) {
+        int rank = 0;
+        Node node = root;
+        while (node != target) {
+            if (compare(target, node) < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank + size(target.left);
+    }
+
+    // =============================================================
+    // ORDER-STATISTIC AVL TREE
+    // =============================================================
+
+    // GPA High to Low, then student ID
+    private static int compare(Node a, Node b) {
+        int c = Double.compare(b.gpa, a.gpa);
+        if (c == 0) c = a.student.getStudentId().compareTo(b.student.getStudentId());
+        return c != 0 ? c : Long.compare(a.seq, b.seq);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) return added;
+        if (compare(added, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, Node removed) {
+        if (node == removed) {
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            // Replace by the in-order successor
+            Node successor = node.right;
+            while (successor.left != null) successor = successor.left;
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            return balance(successor);
+        }
+        if (compare(removed, node) < 0) {
+            node.left = delete(node.left, removed);
+        } else {
+            node.right = delete(node.right, removed);
+        }
+        return balance(node);
+    }
+
+    private static Node deleteMin(Node node) {
+        if (node.left == null) return node.right;
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int diff = height(node.left) - height(node.right);
+        if (diff > 1) {
+            if (height(node.left.left) < height(node.left.right)) node.left = rotateLeft(node.left);
+            return rotateRight(node);
+        }
+        if (diff < -1) {
+            if (height(node.right.right) < height(node.right.left)) node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node r = node.right;
+        node.right = r.left;
+        r.left = node;
+        update(node);
+        update(r);
+        return r;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node l = node.left;
+        node.left = l.right;
+        l.right = node;
+        update(node);
+        update(l);
+        return l;
+    }
+
+    private static void update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        node.sessionSize = sessionSize(node.left) + sessionSize(node.right) + (node.session ? 1 : 0);
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int sessionSize(Node node) {
+        return node == null ? 0 : node.sessionSize;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    // Appends subtree ranks lo..hi (0-based, relative to this subtree)
+    private static void collect(Node node, int lo, int hi, List<Student> out) {
+        int leftSize = size(node.left);
+        if (lo < leftSize) collect(node.left, lo, Math.min(hi, leftSize - 1), out);
+        if (lo <= leftSize && leftSize <= hi) out.add(node.student);
+        if (hi > leftSize) collect(node.right, Math.max(lo - leftSize - 1, 0), hi - leftSize - 1, out);
+    }
+
+    private static int fill(Node node, Student[] out, int pos) {
+        if (node == null) return pos;
+        pos = fill(node.left, out, pos);
+        out[pos++] = node.student;
+        return fill(node.right, out, pos);
+    }
+
+    // A cohort member with the GPA it is sorted by
+    private static final class Keyed {
+        static final Comparator<Keyed> ORDER = Comparator.<Keyed>comparingDouble(k -> -k.gpa)
+                .thenComparing(k -> k.student.getStudentId());
+
+        final double gpa;
+        final Student student;
+
+        Keyed(double gpa, Student student) {
+            this.gpa = gpa;
+            this.student = student;
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package grading;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * REPORT ARCHIVE
+ * * Purpose: Stores every generated report as a record next to a fixed-size index
+ * entry (time, kind, student count, GPA summary), so "report #1200", "the report
+ * of 31.12.2025 17:23" or "the last 5 reports" are found without scanning the text.
+ * 'result.txt' is still written for humans; the archive keeps the same bytes.
+ *
+ * The index is memory-mapped: entry N is read at a fixed offset (O(1)), a time is
+ * found by binary search, and a report's bytes are a slice of a mapped 64 MiB window
+ * of the data file. Windows are mapped once and reused (mappings are only released
+ * by GC, so mapping per request would pile up); a report that crosses a window
+ * boundary is read into the heap instead.
+ *
+ * Layout (big-endian):
+ *   reports.archive     : magic "SGA1" | int version | records { label bytes | report bytes }
+ *   reports.archive.idx : magic "SGI1" | int version | int entrySize | int reserved
+ *                         | long count | long reserved
+ *                         | entries[count] { long timeMillis | long offset | long length
+ *                           | int labelLength | int kind | int students | int high | int good
+ *                           | int mid | int fail | int reserved | double avg | double max | double min }
+ *   label = UTF-8 department name (empty for the class report); report bytes use the
+ *   report file charset. Entry times never go backwards, so the index stays sorted.
+ *
+ * A record is forced to disk before its index entry is written, and the entry
+ * before the count is raised, so a crash can only leave an unindexed tail in the
+ * data file (ignored). Opening also drops any trailing entry that points past the
+ * end of the data file or has an unknown kind, in case the disk lost writes anyway.
+ *
+ * Growth: the archive keeps every report and is not rotated, so it grows by the
+ * size of each report written to 'result.txt' or a department file (FileRotator
+ * bounds those files, not the archive). Delete both files while the application
+ * is stopped to start over, or turn the archive off.
+ *
+ * Configuration: -Dreport.archive=FILE (default 'reports.archive', empty = off).
+ */
+public class ReportArchive {
+
+    /** What a record holds. */
+    public enum Kind { CLASS, DEPARTMENT, SUMMARY }
+
+    private static final int DATA_MAGIC = 0x53474131;  // "SGA1"
+    private static final int INDEX_MAGIC = 0x53474931; // "SGI1"
+    private static final int VERSION = 1;
+    private static final int DATA_HEADER = 8;
+    private static final int INDEX_HEADER = 32;
+    private static final int COUNT_OFFSET = 16;
+    private static final int ENTRY_SIZE = 80;
+    private static final int INITIAL_CAPACITY = 1024; // entries
+    private static final int WINDOW = 1 << 26;         // data file mapping unit (64 MiB)
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private static final String ARCHIVE_FILE = System.getProperty("report.archive", "reports.archive");
+
+    private final FileChannel data;
+    private final FileChannel index;
+    private final ReentrantLock lock = new ReentrantLock(); // appends and index remaps
+    private final ReentrantLock windowLock = new ReentrantLock();
+    private volatile MappedByteBuffer entries;
+    private volatile MappedByteBuffer[] windows = new MappedByteBuffer[0];
+    private volatile int count;
+    private long lastTime;
+
+    /**
+     * Summary of one archived report, read from the index.
+     */
+    public static final class Entry {
+        public final int number;
+        public final long timeMillis;
+        public final Kind kind;
+        public final String label;
+        public final int students;
+        public final double average;
+        public final double max;
+        public final double min;
+        public final int countHigh;
+        public final int countGood;
+        public final int countMid;
+        public final int countFail;
+        final long offset;
+        final long length;
+        final int labelLength;
+
+        Entry(int number, ByteBuffer e, int at, String label) {
+            this.number = number;
+            this.timeMillis = e.getLong(at);
+            this.offset = e.getLong(at + 8);
+            this.length = e.getLong(at + 16);
+            this.labelLength = e.getInt(at + 24);
+            this.kind = KINDS[e.getInt(at + 28)];
+            this.students = e.getInt(at + 32);
+            this.countHigh = e.getInt(at + 36);
+            this.countGood = e.getInt(at + 40);
+            this.countMid = e.getInt(at + 44);
+            this.countFail = e.getInt(at + 48);
+            this.average = e.getDouble(at + 56);
+            this.max = e.getDouble(at + 64);
+            this.min = e.getDouble(at + 72);
+            this.label = label;
+        }
+
+        /**
+         * @return the report time (as printed in its heading)
+         */
+        public LocalDateTime getTime() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault());
+        }
+
+        /**
+         * @return report size in bytes
+         */
+        public long getLength() {
+            return length;
+        }
+    }
+
+    // Opened on first use so runs that never report do not create the files
+    private static final class Shared {
+        static final ReportArchive INSTANCE = openShared();
+    }
+
+    /**
+     * Opens (or creates) an archive.
+     *
+     * @param file data file; the index is the same name plus '.idx'
+     * @throws IOException if the files cannot be opened or are not an archive
+     */
+    public ReportArchive(Path file) throws IOException {
+        Path indexFile = file.resolveSibling(file.getFileName() + ".idx");
+        this.data = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.index = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            openData(file);
+            openIndex(indexFile);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the application's archive (-Dreport.archive), or null if it is disabled or unusable
+     */
+    public static ReportArchive shared() {
+        return Shared.INSTANCE;
+    }
+
+    // =============================================================
+    // WRITE
+    // =============================================================
+
+    /**
+     * Appends a report that was just written to a report file. The bytes are copied
+     * file-to-file by the OS (no pass through the Java heap).
+     *
+     * @param time     report time (as printed in its heading)
+     * @param kind     what the report holds
+     * @param label    department name (null or empty for none)
+     * @param stats    the report's statistics
+     * @param source   the report file
+     * @param position where the report starts in that file
+     * @param length   report size in bytes
+     * @return the record number (1-based)
+     * @throws IOException if writing fails
+     */
+    public int append(LocalDateTime time, Kind kind, String label, GpaStatistics stats,
+                      Path source, long position, long length) throws IOException {
+        byte[] labelBytes = label == null ? new byte[0] : label.getBytes(StandardCharsets.UTF_8);
+        long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        lock.lock();
+        try (FileChannel src = FileChannel.open(source, StandardOpenOption.READ)) {
+            // 1. Record (label + report bytes) at the end of the data file
+            long offset = data.size();
+            data.position(offset);
+            ByteBuffer lb = ByteBuffer.wrap(labelBytes);
+            while (lb.hasRemaining()) {
+                data.write(lb);
+            }
+            for (long done = 0; done < length; ) {
+                long n = src.transferTo(position + done, length - done, data);
+                if (n <= 0) throw new IOException("Report file is shorter than expected: " + source);
+                done += n;
+            }
+
+            // 2. Record on disk, then the index entry, then the count that makes it visible
+            data.force(false);
+            int n = count;
+            MappedByteBuffer e = ensureCapacity(n + 1);
+            int at = INDEX_HEADER + n * ENTRY_SIZE;
+            lastTime = Math.max(lastTime, millis);
+            e.putLong(at, lastTime);
+            e.putLong(at + 8, offset);
+            e.putLong(at + 16, length);
+            e.putInt(at + 24, labelBytes.length);
+            e.putInt(at + 28, kind.ordinal());
+            e.putInt(at + 32, (int) stats.getCount());
+            e.putInt(at + 36, stats.getCountHigh());
+            e.putInt(at + 40, stats.getCountGood());
+            e.putInt(at + 44, stats.getCountMid());
+            e.putInt(at + 48, stats.getCountFail());
+            e.putInt(at + 52, 0);
+            e.putDouble(at + 56, stats.getAverage());
+            e.putDouble(at + 64, stats.getMax());
+            e.putDouble(at + 72, stats.getMin());
+            e.force(at, ENTRY_SIZE);
+            e.putLong(COUNT_OFFSET, n + 1);
+            count = n + 1;
+            return n + 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // =============================================================
+    // READ
+    // =============================================================
+
+    /**
+     * @return number of archived reports
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param number record number (1 = oldest)
+     * @return the record's summary
+     * @throws IndexOutOfBoundsException if there is no such record
+     */
+    public Entry entry(int number) throws IOException {
+        int n = count;
+        if (number < 1 || number > n) {
+            throw new IndexOutOfBoundsException("No report #" + number + " (archive has " + n + ")");
+        }
+        MappedByteBuffer e = entries;
+        int at = INDEX_HEADER + (number - 1) * ENTRY_SIZE;
+        if (!isValid(e, at, Long.MIN_VALUE, data.size())) throw new IOException("Report #" + number + " is corrupt");
+        int labelLength = e.getInt(at + 24);
+        String label = "";
+        if (labelLength > 0) {
+            ByteBuffer lb = ByteBuffer.allocate(labelLength);
+            long offset = e.getLong(at + 8);
+            while (lb.hasRemaining()) {
+                if (data.read(lb, offset + lb.position()) < 0) break;
+            }
+            label = new String(lb.array(), 0, lb.position(), StandardCharsets.UTF_8);
+        }
+        return new Entry(number, e, at, label);
+    }
+
+    /**
+     * Returns a report's bytes (read-only, in the report file charset), normally a
+     * slice of the mapped data file.
+     *
+     * @param entry the record
+     * @return the report bytes
+     */
+    public ByteBuffer bytes(Entry entry) throws IOException {
+        if (entry.length > Integer.MAX_VALUE) throw new IOException("Report #" + entry.number + " is too large to read");
+        long start = entry.offset + entry.labelLength;
+        long end = start + entry.length;
+        int w = (int) (start / WINDOW);
+        long windowStart = (long) w * WINDOW;
+
+        if (end > windowStart + WINDOW) {
+            // Crosses a window boundary: copy
+            ByteBuffer copy = ByteBuffer.allocate((int) entry.length);
+            while (copy.hasRemaining()) {
+                if (data.read(copy, start + copy.position()) < 0) throw new IOException("Archive is truncated");
+            }
+            return copy.flip().asReadOnlyBuffer();
+        }
+        return window(w, end - windowStart).slice((int) (start - windowStart), (int) entry.length).asReadOnlyBuffer();
+    }
+
+    /**
+     * @param entry the record
+     * @return the report as text, exactly as it was appended to the report file
+     */
+    public String text(Entry entry) throws IOException {
+        return FileManager.REPORT_CHARSET.decode(bytes(entry)).toString();
+    }
+
+    /**
+     * @param n how many
+     * @return the newest n records, oldest first
+     */
+    public List<Entry> last(int n) throws IOException {
+        int size = count;
+        List<Entry> result = new ArrayList<>();
+        for (int i = Math.max(1, size - n + 1); i <= size; i++) {
+            result.add(entry(i));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the reports created in [from, to) by binary search over the index.
+     *
+     * @param from inclusive start
+     * @param to   exclusive end
+     * @return matching records, oldest first
+     */
+    public List<Entry> between(LocalDateTime from, LocalDateTime to) throws IOException {
+        int first = firstAtOrAfter(from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        int end = firstAtOrAfter(to.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        List<Entry> result = new ArrayList<>();
+        for (int i = first; i < end; i++) {
+            result.add(entry(i));
+        }
+        return result;
+    }
+
+    /**
+     * Closes the archive files.
+     */
+    public void close() throws IOException {
+        try {
+            data.close();
+        } finally {
+            index.close();
+        }
+    }
+
+    // --- Helper Methods ---
+
+    // Number of the first record with time >= millis (size + 1 if none)
+    private int firstAtOrAfter(long millis) {
+        int hi = count + 1; // count before entries: a remap is published before the count
+        MappedByteBuffer e = entries;
+        int lo = 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (e.getLong(INDEX_HEADER + (mid - 1) * ENTRY_SIZE) < millis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void openData(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(DATA_HEADER);
+        if (data.size() == 0) {
+            header.putInt(DATA_MAGIC).putInt(VERSION).flip();
+            while (header.hasRemaining()) {
+                data.write(header, header.position());
+            }
+            return;
+        }
+        data.read(header, 0);
+        if (header.getInt(0) != DATA_MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException(file + " is not a report archive");
+        }
+    }
+
+    private void openIndex(Path file) throws IOException {
+        boolean fresh = index.size() == 0;
+        long capacity = fresh ? INITIAL_CAPACITY : (index.size() - INDEX_HEADER) / ENTRY_SIZE;
+        if (capacity < 1) throw new IOException(file + " is not a report index");
+        entries = index.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER + capacity * ENTRY_SIZE);
+
+        if (fresh) {
+            entries.putInt(0, INDEX_MAGIC).putInt(4, VERSION).putInt(8, ENTRY_SIZE).putLong(COUNT_OFFSET, 0);
+            return;
+        }
+        long n = entries.getLong(COUNT_OFFSET);
+        if (entries.getInt(0) != INDEX_MAGIC || entries.getInt(4) != VERSION
+                || entries.getInt(8) != ENTRY_SIZE || n < 0 || n > capacity) {
+            throw new IOException(file + " is not a report index");
+        }
+
+        // Keep the entries up to the first one the data file cannot back
+        long dataSize = data.size();
+        int valid = 0;
+        long previousTime = Long.MIN_VALUE;
+        while (valid < n && isValid(entries, INDEX_HEADER + valid * ENTRY_SIZE, previousTime, dataSize)) {
+            previousTime = entries.getLong(INDEX_HEADER + valid * ENTRY_SIZE);
+            valid++;
+        }
+        if (valid < n) {
+            System.err.println(">> Archive warning: dropped " + (n - valid) + " damaged index entr"
+                    + (n - valid == 1 ? "y" : "ies") + " of " + file);
+            entries.putLong(COUNT_OFFSET, valid);
+        }
+        count = valid;
+        if (valid > 0) lastTime = previousTime;
+    }
+
+    // An entry whose record lies inside the data file, with a known kind and an ordered time
+    private static boolean isValid(ByteBuffer e, int at, long previousTime, long dataSize) {
+        long offset = e.getLong(at + 8);
+        long length = e.getLong(at + 16);
+        int labelLength = e.getInt(at + 24);
+        int kind = e.getInt(at + 28);
+        return e.getLong(at) >= previousTime && offset >= DATA_HEADER && length >= 0 && labelLength >= 0
+                && kind >= 0 && kind < KINDS.length && offset + labelLength + length <= dataSize;
+    }
+
+    // Mapped window w of the data file, covering at least 'needed' bytes of it
+    private MappedByteBuffer window(int w, long needed) throws IOException {
+        MappedByteBuffer[] ws = windows;
+        MappedByteBuffer m = w < ws.length ? ws[w] : null;
+        if (m != null && m.capacity() >= needed) return m;
+
+        windowLock.lock();
+        try {
+            ws = windows;
+            m = w < ws.length ? ws[w] : null;
+            if (m != null && m.capacity() >= needed) return m;
+
+            // The last window grows with the file, so it is remapped when a newer record is read
+            long windowStart = (long) w * WINDOW;
+            long size = Math.min(WINDOW, data.size() - windowStart);
+            m = data.map(FileChannel.MapMode.READ_ONLY, windowStart, size);
+            MappedByteBuffer[] grown = Arrays.copyOf(ws, Math.max(ws.length, w + 1));
+            grown[w] = m;
+            windows = grown;
+            return m;
+        } finally {
+            windowLock.unlock();
+        }
+    }
+
+    // Caller holds the lock; doubles the mapped index when it is full
+    private MappedByteBuffer ensureCapacity(int needed) throws IOException {
+        MappedByteBuffer e = entries;
+        if (INDEX_HEADER + (long) needed * ENTRY_SIZE <= e.capacity()) return e;
+        long capacity = (long) (e.capacity() - INDEX_HEADER) / ENTRY_SIZE * 2;
+        e.force();
+        e = index.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER + capacity * ENTRY_SIZE);
+        entries = e;
+        return e;
+    }
+
+    private static ReportArchive openShared() {
+        if (ARCHIVE_FILE.isBlank()) return null;
+        try {
+            return new ReportArchive(Paths.get(ARCHIVE_FILE));
+        } catch (IOException e) {
+            System.err.println(">> Archive error: " + e.getMessage());
+            return null;
+        }
+    }
+}
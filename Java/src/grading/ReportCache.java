@@ -0,0 +1,118 @@
+package grading;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * INCREMENTAL REPORT CACHE
+ * * Purpose: Keeps every student's rendered ranking row between report
+ * regenerations, already encoded for the report file. The row is stored without
+ * its rank number (which shifts whenever someone above moves) together with the
+ * student's change version, so only students whose transcript or details changed
+ * since the last report are formatted again (miss); everyone else is one version
+ * check and a byte copy (hit).
+ *
+ * The row text does not depend on the report, so the session, all-students and
+ * department reports share one cached row per student. The order and, for the
+ * all-students and session cohorts, the statistics are kept up to date by the
+ * live {@link RankingIndex} from each changed student's old and new GPA, so
+ * neither needs a cache of its own.
+ *
+ * Memory: about 100 bytes per reported student. Disable with -Dreport.cache=false.
+ */
+public class ReportCache {
+
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty("report.cache", "true"));
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    /**
+     * Rendered row of one student, encoded in the report charset; immutable, so it
+     * is published with one field write.
+     */
+    static final class Row {
+        final int version;
+        final byte[] bytes;
+
+        Row(int version, byte[] bytes) {
+            this.version = version;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Hit/miss counts of one report.
+     */
+    static final class Tally {
+        int hits;
+        int misses;
+    }
+
+    // =============================================================
+    // ROWS
+    // =============================================================
+
+    /**
+     * Returns a student's encoded ranking row (without the rank prefix), reusing the
+     * cached bytes while the student is unchanged.
+     *
+     * @param s     the student
+     * @param tally counts of the current report
+     * @return the row bytes (shared, do not modify)
+     */
+    static byte[] row(Student s, Tally tally) {
+        int version = s.getVersion();
+        Row row = s.reportRow;
+        if (row != null && row.version == version) {
+            tally.hits++;
+            return row.bytes;
+        }
+
+        tally.misses++;
+        StringBuilder sb = new StringBuilder(96);
+        FileManager.appendRowBody(sb, s, s.calculateGPA());
+        byte[] bytes = sb.toString().getBytes(FileManager.REPORT_CHARSET);
+        s.reportRow = new Row(version, bytes);
+        return bytes;
+    }
+
+    /**
+     * Adds a finished report's counts to the totals.
+     */
+    static void record(Tally tally) {
+        HITS.add(tally.hits);
+        MISSES.add(tally.misses);
+    }
+
+    // =============================================================
+    // SETTINGS & COUNTERS
+    // =============================================================
+
+    /**
+     * Turns caching on or off. When off, reports render every row and store nothing.
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * @return true if reports use the cache
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return rows reused since startup
+     */
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    /**
+     * @return rows rendered (new or changed students) since startup
+     */
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+}
@@ -0,0 +1,337 @@
+package grading;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PERSISTENCE (Binary Snapshot)
+ * * Purpose: Saves departments, courses, students and transcripts to a compact
+ * binary file and loads them back at startup through a memory-mapped buffer,
+ * so duplicate checks and reports work across restarts. The file is mapped in
+ * windows (1 GB, -Dsnapshot.mapWindow), so snapshots over 2 GB load as well.
+ *
+ * Layout (big-endian):
+ *   magic "SGS1" | int version
+ *   int departments { str name | str webPage | long estEpochDay }
+ *   int courses     { str name | str code | int ects | int dept }   (index = course number)
+ *   int students    { str first | str last | str id | long birthEpochDay | int dept
+ *                     | int grades | int[grades] courseNumber | byte[grades] gradeCode }
+ *   str = int byteLength + UTF-8 bytes; a missing date is stored as Long.MIN_VALUE.
+ *   dept = index into the department list, or -1 (not partitioned).
+ *   Students are written best first (ranking order); any order loads correctly.
+ *
+ * Version 1 files (no dept fields) are still loaded; everything in them is unpartitioned.
+ *
+ * Saving writes a temporary file and atomically renames it, so a crash never
+ * leaves a half-written snapshot behind.
+ */
+public class SnapshotStore {
+
+    private static final int MAGIC = 0x53475331; // "SGS1"
+    private static final int VERSION = 2;
+    private static final int VERSION_NO_DEPARTMENTS = 1;
+    private static final int NO_DEPARTMENT = -1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAP_WINDOW = Math.max(1 << 16, Integer.getInteger("snapshot.mapWindow", 1 << 30));
+    private static final int MIN_STUDENT_BYTES = 24; // three empty strings, date, grade count
+
+    /**
+     * Thrown when the snapshot file is not a valid snapshot.
+     */
+    public static class CorruptSnapshotException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public CorruptSnapshotException(String message) {
+            super(message);
+        }
+    }
+
+    // =============================================================
+    // SAVE
+    // =============================================================
+
+    /**
+     * Writes every registered department, course and student to the snapshot file.
+     *
+     * @param registry the data to save
+     * @param file     target file
+     * @throws IOException if writing fails
+     */
+    public static void save(StudentRegistry registry, Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer out = new Writer(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+
+            List<Department> departments = registry.getDepartments();
+            Map<String, Integer> departmentIndex = new HashMap<>();
+            out.putInt(departments.size());
+            for (Department d : departments) {
+                departmentIndex.put(d.getWebPage(), departmentIndex.size());
+                out.putString(d.getName());
+                out.putString(d.getWebPage());
+                out.putDate(d.getEstablishmentDate());
+            }
+
+            // Course number in the file == CourseCatalog ID in this process
+            int courseCount = CourseCatalog.size();
+            out.putInt(courseCount);
+            for (int id = 0; id < courseCount; id++) {
+                Course c = CourseCatalog.course(id);
+                out.putString(c.getName());
+                out.putString(c.getCode());
+                out.putInt(c.getEcts());
+                out.putInt(indexOf(departmentIndex, c.getDepartment()));
+            }
+
+            // Best first, so the loaded batch is already in ranking order and the
+            // first query after startup files it without sorting (see RankingIndex.rebuild)
+            List<Student> students = registry.getAllStudents();
+            registry.getRanking().sortByRank(students);
+            out.putInt(students.size());
+            for (Student s : students) {
+                out.putString(s.getFirstName());
+                out.putString(s.getLastName());
+                out.putString(s.getStudentId());
+                out.putDate(s.getBirthDate());
+                out.putInt(indexOf(departmentIndex, s.getDepartment()));
+
+                int grades = s.getGradeCount();
+                out.putInt(grades);
+                for (int i = 0; i < grades; i++) {
+                    out.putInt(s.getCourseIdAt(i));
+                }
+                // Grade codes as one block so the loader can bulk-copy them
+                for (int i = 0; i < grades; i++) {
+                    out.ensure(1);
+                    out.buf.put(s.getGradeAt(i).code());
+                }
+            }
+            out.flush();
+            channel.force(true);
+        }
+
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // =============================================================
+    // LOAD
+    // =============================================================
+
+    /**
+     * Loads a snapshot into the registry. Students are registered as "existing"
+     * (they count for duplicate detection but not for the session report).
+     *
+     * @param registry target registry
+     * @param file     snapshot file
+     * @return number of students loaded (0 if the file does not exist)
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public static int load(StudentRegistry registry, Path file) throws IOException {
+        if (!Files.exists(file)) return 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Reader in = new Reader(channel);
+
+            if (channel.size() < 8 || in.getInt() != MAGIC) throw new CorruptSnapshotException("Not a snapshot file: " + file);
+            int version = in.getInt();
+            if (version != VERSION && version != VERSION_NO_DEPARTMENTS) {
+                throw new CorruptSnapshotException("Unsupported snapshot version " + version);
+            }
+            boolean hasDepartments = version >= VERSION;
+
+            int departmentCount = in.getInt();
+            Department[] departments = new Department[departmentCount];
+            for (int i = 0; i < departmentCount; i++) {
+                Department d = new Department(in.getString(), in.getString(), in.getDate());
+                // Reuse the instance the registry already knows (same web page)
+                registry.addDepartment(d);
+                departments[i] = registry.findDepartment(d.getWebPage());
+            }
+
+            int courseCount = in.getInt();
+            Course[] courses = new Course[courseCount];
+            for (int i = 0; i < courseCount; i++) {
+                String name = in.getString();
+                String code = in.getString();
+                // One canonical Course per code, so grades resolve to the same
+                // catalog entry even if the registry already knew this course
+                int ects = in.getInt();
+                Department dept = hasDepartments ? department(departments, in.getInt()) : null;
+                courses[i] = Course.of(name, code, ects, dept);
+                registry.addCourse(courses[i]);
+            }
+
+            int studentCount = in.getInt();
+            // Bounded by the bytes left, so a corrupt count cannot claim a huge map
+            registry.reserveStudents((int) Math.max(0, Math.min(studentCount, in.remaining() / MIN_STUDENT_BYTES)));
+            int[] ids = new int[16];
+            byte[] codes = new byte[16];
+            int loaded = 0;
+            for (int i = 0; i < studentCount; i++) {
+                String first = in.getString();
+                String last = in.getString();
+                String id = in.getString();
+                LocalDate birth = in.getDate();
+                Department dept = hasDepartments ? department(departments, in.getInt()) : null;
+                Student s = new Student(first, last, id, birth, dept);
+
+                int grades = in.getInt();
+                if (grades < 0 || grades * 5L > in.remaining()) {
+                    throw new CorruptSnapshotException("Truncated or corrupt snapshot: " + file);
+                }
+                if (grades > ids.length) {
+                    ids = new int[grades];
+                    codes = new byte[grades];
+                }
+                for (int g = 0; g < grades; g++) {
+                    ids[g] = courses[in.getInt()].getCatalogId();
+                }
+                in.get(codes, grades);
+                s.loadTranscript(ids, codes, grades);
+
+                if (registry.addExistingStudent(s)) loaded++;
+            }
+            return loaded;
+        } catch (java.nio.BufferUnderflowException | IndexOutOfBoundsException
+                 | NegativeArraySizeException | IllegalArgumentException e) {
+            throw new CorruptSnapshotException("Truncated or corrupt snapshot: " + file);
+        }
+    }
+
+    /**
+     * @return the default snapshot location (Constants.SNAPSHOT_FILE_NAME)
+     */
+    public static Path defaultFile() {
+        return Paths.get(Constants.SNAPSHOT_FILE_NAME);
+    }
+
+    // --- Encoding Helpers ---
+
+    private static int indexOf(Map<String, Integer> departmentIndex, Department d) {
+        if (d == null) return NO_DEPARTMENT;
+        Integer index = departmentIndex.get(d.getWebPage());
+        return index == null ? NO_DEPARTMENT : index;
+    }
+
+    private static Department department(Department[] departments, int index) {
+        return index == NO_DEPARTMENT ? null : departments[index];
+    }
+
+    // Chunked writer over a FileChannel
+    private static final class Writer {
+        final FileChannel channel;
+        final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void ensure(int bytes) throws IOException {
+            if (buf.remaining() < bytes) flush();
+        }
+
+        void putInt(int v) throws IOException {
+            ensure(4);
+            buf.putInt(v);
+        }
+
+        void putDate(LocalDate date) throws IOException {
+            ensure(8);
+            buf.putLong(date == null ? NO_DATE : date.toEpochDay());
+        }
+
+        void putString(String s) throws IOException {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            int off = 0;
+            while (off < bytes.length) {
+                ensure(1);
+                int n = Math.min(buf.remaining(), bytes.length - off);
+                buf.put(bytes, off, n);
+                off += n;
+            }
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            buf.clear();
+        }
+    }
+
+    // Reader over the file mapped one window at a time (a single mapping is limited
+    // to 2 GB); reuses one scratch array for strings
+    private static final class Reader {
+        final FileChannel channel;
+        final long size;
+        MappedByteBuffer buf;
+        long base; // file offset of the window
+        byte[] scratch = new byte[64];
+
+        Reader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            map(0, 0);
+        }
+
+        // Makes the next bytes readable from buf, mapping the window that starts there if needed
+        void need(int bytes) throws IOException {
+            if (buf.remaining() >= bytes) return;
+            long pos = base + buf.position();
+            if (bytes < 0 || size - pos < bytes) throw new java.nio.BufferUnderflowException();
+            map(pos, bytes);
+        }
+
+        private void map(long pos, int bytes) throws IOException {
+            base = pos;
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(size - pos, Math.max(MAP_WINDOW, bytes)));
+        }
+
+        long remaining() {
+            return size - base - buf.position();
+        }
+
+        int getInt() throws IOException {
+            need(4);
+            return buf.getInt();
+        }
+
+        void get(byte[] dst, int len) throws IOException {
+            need(len);
+            buf.get(dst, 0, len);
+        }
+
+        String getString() throws IOException {
+            int len = getInt();
+            need(len);
+            if (len > scratch.length) scratch = new byte[Math.max(len, scratch.length * 2)];
+            buf.get(scratch, 0, len);
+            return new String(scratch, 0, len, StandardCharsets.UTF_8);
+        }
+
+        LocalDate getDate() throws IOException {
+            need(8);
+            long day = buf.getLong();
+            return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package grading;
+
+/**
+ * STRING POOL (Name Deduplication)
+ * * Purpose: Makes students with the same first or last name share one String
+ * instead of each keeping its own copy parsed from a file, journal or request.
+ * With large cohorts a few thousand distinct names cover millions of students.
+ *
+ * The pool is a fixed-size table indexed by hash: a hit returns the pooled
+ * instance, a miss stores the new string in its slot (replacing whatever was
+ * there). Memory is bounded whatever the input, rare names simply stay
+ * unshared, and there is no lock: Strings are immutable, so a racy slot write
+ * can at worst cost one missed share.
+ *
+ * Strings are already compact (one byte per char for Latin-1 text since JDK 9),
+ * so sharing the instance is what saves the memory.
+ *
+ * Configuration (system properties):
+ * - strings.pool     : pool names (default true)
+ * - strings.poolSize : slots, rounded up to a power of two (default 65536)
+ */
+public final class StringPool {
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("strings.pool", "true"));
+
+    private static final StringPool NAMES = new StringPool(Integer.getInteger("strings.poolSize", 1 << 16));
+
+    private final String[] slots;
+    private final int mask;
+
+    /**
+     * @param size number of slots (rounded up to a power of two)
+     */
+    StringPool(int size) {
+        int slotCount = Integer.highestOneBit(Math.max(16, size) - 1) << 1;
+        this.slots = new String[slotCount];
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * @return the shared pool for student first and last names
+     */
+    public static StringPool names() {
+        return NAMES;
+    }
+
+    /**
+     * @param s a string (may be null)
+     * @return an equal pooled instance, or s itself
+     */
+    public String intern(String s) {
+        if (s == null || !ENABLED) return s;
+        int h = s.hashCode();
+        int i = (h ^ (h >>> 16)) & mask;
+        String pooled = slots[i];
+        if (s.equals(pooled)) return pooled;
+        slots[i] = s;
+        return s;
+    }
+}
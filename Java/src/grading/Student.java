@@ -0,0 +1,337 @@
+package grading;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * STUDENT ENTITY & CALCULATION ENGINE
+ * Purpose: Manages student data and calculates GPA dynamically based on courses.
+ * Not thread-safe: concurrent grade updates go through {@link Gradebook}.
+ *
+ * @author Zeynep Can
+ */
+public class Student {
+
+    // --- Fields ---
+    private String firstName;
+    private String lastName;
+    private final String studentId; // String is better for IDs (preserves leading zeros); fixed, it keys the registry and the ranking
+    private LocalDate birthDate;
+    private Department department; // Owning department (null = not partitioned)
+
+    // Transcript (columnar): course catalog IDs kept sorted, with a parallel
+    // array of one-byte LetterGrade codes. ~5 bytes per grade instead of a
+    // HashMap node + boxed Double. ECTS values live in CourseCatalog.
+    private static final int[] NO_COURSES = new int[0];
+    private static final byte[] NO_GRADES = new byte[0];
+
+    private int[] courseIds = NO_COURSES;
+    private byte[] gradeCodes = NO_GRADES;
+    private int gradeCount = 0;
+
+    // Running totals maintained by addGrade() so GPA reads are O(1).
+    // Grades are multiples of 0.25 and ECTS are integers, so these sums stay exact.
+    private double totalWeightedPoints = 0.0;
+    private long totalEcts = 0;
+
+    // Position in the live ranking (null = not ranked); see RankingIndex. Volatile: set
+    // last when the student is registered, so whoever sees it also sees the course index
+    volatile RankingIndex.Node rankNode;
+
+    // Secondary indexes this student is listed in (null = not indexed); see StudentIndex
+    StudentIndex index;
+
+    // Bumped on every change to a reported field (transcript, name, ID, birth date)
+    private int version = 0;
+
+    // Ranking row rendered by the last report (valid while its version matches); see ReportCache
+    ReportCache.Row reportRow;
+
+    // --- Constructor ---
+
+    /**
+     * Constructs a new Student.
+     * Note: GPA is NOT passed here anymore, it is calculated later.
+     *
+     * @param firstName  First Name
+     * @param lastName   Last Name
+     * @param studentId  Student ID
+     * @param birthDate  Date of Birth
+     */
+    public Student(String firstName, String lastName, String studentId, LocalDate birthDate) {
+        this(firstName, lastName, studentId, birthDate, null);
+    }
+
+    /**
+     * Constructs a new Student that belongs to a department.
+     *
+     * @param firstName  First Name
+     * @param lastName   Last Name
+     * @param studentId  Student ID
+     * @param birthDate  Date of Birth
+     * @param department owning department (null = not partitioned)
+     */
+    public Student(String firstName, String lastName, String studentId, LocalDate birthDate, Department department) {
+        // Names repeat across students: share one instance per name (see StringPool)
+        this.firstName = StringPool.names().intern(firstName);
+        this.lastName = StringPool.names().intern(lastName);
+        this.studentId = studentId;
+        this.birthDate = birthDate;
+        this.department = department;
+    }
+
+    // --- Core Logic: Grade Management ---
+
+    /**
+     * Adds a course and its grade to the student's transcript.
+     * If the course already has a grade, it is overwritten and the running totals are corrected.
+     * @param course The course object (must have ECTS).
+     * @param grade  The grade received (0.00 - 4.00), one of the AA..FF values.
+     * @throws IllegalArgumentException if the grade is not on the AA..FF scale
+     */
+    public void addGrade(Course course, double grade) {
+        if (course != null) {
+            LetterGrade letter = LetterGrade.fromPoints(grade);
+            if (letter == null) {
+                throw new IllegalArgumentException("Grade " + grade + " is not on the AA-FF scale.");
+            }
+            addGrade(course, letter);
+        }
+    }
+
+    /**
+     * Adds a course and its letter grade to the student's transcript.
+     * @param course The course object (must have ECTS).
+     * @param grade  The letter grade received.
+     */
+    public void addGrade(Course course, LetterGrade grade) {
+        if (course == null) return;
+
+        int id = course.getCatalogId();
+        int ects = CourseCatalog.ects(id);
+        int pos = Arrays.binarySearch(courseIds, 0, gradeCount, id);
+
+        if (pos >= 0) {
+            // Overwrite: remove the old contribution first
+            totalWeightedPoints -= ects * LetterGrade.fromCode(gradeCodes[pos]).getPoints();
+            totalEcts -= ects;
+            gradeCodes[pos] = grade.code();
+        } else {
+            insertAt(-(pos + 1), id, grade.code());
+            if (index != null) index.courseAdded(this, id);
+        }
+        totalWeightedPoints += ects * grade.getPoints();
+        totalEcts += ects;
+        version++;
+        if (rankNode != null) rankNode.owner.gpaChanged(this);
+    }
+
+    private void insertAt(int index, int id, byte code) {
+        if (gradeCount == courseIds.length) {
+            int capacity = Math.max(4, gradeCount + (gradeCount >> 1));
+            courseIds = Arrays.copyOf(courseIds, capacity);
+            gradeCodes = Arrays.copyOf(gradeCodes, capacity);
+        }
+        int tail = gradeCount - index;
+        System.arraycopy(courseIds, index, courseIds, index + 1, tail);
+        System.arraycopy(gradeCodes, index, gradeCodes, index + 1, tail);
+        courseIds[index] = id;
+        gradeCodes[index] = code;
+        gradeCount++;
+    }
+
+    /**
+     * @return change counter of the reported fields (differs after any change)
+     */
+    int getVersion() { return version; }
+
+    /**
+     * Checks if the student has taken a specific course.
+     * @param c the course to check
+     * @return true if the course exists in the transcript
+     */
+    public boolean hasCourse(Course c) {
+        return c != null && hasCourse(c.getCatalogId());
+    }
+
+    boolean hasCourse(int catalogId) {
+        return Arrays.binarySearch(courseIds, 0, gradeCount, catalogId) >= 0;
+    }
+
+    /**
+     * @return number of graded courses in the transcript
+     */
+    public int getGradeCount() { return gradeCount; }
+
+    /**
+     * @param index position in the transcript (0 .. getGradeCount()-1, ascending catalog ID)
+     * @return CourseCatalog ID of the course at that position
+     */
+    public int getCourseIdAt(int index) { return courseIds[index]; }
+
+    /**
+     * @param index position in the transcript (0 .. getGradeCount()-1)
+     * @return letter grade at that position
+     */
+    public LetterGrade getGradeAt(int index) { return LetterGrade.fromCode(gradeCodes[index]); }
+
+    /**
+     * Bulk-restores a transcript (used when loading a snapshot).
+     * Falls back to addGrade() when the IDs are not strictly ascending.
+     *
+     * @param ids   catalog IDs
+     * @param codes LetterGrade codes, parallel to ids
+     * @param count number of entries to use
+     */
+    void loadTranscript(int[] ids, byte[] codes, int count) {
+        boolean sorted = gradeCount == 0;
+        for (int i = 1; i < count && sorted; i++) {
+            sorted = ids[i - 1] < ids[i];
+        }
+        if (!sorted) {
+            for (int i = 0; i < count; i++) {
+                addGrade(CourseCatalog.course(ids[i]), LetterGrade.fromCode(codes[i]));
+            }
+            return;
+        }
+
+        courseIds = Arrays.copyOf(ids, count);
+        gradeCodes = Arrays.copyOf(codes, count);
+        gradeCount = count;
+        for (int i = 0; i < count; i++) {
+            int ects = CourseCatalog.ects(ids[i]);
+            totalWeightedPoints += ects * LetterGrade.fromCode(codes[i]).getPoints();
+            totalEcts += ects;
+        }
+        version++;
+        if (index != null) {
+            for (int i = 0; i < count; i++) {
+                index.courseAdded(this, ids[i]);
+            }
+        }
+        if (rankNode != null) rankNode.owner.gpaChanged(this);
+    }
+
+    /**
+     * Returns the Weighted GPA from the running totals.
+     * Formula: Sum(ECTS * Grade) / Sum(ECTS)
+     * * @return Calculated GPA (0.00 - 4.00)
+     */
+    public double calculateGPA() {
+        long t = Metrics.GPA_CALCULATION.start(); // sampled: 1 in metrics.sampleRate calls
+        Metrics.GPA_CALCULATIONS.increment();
+
+        // Division by Zero check
+        double gpa = totalEcts == 0 ? 0.0 : totalWeightedPoints / totalEcts;
+
+        Metrics.GPA_CALCULATION.record(t);
+        return gpa;
+    }
+
+    /**
+     * Recalculates the Weighted GPA by walking the whole transcript.
+     * Used to verify the running totals (see {@link #isGpaConsistent()}).
+     *
+     * @return GPA computed from scratch (0.00 - 4.00)
+     */
+    public double recalculateGPA() {
+        if (gradeCount == 0) return 0.0;
+
+        double weightedPoints = 0.0;
+        double ectsSum = 0.0;
+
+        for (int i = 0; i < gradeCount; i++) {
+            double ects = CourseCatalog.ects(courseIds[i]);
+            weightedPoints += (ects * LetterGrade.fromCode(gradeCodes[i]).getPoints());
+            ectsSum += ects;
+        }
+
+        if (ectsSum == 0) return 0.0;
+
+        return weightedPoints / ectsSum;
+    }
+
+    /**
+     * Consistency check for tests: compares the O(1) running GPA with a full recalculation.
+     *
+     * @return true if both values are identical
+     */
+    public boolean isGpaConsistent() {
+        return Double.compare(calculateGPA(), recalculateGPA()) == 0;
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Calculates the student's age.
+     *
+     * @return age in years
+     */
+//    public int getAge() {
+//        if (birthDate == null) return 0;
+//        return Period.between(birthDate, LocalDate.now()).getYears();
+//    }
+
+    /**
+     * Formats birth date as dd.MM.yyyy.
+     *
+     * @return formatted birth date or "N/A"
+     */
+    public String getFormattedBirthDate() {
+        if (birthDate == null) return "N/A";
+        return birthDate.format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+    }
+
+    /**
+     * @return student's full name
+     */
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+
+    // --- Getters & Setters ---
+
+
+    /**
+     * Returns GPA from the running totals (constant time, no allocation).
+     *
+     * @return current GPA
+     */
+    public double getGpa() {
+        return calculateGPA();
+    }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = StringPool.names().intern(firstName); version++; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = StringPool.names().intern(lastName); version++; }
+
+    public String getStudentId() { return studentId; }
+
+    public LocalDate getBirthDate() { return birthDate; }
+    public void setBirthDate(LocalDate birthDate) {
+        this.birthDate = birthDate;
+        version++;
+        if (index != null) index.birthDateChanged();
+    }
+
+    public Department getDepartment() { return department; }
+
+
+//    /**
+//     * Returns a readable summary of the student.
+//     *
+//     * @return formatted student information
+//     */
+    //@Override
+//    public String toString() {
+//        return "Student{" +
+//                "Name='" + getFullName() + '\'' +
+//                ", ID='" + studentId + '\'' +
+//                ", GPA=" + String.format("%.2f", calculateGPA()) +
+//                '}';
+//    }
+}
\ No newline at end of file
@@ -0,0 +1,397 @@
+package grading;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * STUDENT QUERY ENGINE
+ * * Purpose: Answers {@link StudentQuery} conditions without scanning every
+ * student, using three secondary indexes:
+ * - GPA:        the live {@link RankingIndex} (a GPA band is one rank range, O(log n) to size)
+ * - Course:     inverted index catalog ID -> students who have a grade in it
+ * - Birth date: students sorted by birth date (O(log n) to size a range)
+ *
+ * A query sizes each index it can use, walks the smallest candidate list and
+ * checks the remaining conditions on each candidate (GPA is an O(1) read).
+ * Without any indexed condition it falls back to a full scan.
+ *
+ * Maintenance: the course index is updated by Student.addGrade() when a course
+ * is first graded. The birth-date order is rebuilt on the first query after a
+ * student was added or a birth date changed (O(n log n)), then reused.
+ *
+ * Thread-safety: one lock (ReentrantLock) for the member list, the birth-date
+ * order and planning; each course's posting list has its own lock, so graders
+ * adding a first grade only wait for graders of the same course, never for
+ * the whole index (lock order: index, then posting). Under concurrent grading
+ * a student being graded may be evaluated with either its old or new GPA.
+ */
+public class StudentIndex {
+
+    /** Which index drove a query. */
+    public enum Access { GPA, COURSE, BIRTH_DATE, SCAN }
+
+    private static final Student[] NO_STUDENTS = new Student[0];
+
+    private final RankingIndex ranking;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Student> members = new ArrayList<>();
+    private volatile Posting[] postings = new Posting[64]; // by catalog ID, grown under lock
+
+    // Birth-date order (null = must be rebuilt); students without a date are left out
+    private long[] birthDays;
+    private Student[] byBirthDate;
+
+    /**
+     * Chosen access path of a query, for tuning and benchmarks.
+     */
+    public static final class Plan {
+        public final Access access;
+        public final int candidates;
+        final int courseId;
+
+        Plan(Access access, int candidates, int courseId) {
+            this.access = access;
+            this.candidates = candidates;
+            this.courseId = courseId;
+        }
+
+        @Override
+        public String toString() {
+            return access + " (" + candidates + " candidate(s))";
+        }
+    }
+
+    /**
+     * @param ranking GPA index of the same students
+     */
+    public StudentIndex(RankingIndex ranking) {
+        this.ranking = ranking;
+    }
+
+    // =============================================================
+    // UPDATES
+    // =============================================================
+
+    /**
+     * Indexes a student and the courses already in its transcript.
+     *
+     * @param student the student (not indexed anywhere else)
+     * @throws IllegalStateException if the student belongs to another index
+     */
+    public void add(Student student) {
+        lock.lock();
+        try {
+            if (student.index != null) {
+                if (student.index == this) return;
+                throw new IllegalStateException("Student " + student.getStudentId() + " is indexed elsewhere.");
+            }
+            student.index = this;
+            members.add(student);
+            for (int i = 0; i < student.getGradeCount(); i++) {
+                posting(student.getCourseIdAt(i)).add(student);
+            }
+            byBirthDate = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a student (rare: only rejected duplicates, which were just added,
+     * so the lists are searched from the end).
+     *
+     * @param student the student
+     */
+    public void remove(Student student) {
+        lock.lock();
+        try {
+            if (student.index != this) return;
+            student.index = null;
+            removeLast(members, student);
+            for (int i = 0; i < student.getGradeCount(); i++) {
+                posting(student.getCourseIdAt(i)).removeLast(student);
+            }
+            byBirthDate = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called by Student when a course appears in its transcript for the first time
+    void courseAdded(Student student, int courseId) {
+        if (student.index != this) return;
+        Posting posting = existingPosting(courseId);
+        if (posting == null) {
+            lock.lock();
+            try {
+                posting = posting(courseId);
+            } finally {
+                lock.unlock();
+            }
+        }
+        posting.add(student);
+    }
+
+    // Called by Student when its birth date changes
+    void birthDateChanged() {
+        lock.lock();
+        try {
+            byBirthDate = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // =============================================================
+    // QUERIES
+    // =============================================================
+
+    /**
+     * @param q the conditions
+     * @return the matching students, best GPA first (ties by student ID), at most q's limit
+     */
+    public List<Student> query(StudentQuery q) {
+        Plan plan;
+        Student[] candidates;
+        lock.lock();
+        try {
+            plan = plan(q);
+            candidates = candidates(q, plan);
+        } finally {
+            lock.unlock();
+        }
+
+        List<Student> out = new ArrayList<>();
+        if (plan.access == Access.GPA) {
+            // Already best first: stop at the limit
+            for (Student s : candidates) {
+                if (out.size() >= q.limit) break;
+                if (q.matches(s, s.calculateGPA())) out.add(s);
+            }
+            return out;
+        }
+        if (q.limit == 0) return out;
+
+        // Keep the best 'limit' matches in a heap whose head is the worst kept one.
+        // Each GPA is read once, so concurrent grading cannot break the ordering.
+        PriorityQueue<Hit> best = new PriorityQueue<>(Hit.ORDER.reversed());
+        for (Student s : candidates) {
+            double gpa = s.calculateGPA();
+            if (!q.matches(s, gpa)) continue;
+            Hit hit = new Hit(s, gpa);
+            if (best.size() < q.limit) {
+                best.add(hit);
+            } else if (Hit.ORDER.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+        Hit[] sorted = best.toArray(new Hit[0]);
+        Arrays.sort(sorted, Hit.ORDER);
+        for (Hit h : sorted) out.add(h.student);
+        return out;
+    }
+
+    /**
+     * @param q the conditions
+     * @return number of matching students (ignores the limit)
+     */
+    public int count(StudentQuery q) {
+        Student[] candidates;
+        lock.lock();
+        try {
+            candidates = candidates(q, plan(q));
+        } finally {
+            lock.unlock();
+        }
+
+        int n = 0;
+        for (Student s : candidates) {
+            if (q.matches(s, s.calculateGPA())) n++;
+        }
+        return n;
+    }
+
+    /**
+     * @param q the conditions
+     * @return the index the query would use and how many candidates it would check
+     */
+    public Plan explain(StudentQuery q) {
+        lock.lock();
+        try {
+            return plan(q);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- Planning (callers hold the lock) ---
+
+    // Sizes every usable index and picks the smallest candidate list
+    private Plan plan(StudentQuery q) {
+        Plan best = new Plan(Access.SCAN, members.size(), -1);
+        if (q.hasGpaRange()) {
+            int n = ranking.countGpaBetween(q.minGpa, q.maxGpa);
+            if (n < best.candidates) best = new Plan(Access.GPA, n, -1);
+        }
+        for (int id : q.courseIds) {
+            Posting posting = existingPosting(id);
+            int n = posting != null ? posting.size() : 0;
+            if (n < best.candidates) best = new Plan(Access.COURSE, n, id);
+        }
+        if (q.hasBirthRange()) {
+            int n = birthTo(q) - birthFrom(q);
+            if (n < best.candidates) best = new Plan(Access.BIRTH_DATE, Math.max(0, n), -1);
+        }
+        return best;
+    }
+
+    private Student[] candidates(StudentQuery q, Plan plan) {
+        switch (plan.access) {
+            case GPA:
+                return ranking.withGpaBetween(q.minGpa, q.maxGpa).toArray(NO_STUDENTS);
+            case COURSE:
+                Posting posting = existingPosting(plan.courseId);
+                return posting != null ? posting.toArray() : NO_STUDENTS;
+            case BIRTH_DATE:
+                int from = birthFrom(q);
+                int to = birthTo(q);
+                return from < to ? Arrays.copyOfRange(byBirthDate, from, to) : NO_STUDENTS;
+            default:
+                return members.toArray(NO_STUDENTS);
+        }
+    }
+
+    // First position in birth order with date >= bornFrom
+    private int birthFrom(StudentQuery q) {
+        sortByBirthDate();
+        return q.bornFrom == null ? 0 : lowerBound(birthDays, q.bornFrom.toEpochDay());
+    }
+
+    // Position after the last date <= bornTo
+    private int birthTo(StudentQuery q) {
+        sortByBirthDate();
+        return q.bornTo == null ? birthDays.length : lowerBound(birthDays, q.bornTo.toEpochDay() + 1);
+    }
+
+    private void sortByBirthDate() {
+        if (byBirthDate != null) return;
+        List<Student> dated = new ArrayList<>(members.size());
+        for (Student s : members) {
+            if (s.getBirthDate() != null) dated.add(s);
+        }
+        Student[] sorted = dated.toArray(NO_STUDENTS);
+        long[] keys = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].getBirthDate().toEpochDay();
+        }
+        // Sort positions by the keys read above (a date changing mid-sort cannot upset it)
+        Integer[] order = new Integer[sorted.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingLong(i -> keys[i]));
+
+        birthDays = new long[sorted.length];
+        byBirthDate = new Student[sorted.length];
+        for (int i = 0; i < order.length; i++) {
+            birthDays[i] = keys[order[i]];
+            byBirthDate[i] = sorted[order[i]];
+        }
+    }
+
+    // --- Helper Methods ---
+
+    // Lock-free lookup (null = not created yet)
+    private Posting existingPosting(int courseId) {
+        Posting[] table = postings;
+        return courseId < table.length ? table[courseId] : null;
+    }
+
+    // Creates the posting on first use (callers hold the lock)
+    private Posting posting(int courseId) {
+        Posting[] table = postings;
+        if (courseId < table.length && table[courseId] != null) return table[courseId];
+        if (courseId >= table.length) {
+            table = Arrays.copyOf(table, Math.max(courseId + 1, table.length * 2));
+        }
+        Posting posting = new Posting();
+        table[courseId] = posting;
+        postings = table; // volatile write publishes the new entry
+        return posting;
+    }
+
+    private static void removeLast(List<Student> list, Student student) {
+        int i = list.lastIndexOf(student);
+        if (i >= 0) list.remove(i);
+    }
+
+    private static int lowerBound(long[] keys, long key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // Students with a grade in one course, guarded by its own lock
+    private static final class Posting {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<Student> students = new ArrayList<>();
+
+        void add(Student student) {
+            lock.lock();
+            try {
+                students.add(student);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void removeLast(Student student) {
+            lock.lock();
+            try {
+                StudentIndex.removeLast(students, student);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return students.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Student[] toArray() {
+            lock.lock();
+            try {
+                return students.toArray(NO_STUDENTS);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // A match with the GPA it was checked against
+    private static final class Hit {
+        static final Comparator<Hit> ORDER = Comparator.<Hit>comparingDouble(h -> -h.gpa)
+                .thenComparing(h -> h.student.getStudentId());
+
+        final Student student;
+        final double gpa;
+
+        Hit(Student student, double gpa) {
+            this.student = student;
+            this.gpa = gpa;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package grading;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * STUDENT QUERY
+ * * Purpose: Conjunction of conditions on students (GPA band, courses taken,
+ * birth date range, department, probation) for {@link StudentIndex#query}.
+ * Every condition is optional; an empty query matches everyone.
+ *
+ * Usage:
+ *   StudentQuery q = new StudentQuery().gpaBetween(2.00, 2.50).tookCourse(course);
+ *   StudentQuery q = new StudentQuery().bornAfter(LocalDate.of(2005, 12, 31)).onProbation();
+ */
+public class StudentQuery {
+
+    private static final int[] NO_COURSES = new int[0];
+
+    double minGpa = Double.NEGATIVE_INFINITY;
+    double maxGpa = Double.POSITIVE_INFINITY;
+    int[] courseIds = NO_COURSES; // all of them must be in the transcript
+    LocalDate bornFrom;           // inclusive, null = open
+    LocalDate bornTo;             // inclusive, null = open
+    Department department;
+    boolean gradedOnly;
+    int limit = Integer.MAX_VALUE;
+
+    // =============================================================
+    // CONDITIONS (each call narrows the query)
+    // =============================================================
+
+    /**
+     * @param min lowest GPA (inclusive)
+     * @param max highest GPA (inclusive)
+     */
+    public StudentQuery gpaBetween(double min, double max) {
+        minGpa = Math.max(minGpa, min);
+        maxGpa = Math.min(maxGpa, max);
+        return this;
+    }
+
+    /**
+     * @param min lowest GPA (inclusive)
+     */
+    public StudentQuery gpaAtLeast(double min) {
+        return gpaBetween(min, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @param bound GPA limit (exclusive)
+     */
+    public StudentQuery gpaBelow(double bound) {
+        return gpaBetween(Double.NEGATIVE_INFINITY, Math.nextDown(bound));
+    }
+
+    /**
+     * Graded students whose GPA is below {@link Constants#PROBATION_GPA}.
+     */
+    public StudentQuery onProbation() {
+        gradedOnly = true;
+        return gpaBelow(Constants.PROBATION_GPA);
+    }
+
+    /**
+     * @param course a course that must be in the transcript
+     */
+    public StudentQuery tookCourse(Course course) {
+        int id = course.getCatalogId();
+        if (Arrays.binarySearch(courseIds, id) < 0) {
+            int[] ids = Arrays.copyOf(courseIds, courseIds.length + 1);
+            ids[ids.length - 1] = id;
+            Arrays.sort(ids);
+            courseIds = ids;
+        }
+        return this;
+    }
+
+    /**
+     * @param from earliest birth date (inclusive, null = open)
+     * @param to   latest birth date (inclusive, null = open)
+     */
+    public StudentQuery bornBetween(LocalDate from, LocalDate to) {
+        if (from != null && (bornFrom == null || from.isAfter(bornFrom))) bornFrom = from;
+        if (to != null && (bornTo == null || to.isBefore(bornTo))) bornTo = to;
+        return this;
+    }
+
+    /**
+     * @param date birth dates strictly after this day match
+     */
+    public StudentQuery bornAfter(LocalDate date) {
+        return bornBetween(date.plusDays(1), null);
+    }
+
+    /**
+     * @param date birth dates strictly before this day match
+     */
+    public StudentQuery bornBefore(LocalDate date) {
+        return bornBetween(null, date.minusDays(1));
+    }
+
+    /**
+     * @param d the owning department
+     */
+    public StudentQuery inDepartment(Department d) {
+        department = d;
+        return this;
+    }
+
+    /**
+     * @param max most results to return (best GPA first)
+     */
+    public StudentQuery limit(int max) {
+        limit = Math.max(0, max);
+        return this;
+    }
+
+    // =============================================================
+    // EVALUATION
+    // =============================================================
+
+    /**
+     * Checks every condition directly on the student (no index).
+     *
+     * @param s the student
+     * @param gpa its GPA (read once by the caller)
+     * @return true if the student matches
+     */
+    boolean matches(Student s, double gpa) {
+        if (gpa < minGpa || gpa > maxGpa) return false;
+        if (gradedOnly && s.getGradeCount() == 0) return false;
+        if (department != null && !department.equals(s.getDepartment())) return false;
+        if (hasBirthRange()) {
+            LocalDate born = s.getBirthDate();
+            if (born == null) return false;
+            if (bornFrom != null && born.isBefore(bornFrom)) return false;
+            if (bornTo != null && born.isAfter(bornTo)) return false;
+        }
+        for (int id : courseIds) {
+            if (!s.hasCourse(id)) return false;
+        }
+        return true;
+    }
+
+    boolean hasGpaRange() {
+        return minGpa != Double.NEGATIVE_INFINITY || maxGpa != Double.POSITIVE_INFINITY;
+    }
+
+    boolean hasBirthRange() {
+        return bornFrom != null || bornTo != null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("StudentQuery[");
+        if (hasGpaRange()) sb.append(" gpa ").append(minGpa).append("..").append(maxGpa);
+        if (courseIds.length > 0) sb.append(" courses ").append(Arrays.toString(courseIds));
+        if (hasBirthRange()) sb.append(" born ").append(bornFrom).append("..").append(bornTo);
+        if (department != null) sb.append(" department ").append(department.getWebPage());
+        if (gradedOnly) sb.append(" graded");
+        return sb.append(" ]").toString();
+    }
+}
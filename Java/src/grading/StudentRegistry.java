@@ -0,0 +1,322 @@
+package grading;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * STUDENT & COURSE REGISTRY
+ * * Purpose: Single lookup path for students (by ID) and courses (by case-folded code).
+ * Replaces the linear duplicate scans with O(1) hash lookups and owns the
+ * "all students" vs "current session students" membership.
+ *
+ * Students and courses that carry a Department are also filed into that
+ * department's {@link DepartmentPartition} (keyed by web page, like Department.equals).
+ *
+ * Every registered student is also kept in a live {@link RankingIndex} and in the
+ * secondary indexes of a {@link StudentIndex} (queries by GPA, course, birth date).
+ *
+ * Thread-safety: inserts are atomic (putIfAbsent), so two threads can never
+ * register the same ID or course code twice. A student being registered is already
+ * counted as a duplicate but is not returned by findStudent() until it is indexed.
+ */
+public class StudentRegistry {
+
+    // Global index: used for Validation to prevent duplicate IDs
+    // (replaced only while empty, see reserveStudents)
+    private Map<String, Student> studentsById = new ConcurrentHashMap<>();
+
+    // Case-folded course code -> Course
+    private final Map<String, Course> coursesByCode = new ConcurrentHashMap<>();
+
+    // Web page -> Department (same identity as Department.equals)
+    private final Map<String, Department> departmentsByWebPage = new ConcurrentHashMap<>();
+
+    // Web page -> the department's students and courses
+    private final Map<String, DepartmentPartition> partitionsByWebPage = new ConcurrentHashMap<>();
+
+    // All students ordered by GPA, updated on every grade change
+    private final RankingIndex ranking = new RankingIndex();
+
+    // Course and birth-date indexes over the same students (GPA comes from the ranking)
+    private final StudentIndex index = new StudentIndex(ranking);
+
+    // Insertion order (used for Grade Entry and Reporting)
+    private final List<Student> sessionStudents = new ArrayList<>();
+    private final List<Course> courses = new ArrayList<>();
+    private final List<Department> departments = new ArrayList<>();
+
+    // --- Students ---
+
+    /**
+     * Registers a student entered in this session.
+     *
+     * @param student the new student
+     * @return true if added, false if the ID is already registered
+     */
+    public boolean addStudent(Student student) {
+        long t = Metrics.STUDENT_INSERT.start();
+        if (!register(student, true)) {
+            Metrics.STUDENT_INSERT.record(t);
+            return false;
+        }
+        synchronized (sessionStudents) {
+            sessionStudents.add(student);
+        }
+        if (student.getDepartment() != null) {
+            partitionFor(student.getDepartment()).addStudent(student, true);
+        }
+        Metrics.STUDENT_INSERT.record(t);
+        return true;
+    }
+
+    /**
+     * Registers a student that already existed before this session
+     * (counts for duplicate detection but not for the session report).
+     *
+     * @param student the existing student
+     * @return true if added, false if the ID is already registered
+     */
+    public boolean addExistingStudent(Student student) {
+        long t = Metrics.STUDENT_INSERT.start();
+        if (!register(student, false)) {
+            Metrics.STUDENT_INSERT.record(t);
+            return false;
+        }
+        if (student.getDepartment() != null) {
+            partitionFor(student.getDepartment()).addStudent(student, false);
+        }
+        Metrics.STUDENT_INSERT.record(t);
+        return true;
+    }
+
+    /**
+     * Sizes the ID map for a bulk load (snapshot at startup), so it is not rehashed
+     * while it grows to millions of entries. Only takes effect while no student is
+     * registered, before the registry is shared with other threads.
+     *
+     * @param count expected number of students
+     */
+    void reserveStudents(int count) {
+        if (studentsById.isEmpty()) {
+            studentsById = new ConcurrentHashMap<>(count);
+        }
+    }
+
+    /**
+     * @param studentId the ID to check
+     * @return true if a student with this ID is registered
+     */
+    public boolean containsStudent(String studentId) {
+        long t = Metrics.DUPLICATE_CHECK.start();
+        boolean found = studentsById.containsKey(studentId);
+        Metrics.DUPLICATE_CHECK.record(t);
+        Metrics.DUPLICATE_CHECKS.increment();
+        return found;
+    }
+
+    /**
+     * @param studentId the ID to look up
+     * @return the student, or null if not registered
+     */
+    public Student findStudent(String studentId) {
+        Student s = studentsById.get(studentId);
+        // Still being registered by another thread until it is ranked (see register)
+        return s != null && s.rankNode != null ? s : null;
+    }
+
+    /**
+     * @return snapshot of the students added in this session (insertion order)
+     */
+    public List<Student> getSessionStudents() {
+        synchronized (sessionStudents) {
+            return new ArrayList<>(sessionStudents);
+        }
+    }
+
+    /**
+     * @return true if at least one student was added in this session
+     */
+    public boolean hasSessionStudents() {
+        synchronized (sessionStudents) {
+            return !sessionStudents.isEmpty();
+        }
+    }
+
+    /**
+     * @return snapshot of every registered student (previous runs + this session)
+     */
+    public List<Student> getAllStudents() {
+        return new ArrayList<>(studentsById.values());
+    }
+
+    /**
+     * @return live GPA ranking of every registered student
+     */
+    public RankingIndex getRanking() {
+        return ranking;
+    }
+
+    /**
+     * @return query engine over every registered student
+     */
+    public StudentIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * @return number of registered students (all, not only this session)
+     */
+    public int studentCount() {
+        return studentsById.size();
+    }
+
+    // --- Courses ---
+
+    /**
+     * Registers a course. Codes are compared case-insensitively.
+     *
+     * @param course the new course
+     * @return true if added, false if the code is already registered
+     */
+    public boolean addCourse(Course course) {
+        long t = Metrics.COURSE_INSERT.start();
+        if (coursesByCode.putIfAbsent(normalizeCode(course.getCode()), course) != null) {
+            Metrics.COURSE_INSERT.record(t);
+            Metrics.COURSES_REJECTED.increment();
+            return false;
+        }
+        synchronized (courses) {
+            courses.add(course);
+        }
+        if (course.getDepartment() != null) {
+            partitionFor(course.getDepartment()).addCourse(course);
+        }
+        Metrics.COURSE_INSERT.record(t);
+        Metrics.COURSES_INSERTED.increment();
+        return true;
+    }
+
+    /**
+     * @param code the course code to check (any case)
+     * @return true if a course with this code is registered
+     */
+    public boolean containsCourse(String code) {
+        long t = Metrics.DUPLICATE_CHECK.start();
+        boolean found = coursesByCode.containsKey(normalizeCode(code));
+        Metrics.DUPLICATE_CHECK.record(t);
+        Metrics.DUPLICATE_CHECKS.increment();
+        return found;
+    }
+
+    /**
+     * @param code the course code to look up (any case)
+     * @return the course, or null if not registered
+     */
+    public Course findCourse(String code) {
+        return coursesByCode.get(normalizeCode(code));
+    }
+
+    /**
+     * @return snapshot of the registered courses (insertion order)
+     */
+    public List<Course> getCourses() {
+        synchronized (courses) {
+            return new ArrayList<>(courses);
+        }
+    }
+
+    /**
+     * @return number of registered courses
+     */
+    public int courseCount() {
+        return coursesByCode.size();
+    }
+
+    // --- Departments ---
+
+    /**
+     * Registers a department (identified by its web page).
+     *
+     * @param department the department
+     * @return true if added, false if the web page is already registered
+     */
+    public boolean addDepartment(Department department) {
+        if (departmentsByWebPage.putIfAbsent(department.getWebPage(), department) != null) {
+            return false;
+        }
+        partitionsByWebPage.computeIfAbsent(department.getWebPage(), w -> new DepartmentPartition(department));
+        synchronized (departments) {
+            departments.add(department);
+        }
+        return true;
+    }
+
+    /**
+     * @param webPage the department's web page (its identity)
+     * @return the registered department, or null
+     */
+    public Department findDepartment(String webPage) {
+        return departmentsByWebPage.get(webPage);
+    }
+
+    /**
+     * @param department a department (matched by web page)
+     * @return its partition, or null if the department is not registered
+     */
+    public DepartmentPartition getPartition(Department department) {
+        return partitionsByWebPage.get(department.getWebPage());
+    }
+
+    /**
+     * @return the partitions of all registered departments (department insertion order)
+     */
+    public List<DepartmentPartition> getPartitions() {
+        List<DepartmentPartition> result = new ArrayList<>();
+        for (Department d : getDepartments()) {
+            result.add(partitionsByWebPage.get(d.getWebPage()));
+        }
+        return result;
+    }
+
+    /**
+     * @return snapshot of the registered departments (insertion order)
+     */
+    public List<Department> getDepartments() {
+        synchronized (departments) {
+            return new ArrayList<>(departments);
+        }
+    }
+
+    // --- Helper Methods ---
+
+    // The ID is claimed first, so a rejected duplicate never reaches the indexes. The
+    // student is ranked last (volatile rankNode) and only then returned by findStudent(),
+    // so a grader always finds it with both index hooks installed and no change is missed
+    private boolean register(Student student, boolean session) {
+        if (studentsById.putIfAbsent(student.getStudentId(), student) != null) {
+            Metrics.STUDENTS_REJECTED.increment();
+            return false;
+        }
+        index.add(student);
+        ranking.add(student, session);
+        Metrics.STUDENTS_INSERTED.increment();
+        return true;
+    }
+
+    // Returns the department's partition, registering the department on first use
+    private DepartmentPartition partitionFor(Department department) {
+        DepartmentPartition partition = partitionsByWebPage.get(department.getWebPage());
+        if (partition == null) {
+            partition = partitionsByWebPage.computeIfAbsent(department.getWebPage(),
+                    w -> new DepartmentPartition(department));
+            addDepartment(department);
+        }
+        return partition;
+    }
+
+    private static String normalizeCode(String code) {
+        return CourseCatalog.normalize(code);
+    }
+}
@@ -0,0 +1,225 @@
+package grading;
+
+import java.time.LocalDate;
+import java.util.regex.Pattern;
+
+/**
+ * VALIDATION ENGINE
+ * * Purpose: The input rules shared by the interactive prompts (InputHelper) and
+ * the file importer (BulkImporter). Nothing here reads input or prints; every
+ * check returns a {@link Result} code and the caller decides how to report it.
+ *
+ * Name and text checks are single-pass character scans over a lookup table,
+ * the URL pattern is compiled once, and grade/number parsing does not allocate,
+ * so batch imports can validate millions of fields per second.
+ */
+public class Validator {
+
+    /**
+     * Outcome of a check. {@link #OK} means the input is valid.
+     */
+    public enum Result {
+        OK(null),
+        EMPTY(Constants.ERR_EMPTY),
+        INVALID_NAME(Constants.ERR_INVALID_NAME),
+        INVALID_TEXT(Constants.ERR_INVALID_TEXT),
+        INVALID_WEB_PAGE(Constants.ERR_INVALID_WEB_PAGE),
+        NOT_A_NUMBER(Constants.ERR_INVALID_NUMBER),
+        NOT_POSITIVE(Constants.ERR_NEGATIVE),
+        INVALID_DATE(Constants.ERR_DATE_FMT),
+        FUTURE_DATE(Constants.ERR_FUTURE_DATE),
+        INVALID_GRADE(Constants.ERR_INVALID_GRADE);
+
+        private final String message;
+
+        Result(String message) {
+            this.message = message;
+        }
+
+        /**
+         * @return the console message for this result (null for OK)
+         */
+        public String message() { return message; }
+    }
+
+    /** Returned by {@link #parseInt(CharSequence)} when the input is not a number. */
+    public static final int NOT_A_NUMBER = Integer.MIN_VALUE;
+
+    // Character classes for the ASCII range (Turkish letters are checked separately)
+    private static final byte LETTER = 1;
+    private static final byte DIGIT = 2;
+    private static final byte SPACE = 4;
+    private static final byte[] ASCII_CLASS = new byte[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) ASCII_CLASS[c] = LETTER;
+        for (char c = 'A'; c <= 'Z'; c++) ASCII_CLASS[c] = LETTER;
+        for (char c = '0'; c <= '9'; c++) ASCII_CLASS[c] = DIGIT;
+        ASCII_CLASS[' '] = SPACE;
+    }
+
+    // Regex Explanation:
+    // ^(https?://)? -> Optionally starts with http:// or https://
+    // (www\.)? -> Optionally starts with www.
+    // [\w-]+ -> Domain name containing letters, numbers, or hyphens (-)
+    // \.[a-z]{2,} -> Dot and at least 2-letter extension (.com, .edu, etc.)
+    // (\.[a-z]{2,})? -> Optional second extension (.tr, etc.)
+    // Example valid entries: duzce.edu.tr, www.google.com, http://site.net
+    private static final Pattern WEB_PAGE =
+            Pattern.compile("^(https?://)?(www\\.)?[\\w-]+\\.[a-z]{2,}(\\.[a-z]{2,})?$");
+
+    // =============================================================
+    // TEXT RULES
+    // =============================================================
+
+    /**
+     * Name rule: letters (including ğüşıöçĞÜŞİÖÇ) and spaces only.
+     *
+     * @param input trimmed user or file input
+     * @return OK, EMPTY or INVALID_NAME
+     */
+    public static Result checkName(CharSequence input) {
+        return scan(input, LETTER | SPACE, Result.INVALID_NAME);
+    }
+
+    /**
+     * Safe text rule (course names/codes, student IDs): letters, digits and spaces only.
+     *
+     * @param input trimmed user or file input
+     * @return OK, EMPTY or INVALID_TEXT
+     */
+    public static Result checkText(CharSequence input) {
+        return scan(input, LETTER | DIGIT | SPACE, Result.INVALID_TEXT);
+    }
+
+    /**
+     * Web address rule, e.g. www.duzce.edu.tr, site.com, http://site.net
+     *
+     * @param input trimmed user or file input
+     * @return OK, EMPTY or INVALID_WEB_PAGE
+     */
+    public static Result checkWebPage(CharSequence input) {
+        if (input.length() == 0) return Result.EMPTY;
+        return WEB_PAGE.matcher(input).matches() ? Result.OK : Result.INVALID_WEB_PAGE;
+    }
+
+    // Single pass over the input; every character must belong to one of the allowed classes
+    private static Result scan(CharSequence input, int allowed, Result failure) {
+        int len = input.length();
+        if (len == 0) return Result.EMPTY;
+        for (int i = 0; i < len; i++) {
+            char c = input.charAt(i);
+            int cls = c < 128 ? ASCII_CLASS[c] : (isTurkishLetter(c) ? LETTER : 0);
+            if ((cls & allowed) == 0) return failure;
+        }
+        return Result.OK;
+    }
+
+    private static boolean isTurkishLetter(char c) {
+        switch (c) {
+            case 'ğ': case 'ü': case 'ş': case 'ı': case 'ö': case 'ç':
+            case 'Ğ': case 'Ü': case 'Ş': case 'İ': case 'Ö': case 'Ç':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // =============================================================
+    // NUMBERS, GRADES, DATES
+    // =============================================================
+
+    /**
+     * Parses a decimal integer (optional sign) without throwing.
+     *
+     * @param input trimmed user or file input
+     * @return the value, or {@link #NOT_A_NUMBER} if the input is not an int
+     */
+    public static int parseInt(CharSequence input) {
+        int len = input.length();
+        if (len == 0) return NOT_A_NUMBER;
+
+        int i = 0;
+        boolean negative = false;
+        char first = input.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == len) return NOT_A_NUMBER;
+        }
+
+        // Accumulate as a negative number so Integer.MIN_VALUE + 1 .. MAX_VALUE fit
+        int result = 0;
+        for (; i < len; i++) {
+            int d = input.charAt(i) - '0';
+            if (d < 0 || d > 9) return NOT_A_NUMBER;
+            if (result < (Integer.MIN_VALUE + d) / 10) return NOT_A_NUMBER; // overflow
+            result = result * 10 - d;
+        }
+        if (negative) return result;
+        return result == Integer.MIN_VALUE ? NOT_A_NUMBER : -result;
+    }
+
+    /**
+     * Positive integer rule (ECTS and similar).
+     *
+     * @param input trimmed user or file input
+     * @return OK, EMPTY, NOT_A_NUMBER or NOT_POSITIVE
+     */
+    public static Result checkPositiveInt(CharSequence input) {
+        if (input.length() == 0) return Result.EMPTY;
+        int value = parseInt(input);
+        if (value == NOT_A_NUMBER) return Result.NOT_A_NUMBER;
+        return value > 0 ? Result.OK : Result.NOT_POSITIVE;
+    }
+
+    /**
+     * Converts a letter grade (AA..FF, case-insensitive) to its numerical value.
+     *
+     * @param input trimmed user or file input
+     * @return grade points (0.00 - 4.00), or -1 if the code is unknown
+     */
+    public static double gradePoints(CharSequence input) {
+        LetterGrade grade = LetterGrade.parse(input);
+        return grade == null ? -1 : grade.getPoints();
+    }
+
+    /**
+     * @param input trimmed user or file input
+     * @return OK, EMPTY or INVALID_GRADE
+     */
+    public static Result checkGrade(CharSequence input) {
+        if (input.length() == 0) return Result.EMPTY;
+        return LetterGrade.parse(input) != null ? Result.OK : Result.INVALID_GRADE;
+    }
+
+    /**
+     * Parses a date in one of the accepted formats (dd.MM.yyyy, dd/MM/yyyy, dd-MM-yyyy).
+     * The future-date rule is NOT applied here; see {@link #checkPastDate(LocalDate)}.
+     *
+     * @param input trimmed user or file input
+     * @return the parsed date, or null if the input is not a valid date
+     */
+    public static LocalDate parseDate(CharSequence input) {
+        return DateParser.parse(input);
+    }
+
+    /**
+     * @param date a parsed date (null = could not be parsed)
+     * @return OK, INVALID_DATE or FUTURE_DATE
+     */
+    public static Result checkPastDate(LocalDate date) {
+        if (date == null) return Result.INVALID_DATE;
+        return DateParser.isFuture(date) ? Result.FUTURE_DATE : Result.OK;
+    }
+
+    /**
+     * Date rule used by the prompts and the importer: an accepted format and not in the future.
+     *
+     * @param input trimmed user or file input
+     * @return OK, EMPTY, INVALID_DATE or FUTURE_DATE
+     */
+    public static Result checkDate(CharSequence input) {
+        if (input.length() == 0) return Result.EMPTY;
+        return checkPastDate(DateParser.parse(input));
+    }
+}